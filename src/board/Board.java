@@ -2,12 +2,14 @@ package board;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import pieces.*;
+import pieces.Piece.PieceType;
 import player.*;
 
 /**
@@ -27,6 +29,10 @@ public class Board {
         private final Collection<Piece> whitePieces;
         private final Collection<Piece> blackPieces;
         private final Pawn enPassantPawn; //only stays for 1 turn
+        private final long pawnKey; //Zobrist key of the pawns only, see Zobrist
+        private final long hashKey; //Zobrist key of the whole position
+        private final int halfmoveClock; //Moves since the last capture or pawn move
+        private final int fullmoveNumber; //Starts at 1, goes up after black moves
         
         private Board (Builder builder) {
             
@@ -35,6 +41,12 @@ public class Board {
             this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
             
             this.enPassantPawn = builder.enPassantPawn;
+            this.halfmoveClock = builder.halfmoveClock;
+            this.fullmoveNumber = builder.fullmoveNumber;
+            //Moves pass the key on already updated, anything else builds it from scratch
+            this.pawnKey = builder.pawnKey != null ? builder.pawnKey : Zobrist.calculatePawnKey(this.gameBoard);
+            //Cheap next to the move generation below, so it is simply rebuilt for every board
+            this.hashKey = Zobrist.calculateHashKey(this.gameBoard, builder.nextMoveMaker, this.enPassantPawn);
             
             Collection<Move> whiteLegalMoves = calculateLegalMoves(this.whitePieces);
             Collection<Move> blackLegalMoves = calculateLegalMoves(this.blackPieces);
@@ -93,6 +105,264 @@ public class Board {
             return enPassantPawn;
         }
         
+        public long getPawnKey() {
+            return pawnKey;
+        }
+        
+        public long getHashKey() {
+            return hashKey;
+        }
+        
+        public int getHalfmoveClock() {
+            return halfmoveClock;
+        }
+        
+        public int getFullmoveNumber() {
+            return fullmoveNumber;
+        }
+        
+        /*
+         * Reads a position in Forsyth-Edwards Notation. The characters are read
+         * one at a time straight into the builder, with no splitting or regex,
+         * since the batch tools read millions of these. The halfmove and
+         * fullmove counters may be left off, and whatever follows the fields
+         * (EPD operations, a result) is ignored. Castling rights become kings
+         * and rooks that have not moved yet
+         * For more information: https://en.wikipedia.org/wiki/Forsyth%E2%80%93Edwards_Notation
+        */
+        public static Board fromFen(CharSequence fen) {
+            int length = fen.length();
+            int placement = skipSpaces(fen, 0);
+            int i = skipField(fen, placement);
+            
+            i = skipSpaces(fen, i);
+            if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+                throw new IllegalArgumentException("Bad side to move in FEN: " + fen);
+            }
+            Alliance moveMaker = fen.charAt(i) == 'w' ? Alliance.WHITE : Alliance.BLACK;
+            i = skipSpaces(fen, i + 1);
+            
+            //The rights are needed before the kings and rooks can be made
+            boolean whiteKingSide = false;
+            boolean whiteQueenSide = false;
+            boolean blackKingSide = false;
+            boolean blackQueenSide = false;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                switch (fen.charAt(i)) {
+                    case 'K':
+                        whiteKingSide = true;
+                        break;
+                    case 'Q':
+                        whiteQueenSide = true;
+                        break;
+                    case 'k':
+                        blackKingSide = true;
+                        break;
+                    case 'q':
+                        blackQueenSide = true;
+                        break;
+                    case '-':
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Bad castling rights in FEN: " + fen);
+                }
+            }
+            
+            Builder builder = new Builder();
+            int tile = 0;
+            for (int j = placement; j < length && fen.charAt(j) != ' '; j++) {
+                char c = fen.charAt(j);
+                if (c == '/') {
+                    continue;
+                }
+                if (c >= '1' && c <= '8') {
+                    tile += c - '0';
+                    continue;
+                }
+                if (tile > 63) {
+                    throw new IllegalArgumentException("Too many tiles in FEN: " + fen);
+                }
+                Alliance alliance = c < 'a' ? Alliance.WHITE : Alliance.BLACK;
+                boolean white = alliance.isWhite();
+                switch (c < 'a' ? c : (char) (c - 'a' + 'A')) {
+                    case 'P':
+                        builder.setPiece(new Pawn(tile, alliance, tile >>> 3 == (white ? 6 : 1)));
+                        break;
+                    case 'N':
+                        builder.setPiece(new Knight(tile, alliance, false));
+                        break;
+                    case 'B':
+                        builder.setPiece(new Bishop(tile, alliance, false));
+                        break;
+                    case 'R':
+                        boolean unmoved = white ? (tile == 63 && whiteKingSide) || (tile == 56 && whiteQueenSide)
+                                                : (tile == 7 && blackKingSide) || (tile == 0 && blackQueenSide);
+                        builder.setPiece(new Rook(tile, alliance, unmoved));
+                        break;
+                    case 'Q':
+                        builder.setPiece(new Queen(tile, alliance, false));
+                        break;
+                    case 'K':
+                        boolean kingSide = white ? whiteKingSide : blackKingSide;
+                        boolean queenSide = white ? whiteQueenSide : blackQueenSide;
+                        boolean canCastle = tile == (white ? 60 : 4) && (kingSide || queenSide);
+                        builder.setPiece(new King(tile, alliance, canCastle, false, canCastle && kingSide, canCastle && queenSide));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Bad piece in FEN: " + fen);
+                }
+                tile++;
+            }
+            if (tile != 64) {
+                throw new IllegalArgumentException("Not 64 tiles in FEN: " + fen);
+            }
+            builder.setMoveMaker(moveMaker);
+            
+            //The square the pawn jumped over, the board keeps the pawn itself
+            i = skipSpaces(fen, i);
+            if (i < length && fen.charAt(i) != '-') {
+                if (i + 1 >= length || fen.charAt(i) < 'a' || fen.charAt(i) > 'h' ||
+                    (fen.charAt(i + 1) != '3' && fen.charAt(i + 1) != '6')) {
+                    throw new IllegalArgumentException("Bad en passant square in FEN: " + fen);
+                }
+                int square = (8 - (fen.charAt(i + 1) - '0')) * 8 + (fen.charAt(i) - 'a');
+                Piece pawn = builder.boardConfig.get(fen.charAt(i + 1) == '3' ? square - 8 : square + 8);
+                if (pawn instanceof Pawn) {
+                    builder.setEnPassantPawn((Pawn) pawn);
+                }
+            }
+            i = skipSpaces(fen, skipField(fen, i));
+            
+            if (i < length && Character.isDigit(fen.charAt(i))) {
+                builder.setHalfmoveClock(parseNumber(fen, i));
+                i = skipSpaces(fen, skipField(fen, i));
+                if (i < length && Character.isDigit(fen.charAt(i))) {
+                    builder.setFullmoveNumber(Math.max(1, parseNumber(fen, i)));
+                }
+            }
+            return builder.build();
+        }
+        
+        //The position in FEN, see toFen(Appendable)
+        public String toFen() {
+            StringBuilder fen = new StringBuilder(90);
+            try {
+                toFen(fen);
+            } catch (IOException e) {
+                //A StringBuilder never throws
+                throw new RuntimeException(e);
+            }
+            return fen.toString();
+        }
+        
+        //Appends the position in FEN, a character at a time
+        public void toFen(Appendable out) throws IOException {
+            for (int row = 0; row < 8; row++) {
+                if (row > 0) {
+                    out.append('/');
+                }
+                int empty = 0;
+                for (int tile = row * 8; tile < row * 8 + 8; tile++) {
+                    Piece piece = this.gameBoard.get(tile).getPiece();
+                    if (piece == null) {
+                        empty++;
+                        continue;
+                    }
+                    if (empty > 0) {
+                        out.append((char) ('0' + empty));
+                        empty = 0;
+                    }
+                    char letter = piece.getPieceType().toString().charAt(0);
+                    out.append(piece.getPieceAlliance().isWhite() ? letter : (char) (letter - 'A' + 'a'));
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                }
+            }
+            out.append(' ').append(this.currentPlayer.getAlliance().isWhite() ? 'w' : 'b').append(' ');
+            
+            int rights = 0;
+            if (canCastle(60, 63)) {
+                out.append('K');
+                rights++;
+            }
+            if (canCastle(60, 56)) {
+                out.append('Q');
+                rights++;
+            }
+            if (canCastle(4, 7)) {
+                out.append('k');
+                rights++;
+            }
+            if (canCastle(4, 0)) {
+                out.append('q');
+                rights++;
+            }
+            if (rights == 0) {
+                out.append('-');
+            }
+            out.append(' ');
+            
+            if (this.enPassantPawn != null) {
+                int square = this.enPassantPawn.getPiecePosition() + (this.enPassantPawn.getPieceAlliance().isWhite() ? 8 : -8);
+                out.append((char) ('a' + square % 8)).append((char) ('8' - square / 8));
+            } else {
+                out.append('-');
+            }
+            out.append(' ');
+            appendNumber(out, this.halfmoveClock);
+            out.append(' ');
+            appendNumber(out, this.fullmoveNumber);
+        }
+        
+        //The king and the rook are both where they started and have not moved
+        private boolean canCastle(int kingTile, int rookTile) {
+            Piece king = this.gameBoard.get(kingTile).getPiece();
+            Piece rook = this.gameBoard.get(rookTile).getPiece();
+            return king != null && rook != null && king.getPieceType() == PieceType.KING && king.isFirstMove() &&
+                   rook.getPieceType() == PieceType.ROOK && rook.isFirstMove() &&
+                   rook.getPieceAlliance() == king.getPieceAlliance() &&
+                   king.getPieceAlliance().isWhite() == (kingTile == 60);
+        }
+        
+        private static int skipSpaces(CharSequence text, int i) {
+            while (i < text.length() && text.charAt(i) == ' ') {
+                i++;
+            }
+            return i;
+        }
+        
+        private static int skipField(CharSequence text, int i) {
+            while (i < text.length() && text.charAt(i) != ' ') {
+                i++;
+            }
+            return i;
+        }
+        
+        private static int parseNumber(CharSequence text, int i) {
+            int value = 0;
+            int start = i;
+            for (; i < text.length() && text.charAt(i) != ' '; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9' || i - start > 6) {
+                    throw new IllegalArgumentException("Bad move counter in FEN: " + text);
+                }
+                value = value * 10 + c - '0';
+            }
+            return value;
+        }
+        
+        //Without Integer.toString, which would make a String
+        private static void appendNumber(Appendable out, int value) throws IOException {
+            int divisor = 1;
+            while (divisor <= value / 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                out.append((char) ('0' + value / divisor % 10));
+            }
+        }
+        
         //Returns a collection of all the possible moves available to a collection of pieces
         private Collection<Move> calculateLegalMoves (Collection<Piece> pieces) {
             List<Move> legalMoves = new ArrayList<>();
@@ -181,6 +451,9 @@ public class Board {
             Map<Integer, Piece> boardConfig;
             Alliance nextMoveMaker;
             Pawn enPassantPawn;
+            Long pawnKey;
+            int halfmoveClock;
+            int fullmoveNumber = 1;
                 
             public Builder() {
                 this.boardConfig = new HashMap<>(); //this is used to store both the pieces and their positions
@@ -205,5 +478,20 @@ public class Board {
             public void setEnPassantPawn(Pawn enPassantPawn) {
                 this.enPassantPawn = enPassantPawn;
             }
+            
+            public Builder setHalfmoveClock(int halfmoveClock) {
+                this.halfmoveClock = halfmoveClock;
+                return this;
+            }
+            
+            public Builder setFullmoveNumber(int fullmoveNumber) {
+                this.fullmoveNumber = fullmoveNumber;
+                return this;
+            }
+            
+            //Only used by moves, which know exactly which pawns changed
+            void setPawnKey(long pawnKey) {
+                this.pawnKey = pawnKey;
+            }
         }
 }
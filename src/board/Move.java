@@ -3,6 +3,7 @@ package board;
 import board.Board.Builder;
 import pieces.Pawn;
 import pieces.Piece;
+import pieces.Piece.PieceType;
 import pieces.Rook;
 
 /**
@@ -47,13 +48,36 @@ public abstract class Move {
                 }
                 
                 builder.setPiece(this.movedPiece.movePiece(this));
+                builder.setPawnKey(calculatePawnKey());
                 //Sets the movemaker as the next player
+                setMoveCounters(builder);
                 builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
                 
                 return builder.build();
                 
         }
         
+        //The halfmove clock starts again after a pawn move or a capture, the move number goes up after black moves
+        void setMoveCounters(Builder builder) {
+            boolean zeroing = isAttacked() || this.movedPiece.getPieceType() == PieceType.PAWN;
+            builder.setHalfmoveClock(zeroing ? 0 : this.board.getHalfmoveClock() + 1);
+            builder.setFullmoveNumber(this.board.getFullmoveNumber() + (this.board.currentPlayer().getAlliance().isWhite() ? 0 : 1));
+        }
+        
+        //Returns the pawn key after this move, only pawns moving or being captured change it
+        long calculatePawnKey() {
+            long pawnKey = this.board.getPawnKey();
+            if (this.movedPiece.getPieceType() == PieceType.PAWN) {
+                pawnKey ^= Zobrist.pieceKey(this.movedPiece) ^ 
+                           Zobrist.pieceKey(this.movedPiece.getPieceAlliance(), PieceType.PAWN, this.destination);
+            }
+            Piece capturedPiece = getAttackedPiece();
+            if (capturedPiece != null && capturedPiece.getPieceType() == PieceType.PAWN) {
+                pawnKey ^= Zobrist.pieceKey(capturedPiece);
+            }
+            return pawnKey;
+        }
+        
         //Primary constructor for most moves
         private Move(Board board, Piece movePiece, int destination) {
             
@@ -250,6 +274,11 @@ public abstract class Move {
                     }
                     
                     builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
+                    //The pawn that reached the last rank is gone now
+                    builder.setPawnKey(pawnMovedBoard.getPawnKey() ^ 
+                                       Zobrist.pieceKey(this.promotedPawn.getPieceAlliance(), PieceType.PAWN, this.destination));
+                    builder.setHalfmoveClock(0);
+                    builder.setFullmoveNumber(pawnMovedBoard.getFullmoveNumber());
                     //Switches move maker to the next player
                     builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
                     
@@ -350,7 +379,9 @@ public abstract class Move {
                 }
                 
                 builder.setPiece(this.movedPiece.movePiece(this));
+                builder.setPawnKey(calculatePawnKey());
                 //Sets the movemaker as the next player
+                setMoveCounters(builder);
                 builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
                 
                 return builder.build();
@@ -388,7 +419,9 @@ public abstract class Move {
                 Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
                 builder.setPiece(movedPawn);
                 builder.setEnPassantPawn(movedPawn);
+                builder.setPawnKey(calculatePawnKey());
                 //Sets the movemaker as the next player
+                setMoveCounters(builder);
                 builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
                  
                 return builder.build();
@@ -440,6 +473,8 @@ public abstract class Move {
                 builder.setPiece(this.movedPiece.movePiece(this));
                 //todo look into firstmove on normal pieces
                 builder.setPiece(new Rook(this.rookCoord, this.castleRook.getPieceAlliance()));
+                builder.setPawnKey(this.board.getPawnKey());
+                setMoveCounters(builder);
                 builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
                 return builder.build();
             }
@@ -0,0 +1,130 @@
+package board;
+
+import java.util.Random;
+import pieces.Alliance;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: Random numbers for Zobrist hashing, a position's key is the XOR of
+ * the numbers for every piece on its tile, so a move only has to XOR out what
+ * left and XOR in what arrived
+ * for more information: https://www.chessprogramming.org/Zobrist_Hashing
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public final class Zobrist {
+
+        //Fixed seed so keys are the same on every run (and in every file saved with them)
+        private static final long SEED = 0x4A43686573734CL;
+        //[alliance][piece type][tile]
+        private static final long[][][] PIECE_KEYS = initPieceKeys();
+        private static final long[] EXTRA_KEYS = initExtraKeys();
+        //Where the extra keys sit in EXTRA_KEYS
+        private static final int BLACK_TO_MOVE = 0;
+        private static final int CASTLE = 1; //+ 2 * alliance ordinal + castle side
+        private static final int EN_PASSANT = 5; //+ column
+        //Castle sides, by the rook the king castles with
+        private static final int KING_SIDE = 0;
+        private static final int QUEEN_SIDE = 1;
+
+        private Zobrist() {
+            throw new RuntimeException("Probably should not get here");
+        }
+
+        private static long[][][] initPieceKeys() {
+            Random random = new Random(SEED);
+            long[][][] keys = new long[2][PieceType.values().length][64];
+            for (int alliance = 0; alliance < 2; alliance++) {
+                for (int type = 0; type < PieceType.values().length; type++) {
+                    for (int tile = 0; tile < 64; tile++) {
+                        keys[alliance][type][tile] = random.nextLong();
+                    }
+                }
+            }
+            return keys;
+        }
+
+        //Drawn after the piece keys from the same generator, so adding these did not change the piece keys
+        private static long[] initExtraKeys() {
+            Random random = new Random(SEED);
+            for (int i = 0; i < 2 * PieceType.values().length * 64; i++) {
+                random.nextLong();
+            }
+            long[] keys = new long[EN_PASSANT + 8];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+            return keys;
+        }
+
+        public static long pieceKey(Alliance alliance, PieceType type, int tile) {
+            return PIECE_KEYS[alliance.ordinal()][type.ordinal()][tile];
+        }
+
+        public static long pieceKey(Piece piece) {
+            return pieceKey(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+        }
+
+        /*
+         * Builds the full key of a position: every piece, the player to move,
+         * the en passant file, and which castles each side still has (its king
+         * and the rook in that corner have not moved yet, king side and queen
+         * side each with their own key), so a position read from a FEN gets the
+         * same key as the game that reached it
+        */
+        static long calculateHashKey(Iterable<Tile> gameBoard, Alliance moveMaker, Pawn enPassantPawn) {
+            long hashKey = 0;
+            //One bit per alliance for the kings, one per alliance and castle side for the rooks
+            int unmovedKings = 0;
+            int unmovedRooks = 0;
+            for (Tile tile : gameBoard) {
+                if (tile.isTileOccupied()) {
+                    Piece piece = tile.getPiece();
+                    hashKey ^= pieceKey(piece);
+                    if (piece.isFirstMove() && piece.getPieceType().isKing()) {
+                        unmovedKings |= 1 << piece.getPieceAlliance().ordinal();
+                    } else if (piece.isFirstMove() && piece.getPieceType().isRook() && castleSide(piece) >= 0) {
+                        unmovedRooks |= 1 << 2 * piece.getPieceAlliance().ordinal() + castleSide(piece);
+                    }
+                }
+            }
+            for (int alliance = 0; alliance < 2; alliance++) {
+                if ((unmovedKings & 1 << alliance) == 0) {
+                    continue;
+                }
+                for (int side = KING_SIDE; side <= QUEEN_SIDE; side++) {
+                    if ((unmovedRooks & 1 << 2 * alliance + side) != 0) {
+                        hashKey ^= EXTRA_KEYS[CASTLE + 2 * alliance + side];
+                    }
+                }
+            }
+            if (moveMaker.isBlack()) {
+                hashKey ^= EXTRA_KEYS[BLACK_TO_MOVE];
+            }
+            if (enPassantPawn != null) {
+                hashKey ^= EXTRA_KEYS[EN_PASSANT + enPassantPawn.getPiecePosition() % 8];
+            }
+            return hashKey;
+        }
+
+        //Which castle a rook on its own side's corner can still make, -1 for a rook anywhere else
+        private static int castleSide(Piece rook) {
+            int tile = rook.getPiecePosition();
+            int backRank = rook.getPieceAlliance().isWhite() ? 56 : 0;
+            return tile == backRank + 7 ? KING_SIDE : tile == backRank ? QUEEN_SIDE : -1;
+        }
+
+        //Builds the pawn key from scratch, only used when a board is not made by a move
+        static long calculatePawnKey(Iterable<Tile> gameBoard) {
+            long pawnKey = 0;
+            for (Tile tile : gameBoard) {
+                if (tile.isTileOccupied() && tile.getPiece().getPieceType() == PieceType.PAWN) {
+                    pawnKey ^= pieceKey(tile.getPiece());
+                }
+            }
+            return pawnKey;
+        }
+}
@@ -0,0 +1,659 @@
+package engine;
+
+import board.Board;
+import board.Board.Builder;
+import board.Move;
+import board.Move.PawnPromotion;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+import player.MoveTransition;
+import player.Player;
+
+/**
+ * Description: Iterative deepening alpha-beta search (negamax form) with a
+ * transposition table and a quiescence search at the leaves so the engine does
+ * not stop halfway through a trade.
+ * The selective techniques in Pruning are all on by default and can be
+ * switched off one at a time to see what they are worth.
+ * With multi-PV set above 1 the root keeps the best few moves instead of one:
+ * a move only has to beat the worst line kept so far, so everything after the
+ * first few lines is searched with that score as alpha, and all of them share
+ * the same table
+ * for more information: https://www.chessprogramming.org/Alpha-Beta
+ * and https://www.chessprogramming.org/Quiescence_Search
+ * and https://www.chessprogramming.org/Multi-PV
+ * With bitbases set, a draw they cover scores 0 and is not searched any
+ * further. A win scores KNOWN_WIN plus how far the winner has got (material,
+ * the losing king near the edge and the kings close together), which only
+ * ends the search when the window is below it (or a loss above it); inside
+ * the window the node is still searched for the way forward, with the
+ * bitbase's score as its floor (or ceiling). The quiescence search does not
+ * probe
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class AlphaBeta implements MoveStrategy {
+
+        public static final int MATE_SCORE = 100000;
+        private static final int INFINITY = 1000000;
+        //Scores past this are mates
+        private static final int MATE_BOUND = MATE_SCORE - 1000;
+        //Extra room given to a capture before delta pruning throws it away
+        private static final int DELTA_MARGIN = 200;
+        private static final int NULL_MOVE_REDUCTION = 2;
+        //Moves searched at full depth before the rest are reduced
+        private static final int FULL_DEPTH_MOVES = 3;
+        private static final int FUTILITY_MARGIN = 300;
+        private static final int REVERSE_FUTILITY_MARGIN = 150;
+        private static final int[] RAZOR_MARGINS = {0, 300, 500};
+        //Bonuses for the winner's progress in a bitbase win, per step
+        private static final int EDGE_BONUS = 20;
+        private static final int KING_DISTANCE_BONUS = 10;
+        private static final int PAWN_STEP_BONUS = 10;
+        private static final int DEFAULT_TABLE_ENTRIES = 1 << 18;
+        //Above anything the evaluation gives, below the mate scores
+        public static final int KNOWN_WIN = 20000;
+
+        private final BoardEvaluator evaluator;
+        private final int searchDepth;
+        private final Set<Pruning> enabledPruning;
+        private final SearchStatistics statistics;
+        private final List<SearchListener> listeners;
+        private TranspositionTable transpositionTable;
+        private EndgameProbe endgameProbe;
+        private int multiPv;
+        private long nodeLimit;
+        //Read by other threads while the search runs (pondering)
+        private volatile List<PrincipalVariation> principalVariations;
+        private volatile boolean stopped;
+
+        public AlphaBeta(BoardEvaluator evaluator, int searchDepth) {
+            this.evaluator = evaluator;
+            this.searchDepth = searchDepth;
+            this.enabledPruning = EnumSet.allOf(Pruning.class);
+            this.statistics = new SearchStatistics();
+            this.listeners = new ArrayList<>();
+            this.transpositionTable = new TranspositionTable(DEFAULT_TABLE_ENTRIES);
+            this.multiPv = 1;
+            this.nodeLimit = Long.MAX_VALUE;
+            this.principalVariations = Collections.emptyList();
+        }
+
+        //Lets several searches (or several threads) share one table
+        public AlphaBeta setTranspositionTable(TranspositionTable transpositionTable) {
+            this.transpositionTable = transpositionTable;
+            return this;
+        }
+
+        public TranspositionTable getTranspositionTable() {
+            return this.transpositionTable;
+        }
+
+        //Bitbases or tablebases, null (the default) turns endgame knowledge off
+        public AlphaBeta setEndgameProbe(EndgameProbe endgameProbe) {
+            this.endgameProbe = endgameProbe;
+            return this;
+        }
+
+        //How many root moves get a full line and an exact score
+        public AlphaBeta setMultiPv(int multiPv) {
+            this.multiPv = Math.max(1, multiPv);
+            return this;
+        }
+
+        //The search stops like stop() was called once it has visited this many nodes (quiescence included)
+        public AlphaBeta setNodeLimit(long nodeLimit) {
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        public AlphaBeta addSearchListener(SearchListener listener) {
+            this.listeners.add(listener);
+            return this;
+        }
+
+        //The lines of the last finished iteration, best first
+        public List<PrincipalVariation> getPrincipalVariations() {
+            return this.principalVariations;
+        }
+
+        public AlphaBeta setPruning(Pruning technique, boolean enabled) {
+            if (enabled) {
+                this.enabledPruning.add(technique);
+            } else {
+                this.enabledPruning.remove(technique);
+            }
+            return this;
+        }
+
+        public boolean isPruningEnabled(Pruning technique) {
+            return this.enabledPruning.contains(technique);
+        }
+
+        public SearchStatistics getStatistics() {
+            return this.statistics;
+        }
+
+        /*
+         * Can be called from any thread, execute() then returns the best move of
+         * the last finished iteration. A stop that comes in before execute()
+         * has started stops that search as soon as it starts
+        */
+        public void stop() {
+            this.stopped = true;
+        }
+
+        @Override
+        public Move execute(Board board) {
+
+            this.statistics.reset();
+            this.principalVariations = Collections.emptyList();
+            try {
+                return iterativeDeepening(board);
+            } finally {
+                this.stopped = false;
+            }
+        }
+
+        private Move iterativeDeepening(Board board) {
+
+            List<Move> rootMoves = new ArrayList<>();
+            for (Move move : orderMoves(board.currentPlayer().getLegalMoves(), 0)) {
+                if (board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    rootMoves.add(move);
+                }
+            }
+            if (rootMoves.isEmpty()) {
+                return null;
+            }
+            Move tableMove = probeRoot(board, rootMoves);
+            if (tableMove != null) {
+                return tableMove;
+            }
+
+            for (int depth = 1; depth <= this.searchDepth; depth++) {
+                List<PrincipalVariation> lines = searchRoot(board, rootMoves, depth);
+                //A stopped iteration is unfinished, so its lines are thrown away
+                if (this.stopped) {
+                    break;
+                }
+                this.principalVariations = lines;
+                //The best lines go first in the next iteration
+                List<Move> reordered = new ArrayList<>();
+                for (PrincipalVariation line : this.principalVariations) {
+                    reordered.add(line.getFirstMove());
+                }
+                for (Move move : rootMoves) {
+                    if (!reordered.contains(move)) {
+                        reordered.add(move);
+                    }
+                }
+                rootMoves = reordered;
+                for (SearchListener listener : this.listeners) {
+                    listener.depthCompleted(depth, this.principalVariations, this.statistics);
+                }
+            }
+            return this.principalVariations.isEmpty() ? rootMoves.get(0) : this.principalVariations.get(0).getFirstMove();
+        }
+
+        //Returns the best multiPv root moves with exact scores, best first
+        private List<PrincipalVariation> searchRoot(Board board, List<Move> rootMoves, int depth) {
+
+            int lineCount = Math.min(this.multiPv, rootMoves.size());
+            List<Move> bestMoves = new ArrayList<>();
+            List<Integer> bestScores = new ArrayList<>();
+
+            for (Move move : rootMoves) {
+                if (this.stopped) {
+                    break;
+                }
+                Board nextBoard = board.currentPlayer().makeMove(move).getTransitionBoard();
+                //Until every line is filled each move gets the full window, after that it has to beat the worst line
+                int alpha = bestScores.size() < lineCount ? -INFINITY : bestScores.get(lineCount - 1);
+                int score = -alphaBeta(nextBoard, depth - 1, -INFINITY, -alpha, 1, true);
+                if (bestScores.size() < lineCount || score > alpha) {
+                    int index = 0;
+                    while (index < bestScores.size() && bestScores.get(index) >= score) {
+                        index++;
+                    }
+                    bestMoves.add(index, move);
+                    bestScores.add(index, score);
+                    if (bestMoves.size() > lineCount) {
+                        bestMoves.remove(lineCount);
+                        bestScores.remove(lineCount);
+                    }
+                }
+            }
+
+            List<PrincipalVariation> lines = new ArrayList<>();
+            for (int i = 0; i < bestMoves.size(); i++) {
+                lines.add(new PrincipalVariation(depth, bestScores.get(i), collectLine(board, bestMoves.get(i), depth)));
+            }
+            return lines;
+        }
+
+        //Follows the table's best moves from the position after the root move
+        private List<Move> collectLine(Board board, Move rootMove, int depth) {
+            List<Move> line = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            line.add(rootMove);
+            board = board.currentPlayer().makeMove(rootMove).getTransitionBoard();
+            while (line.size() < depth && seen.add(board.getHashKey())) {
+                long entry = this.transpositionTable.probe(board.getHashKey());
+                Move move = entry == 0 ? null : TranspositionTable.findMove(board, TranspositionTable.moveOf(entry));
+                if (move == null) {
+                    break;
+                }
+                MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (!transition.getMoveStatus().isDone()) {
+                    break;
+                }
+                line.add(move);
+                board = transition.getTransitionBoard();
+            }
+            return line;
+        }
+
+        private int alphaBeta(Board board, int depth, int alpha, int beta, int ply, boolean allowNullMove) {
+
+            if (depth <= 0) {
+                return quiescence(board, alpha, beta);
+            }
+            if (this.stopped) {
+                return 0;
+            }
+            this.statistics.addNode();
+            checkNodeLimit();
+
+            int originalAlpha = alpha;
+            long entry = this.transpositionTable.probe(board.getHashKey());
+            int tableMove = 0;
+            if (entry != 0) {
+                tableMove = TranspositionTable.moveOf(entry);
+                if (TranspositionTable.depthOf(entry) >= depth) {
+                    int tableScore = fromTable(TranspositionTable.scoreOf(entry), ply);
+                    int bound = TranspositionTable.boundOf(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && tableScore >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && tableScore <= alpha)) {
+                        this.statistics.addTableCutoff();
+                        return tableScore;
+                    }
+                }
+            }
+
+            //The bitbase only says won, drawn or lost, so a won score is a floor and a lost one a ceiling
+            int bitbaseFloor = -INFINITY;
+            int bitbaseCeiling = INFINITY;
+            int bitbaseResult = this.endgameProbe == null ? Bitbase.UNKNOWN : this.endgameProbe.probeWdl(board);
+            if (bitbaseResult != Bitbase.UNKNOWN) {
+                this.statistics.addBitbaseHit();
+                //The game is already over here, the bitbase would only say lost or drawn
+                if (board.currentPlayer().isInCheckmate()) {
+                    return -MATE_SCORE + ply;
+                }
+                if (bitbaseResult == Bitbase.DRAW || board.currentPlayer().isInStalemate()) {
+                    return 0;
+                }
+                int bitbaseScore = bitbaseScore(board, bitbaseResult);
+                if (bitbaseResult == Bitbase.WIN) {
+                    if (bitbaseScore >= beta) {
+                        return bitbaseScore;
+                    }
+                    bitbaseFloor = bitbaseScore;
+                    alpha = Math.max(alpha, bitbaseScore);
+                } else {
+                    if (bitbaseScore <= alpha) {
+                        return bitbaseScore;
+                    }
+                    bitbaseCeiling = bitbaseScore;
+                }
+            }
+            boolean known = bitbaseResult != Bitbase.UNKNOWN;
+
+            boolean inCheck = board.currentPlayer().isInCheck();
+            //The margins make no sense next to mate scores, so each bound is checked on its own
+            boolean betaIsMate = Math.abs(beta) >= MATE_BOUND;
+            boolean alphaIsMate = Math.abs(alpha) >= MATE_BOUND;
+            //Nor next to a bitbase score, the position is already known to be won or lost
+            boolean useStaticScore = !inCheck && !known &&
+                                     ((!betaIsMate && isPruningEnabled(Pruning.REVERSE_FUTILITY)) ||
+                                      (!alphaIsMate && isPruningEnabled(Pruning.RAZORING)) ||
+                                      (!alphaIsMate && isPruningEnabled(Pruning.FUTILITY)));
+            int staticScore = useStaticScore ? this.evaluator.evaluate(board) : 0;
+
+            if (useStaticScore && !betaIsMate && isPruningEnabled(Pruning.REVERSE_FUTILITY) && depth <= 3 &&
+                staticScore - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+                this.statistics.addPrune(Pruning.REVERSE_FUTILITY);
+                return staticScore;
+            }
+
+            if (useStaticScore && !alphaIsMate && isPruningEnabled(Pruning.RAZORING) && depth < RAZOR_MARGINS.length &&
+                staticScore + RAZOR_MARGINS[depth] < alpha) {
+                int razorScore = quiescence(board, alpha - 1, alpha);
+                if (razorScore < alpha) {
+                    this.statistics.addPrune(Pruning.RAZORING);
+                    return razorScore;
+                }
+                //Quiescence found something, so the node gets its normal search after all
+                this.statistics.addResearch(Pruning.RAZORING);
+            }
+
+            if (allowNullMove && isPruningEnabled(Pruning.NULL_MOVE) && !inCheck && !betaIsMate && !known &&
+                depth > NULL_MOVE_REDUCTION && hasNonPawnMaterial(board.currentPlayer())) {
+                int nullScore = -alphaBeta(nullMoveBoard(board), depth - 1 - NULL_MOVE_REDUCTION, -beta, -beta + 1, ply + 1, false);
+                if (nullScore >= beta) {
+                    this.statistics.addPrune(Pruning.NULL_MOVE);
+                    return beta;
+                }
+            }
+
+            boolean futile = useStaticScore && !alphaIsMate && isPruningEnabled(Pruning.FUTILITY) && depth == 1 &&
+                             staticScore + FUTILITY_MARGIN <= alpha;
+            int bestScore = -INFINITY;
+            Move bestMove = null;
+            int movesSearched = 0;
+            boolean hasLegalMove = false;
+
+            for (Move move : orderMoves(board.currentPlayer().getLegalMoves(), tableMove)) {
+                boolean quiet = !move.isAttacked() && !(move instanceof PawnPromotion);
+                //Quiet moves cannot make up the difference, skip them before executing them
+                if (futile && quiet && hasLegalMove) {
+                    this.statistics.addPrune(Pruning.FUTILITY);
+                    continue;
+                }
+                MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (!transition.getMoveStatus().isDone()) {
+                    continue;
+                }
+                hasLegalMove = true;
+                Board nextBoard = transition.getTransitionBoard();
+
+                int score;
+                if (isPruningEnabled(Pruning.LATE_MOVE_REDUCTION) && depth >= 3 && movesSearched >= FULL_DEPTH_MOVES &&
+                    quiet && !inCheck && !nextBoard.currentPlayer().isInCheck()) {
+                    this.statistics.addPrune(Pruning.LATE_MOVE_REDUCTION);
+                    score = -alphaBeta(nextBoard, depth - 2, -alpha - 1, -alpha, ply + 1, true);
+                    if (score > alpha) {
+                        this.statistics.addResearch(Pruning.LATE_MOVE_REDUCTION);
+                        score = -alphaBeta(nextBoard, depth - 1, -beta, -alpha, ply + 1, true);
+                    }
+                } else {
+                    score = -alphaBeta(nextBoard, depth - 1, -beta, -alpha, ply + 1, true);
+                }
+                movesSearched++;
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+
+            //No legal moves means the game is over, closer mates score higher
+            if (!hasLegalMove) {
+                return inCheck ? -MATE_SCORE + ply : 0;
+            }
+
+            //Scores under a stopped search are made up, they must not reach the table
+            if (this.stopped) {
+                return 0;
+            }
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                        bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            //No move got past the bitbase's bound, so the score is only that bound
+            if (bestScore < bitbaseFloor) {
+                bestScore = bitbaseFloor;
+                bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND : TranspositionTable.LOWER_BOUND;
+            } else if (bestScore > bitbaseCeiling) {
+                bestScore = bitbaseCeiling;
+                bound = TranspositionTable.UPPER_BOUND;
+            }
+            this.transpositionTable.store(board.getHashKey(), toTable(bestScore, ply), depth, bound,
+                                          TranspositionTable.encodeMove(bestMove));
+            return bestScore;
+        }
+
+        //Mates are stored as distance from the stored position, not from the root
+        private static int toTable(int score, int ply) {
+            if (score >= MATE_BOUND) {
+                return score + ply;
+            } else if (score <= -MATE_BOUND) {
+                return score - ply;
+            }
+            return score;
+        }
+
+        private static int fromTable(int score, int ply) {
+            if (score >= MATE_BOUND) {
+                return score - ply;
+            } else if (score <= -MATE_BOUND) {
+                return score + ply;
+            }
+            return score;
+        }
+
+        /*
+         * Only captures and promotions are searched here. The side to move may
+         * also "stand pat" and keep the static score, since it is never forced
+         * to capture. Captures that cannot raise alpha even when they win the
+         * piece (delta pruning) or that lose material (SEE) are skipped before
+         * the move is ever executed
+        */
+        private int quiescence(Board board, int alpha, int beta) {
+
+            if (this.stopped) {
+                return 0;
+            }
+            this.statistics.addQuiescenceNode();
+            checkNodeLimit();
+
+            int standPat = this.evaluator.evaluate(board);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+
+            for (Move move : orderMoves(tacticalMoves(board.currentPlayer().getLegalMoves()), 0)) {
+                if (standPat + materialGain(move) + DELTA_MARGIN <= alpha) {
+                    this.statistics.addDeltaPrune();
+                    continue;
+                }
+                if (StaticExchange.evaluate(board, move) < 0) {
+                    this.statistics.addSeePrune();
+                    continue;
+                }
+                MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (!transition.getMoveStatus().isDone()) {
+                    continue;
+                }
+                int score = -quiescence(transition.getTransitionBoard(), -beta, -alpha);
+                if (score >= beta) {
+                    return score;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                }
+            }
+            return alpha;
+        }
+
+        /*
+         * With distances to zeroing the root move can be picked straight from
+         * the table: the fastest way to the next capture or pawn move into a
+         * lost position when winning, any drawing move when it is a draw, and
+         * the slowest way when losing. A search alone can walk around a won
+         * endgame forever without making progress. Returns null if the table
+         * does not know every move
+        */
+        private Move probeRoot(Board board, List<Move> rootMoves) {
+            if (this.endgameProbe == null || this.endgameProbe.probeDtz(board) == EndgameProbe.UNKNOWN_DTZ) {
+                return null;
+            }
+            Move bestMove = null;
+            int bestRank = Integer.MIN_VALUE;
+            int bestScore = 0;
+            for (Move move : rootMoves) {
+                Board nextBoard = board.currentPlayer().makeMove(move).getTransitionBoard();
+                int rank;
+                int score;
+                if (nextBoard.currentPlayer().isInCheckmate()) {
+                    rank = Integer.MAX_VALUE;
+                    score = MATE_SCORE - 1;
+                } else {
+                    //From the opponent's side, negative means they lose
+                    int dtz = this.endgameProbe.probeDtz(nextBoard);
+                    if (dtz == EndgameProbe.UNKNOWN_DTZ) {
+                        return null;
+                    }
+                    boolean zeroing = move.isAttacked() || move.getMovedPiece().getPieceType() == PieceType.PAWN;
+                    int distance = zeroing ? 1 : Math.abs(dtz) + 1;
+                    if (dtz < 0) {
+                        rank = 2 * EndgameProbe.MAX_DTZ + 2 - distance;
+                        score = KNOWN_WIN;
+                    } else if (dtz == 0) {
+                        rank = 0;
+                        score = 0;
+                    } else {
+                        rank = -2 * EndgameProbe.MAX_DTZ - 2 + distance;
+                        score = -KNOWN_WIN;
+                    }
+                }
+                if (rank > bestRank) {
+                    bestRank = rank;
+                    bestMove = move;
+                    bestScore = score;
+                }
+            }
+            this.statistics.addBitbaseHit();
+            this.principalVariations = Collections.singletonList(
+                new PrincipalVariation(1, bestScore, Collections.singletonList(bestMove)));
+            return bestMove;
+        }
+
+        //getNodes counts the quiescence nodes as well
+        private void checkNodeLimit() {
+            if (this.statistics.getNodes() >= this.nodeLimit) {
+                this.stopped = true;
+            }
+        }
+
+        //A bitbase win or loss for the player to move, KNOWN_WIN plus the winner's progress
+        private static int bitbaseScore(Board board, int result) {
+            Player winner = result == Bitbase.WIN ? board.currentPlayer() : board.currentPlayer().getOpponent();
+            int score = KNOWN_WIN + progress(winner, winner.getOpponent());
+            return result == Bitbase.WIN ? score : -score;
+        }
+
+        /*
+         * How close the winner is to cashing in: the material it is ahead,
+         * its pawns' steps up the board, the losing king driven from the
+         * centre and the winner's king next to it. Never below 0, so every win
+         * stays above KNOWN_WIN
+        */
+        private static int progress(Player winner, Player loser) {
+            int score = 0;
+            for (Piece piece : winner.getActivePieces()) {
+                if (piece.getPieceType() == PieceType.PAWN) {
+                    int row = piece.getPiecePosition() / 8;
+                    score += PAWN_STEP_BONUS * (piece.getPieceAlliance().isWhite() ? 6 - row : row - 1);
+                }
+                score += piece.getPieceType().isKing() ? 0 : piece.getPieceValue();
+            }
+            for (Piece piece : loser.getActivePieces()) {
+                score -= piece.getPieceType().isKing() ? 0 : piece.getPieceValue();
+            }
+            int winnerKing = winner.getPlayerKing().getPiecePosition();
+            int loserKing = loser.getPlayerKing().getPiecePosition();
+            int row = loserKing / 8;
+            int column = loserKing % 8;
+            //0 on the four centre tiles up to 6 in a corner
+            int centreDistance = Math.max(3 - row, row - 4) + Math.max(3 - column, column - 4);
+            int kingDistance = Math.abs(row - winnerKing / 8) + Math.abs(column - winnerKing % 8);
+            score += EDGE_BONUS * centreDistance + KING_DISTANCE_BONUS * (14 - kingDistance);
+            return Math.max(score, 0);
+        }
+
+        //Same pieces with the other player to move (en passant is lost, like after any real move)
+        private static Board nullMoveBoard(Board board) {
+            Builder builder = new Builder();
+            for (Piece piece : board.getWhitePieces()) {
+                builder.setPiece(piece);
+            }
+            for (Piece piece : board.getBlackPieces()) {
+                builder.setPiece(piece);
+            }
+            builder.setMoveMaker(board.currentPlayer().getOpponent().getAlliance());
+            return builder.build();
+        }
+
+        //With only king and pawns left zugzwang is common, and passing would be a lie
+        private static boolean hasNonPawnMaterial(Player player) {
+            for (Piece piece : player.getActivePieces()) {
+                if (!piece.getPieceType().isKing() && piece.getPieceType() != PieceType.PAWN) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        //Returns the captures and promotions out of a collection of moves
+        private static List<Move> tacticalMoves(Collection<Move> moves) {
+            List<Move> tacticalMoves = new ArrayList<>();
+            for (Move move : moves) {
+                if (move.isAttacked() || move instanceof PawnPromotion) {
+                    tacticalMoves.add(move);
+                }
+            }
+            return tacticalMoves;
+        }
+
+        //The most material a move could win if nothing is recaptured
+        private static int materialGain(Move move) {
+            int gain = move.getAttackedPiece() == null ? 0 : move.getAttackedPiece().getPieceValue();
+            if (move instanceof PawnPromotion) {
+                gain += PieceType.QUEEN.getPieceValue() - PieceType.PAWN.getPieceValue();
+            }
+            return gain;
+        }
+
+        //The table's move first, then most valuable victim, least valuable attacker, quiet moves last
+        static List<Move> orderMoves(Collection<Move> moves, final int tableMove) {
+            List<Move> orderedMoves = new ArrayList<>(moves);
+            Collections.sort(orderedMoves, new Comparator<Move>() {
+                @Override
+                public int compare(Move move1, Move move2) {
+                    return Integer.compare(orderingScore(move2, tableMove), orderingScore(move1, tableMove));
+                }
+            });
+            return orderedMoves;
+        }
+
+        private static int orderingScore(Move move, int tableMove) {
+            if (tableMove != 0 && TranspositionTable.encodeMove(move) == tableMove) {
+                return INFINITY;
+            }
+            int score = materialGain(move);
+            Piece attackedPiece = move.getAttackedPiece();
+            if (attackedPiece != null) {
+                score = score * 10 - move.getMovedPiece().getPieceValue() / 100;
+            }
+            return score;
+        }
+}
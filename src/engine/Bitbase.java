@@ -0,0 +1,122 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Description: Perfect win/draw/loss knowledge for one endgame, two bits per
+ * position (side to move wins, side to move loses, neither is a draw) in the
+ * order of EndgameMaterial's index. Files are mapped, not read, so a probe is
+ * a couple of memory reads
+ * for more information: https://www.chessprogramming.org/Bitbases
+ *
+ * File layout (big endian):
+ *   int   magic ("JBB1")
+ *   int   positions
+ *   byte  name [24] (ASCII, padded with zeros)
+ *   long  win bits  [(positions + 63) / 64]
+ *   long  loss bits [(positions + 63) / 64]
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class Bitbase {
+
+        public static final int WIN = 1;
+        public static final int DRAW = 0;
+        public static final int LOSS = -1;
+        //Returned by probes for positions no loaded bitbase covers
+        public static final int UNKNOWN = 2;
+
+        private static final int MAGIC = 0x4A424231; //"JBB1"
+        private static final int HEADER_SIZE = 32;
+
+        private final EndgameMaterial material;
+        private final LongBuffer wins;
+        private final LongBuffer losses;
+
+        Bitbase(EndgameMaterial material, LongBuffer wins, LongBuffer losses) {
+            this.material = material;
+            this.wins = wins;
+            this.losses = losses;
+        }
+
+        public static Bitbase load(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (channel.size() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                    throw new IOException("Not a bitbase file: " + path);
+                }
+                int positions = buffer.getInt();
+                byte[] name = new byte[HEADER_SIZE - 8];
+                buffer.get(name);
+                EndgameMaterial material = EndgameMaterial.of(new String(name, StandardCharsets.US_ASCII).trim());
+                int words = (positions + 63) >>> 6;
+                if (positions != material.size() || channel.size() != HEADER_SIZE + 16L * words) {
+                    throw new IOException("Bitbase file has the wrong size: " + path);
+                }
+                buffer.position(HEADER_SIZE);
+                LongBuffer bits = buffer.slice().asLongBuffer();
+                bits.limit(words);
+                LongBuffer wins = bits.slice();
+                bits.clear().position(words);
+                LongBuffer losses = bits.slice();
+                return new Bitbase(material, wins, losses);
+            }
+        }
+
+        public void save(Path path) throws IOException {
+            int words = this.wins.capacity();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(this.material.size());
+            header.put(this.material.getName().getBytes(StandardCharsets.US_ASCII));
+            header.clear();
+            ByteBuffer data = ByteBuffer.allocate(16 * words);
+            for (int i = 0; i < words; i++) {
+                data.putLong(this.wins.get(i));
+            }
+            for (int i = 0; i < words; i++) {
+                data.putLong(this.losses.get(i));
+            }
+            data.flip();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+        }
+
+        public String getName() {
+            return this.material.getName();
+        }
+
+        EndgameMaterial getMaterial() {
+            return this.material;
+        }
+
+        //Squares in the material's piece order, the result is for the side to move
+        int probe(int[] squares, boolean whiteToMove) {
+            int index = this.material.index(squares, whiteToMove);
+            long bit = 1L << (index & 63);
+            if ((this.wins.get(index >>> 6) & bit) != 0) {
+                return WIN;
+            }
+            return (this.losses.get(index >>> 6) & bit) != 0 ? LOSS : DRAW;
+        }
+
+        @Override
+        public String toString() {
+            return this.material.getName();
+        }
+}
@@ -0,0 +1,482 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: Command line tool that works out endgame bitbases by
+ * retrograde analysis. Every position of the endgame starts out unknown. The
+ * first pass marks illegal positions, mates and stalemates, then each pass
+ * goes over the positions still unknown: one move to a position the opponent
+ * loses is a win, and if every move goes to a position the opponent wins it is
+ * a loss. Passes repeat until nothing changes, whatever is left is a draw.
+ * Captures and promotions leave the endgame, so the smaller endgames they lead
+ * to are generated first. Every pass is split over all cores with fork-join,
+ * positions only ever go from unknown to known so the threads can share one
+ * array without locks.
+ * It uses its own small move generator on plain arrays, building a Board for
+ * each of millions of positions would take far too long. En passant is left
+ * out, as in most bitbases
+ * for more information: https://www.chessprogramming.org/Retrograde_Analysis
+ *
+ * Usage: java engine.BitbaseGenerator directory endgame... (for example KPK KRK KQKR)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class BitbaseGenerator {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte WIN = 1;
+    private static final byte LOSS = 2;
+    private static final byte DRAW = 3;
+    private static final byte ILLEGAL = 4;
+    //Positions handled by one task before it stops splitting
+    private static final int TASK_SIZE = 1 << 14;
+
+    private static final int[] KING_DIRECTIONS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final int[] KNIGHT_JUMPS = {-17, -15, -10, -6, 6, 10, 15, 17};
+    private static final int[] BISHOP_DIRECTIONS = {-9, -7, 7, 9};
+    private static final int[] ROOK_DIRECTIONS = {-8, -1, 1, 8};
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private final Bitbases bitbases;
+    private final Path directory;
+    private final ForkJoinPool pool;
+
+    public BitbaseGenerator(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        //Anything generated before does not need to be generated again
+        this.bitbases = Bitbases.load(directory);
+        this.pool = new ForkJoinPool();
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.BitbaseGenerator directory endgame...");
+            return;
+        }
+        BitbaseGenerator generator = new BitbaseGenerator(Paths.get(args[0]));
+        for (int i = 1; i < args.length; i++) {
+            generator.generate(args[i]);
+        }
+    }
+
+    public Bitbases getBitbases() {
+        return this.bitbases;
+    }
+
+    //Generates and saves the endgame and every endgame it can turn into, unless they exist already
+    public Bitbase generate(String name) throws IOException {
+
+        EndgameMaterial material = EndgameMaterial.canonical(name);
+        Bitbase existing = this.bitbases.get(material.getName());
+        if (existing != null) {
+            return existing;
+        }
+        for (int i = 2; i < material.getPieceCount(); i++) {
+            //Every piece but the kings can be captured, and every pawn can promote
+            generateChanged(material, i, -1, null);
+            if (material.getType(i) == PieceType.PAWN) {
+                for (PieceType promotion : PROMOTIONS) {
+                    generateChanged(material, -1, i, promotion);
+                }
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        byte[] states = new byte[material.size()];
+        int passes = 0;
+        long changed = this.pool.invoke(new Pass(material, states, 0, states.length, true));
+        while (changed > 0) {
+            changed = this.pool.invoke(new Pass(material, states, 0, states.length, false));
+            passes++;
+        }
+
+        long[] wins = new long[(states.length + 63) >>> 6];
+        long[] losses = new long[wins.length];
+        long winCount = 0;
+        long lossCount = 0;
+        long drawCount = 0;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == WIN) {
+                wins[i >>> 6] |= 1L << (i & 63);
+                winCount++;
+            } else if (states[i] == LOSS) {
+                losses[i >>> 6] |= 1L << (i & 63);
+                lossCount++;
+            } else if (states[i] != ILLEGAL) {
+                drawCount++;
+            }
+        }
+        Bitbase bitbase = new Bitbase(material, LongBuffer.wrap(wins), LongBuffer.wrap(losses));
+        bitbase.save(this.directory.resolve(material.getName() + Bitbases.EXTENSION));
+        this.bitbases.add(bitbase);
+        System.out.println(String.format("%-6s %d passes, %d wins, %d draws, %d losses (side to move) in %.1f s",
+                                         material.getName(), passes, winCount, drawCount, lossCount,
+                                         (System.currentTimeMillis() - start) / 1000.0));
+        return bitbase;
+    }
+
+    //The endgame after the removed piece is captured or the promoted pawn promotes (-1 for neither)
+    private void generateChanged(EndgameMaterial material, int removed, int promoted, PieceType promotion) throws IOException {
+        StringBuilder whitePart = new StringBuilder("K");
+        StringBuilder blackPart = new StringBuilder("K");
+        for (int i = 2; i < material.getPieceCount(); i++) {
+            if (i != removed) {
+                (material.isWhite(i) ? whitePart : blackPart).append(i == promoted ? promotion : material.getType(i));
+            }
+        }
+        if (whitePart.length() + blackPart.length() > 2) {
+            generate(whitePart.append(blackPart).toString());
+        }
+    }
+
+    //One pass over a range of positions, returns how many were decided
+    private class Pass extends RecursiveTask<Long> {
+
+        private final EndgameMaterial material;
+        private final byte[] states;
+        private final int start;
+        private final int end;
+        private final boolean first;
+        //Scratch space for one position and one move, only used by this task
+        private int[] squares;
+        private PieceType[] types;
+        private boolean[] white;
+        private int[] childSquares;
+        private PieceType[] childTypes;
+        private boolean[] childWhite;
+
+        Pass(EndgameMaterial material, byte[] states, int start, int end, boolean first) {
+            this.material = material;
+            this.states = states;
+            this.start = start;
+            this.end = end;
+            this.first = first;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.end - this.start > TASK_SIZE) {
+                int middle = (this.start + this.end) >>> 1;
+                Pass left = new Pass(this.material, this.states, this.start, middle, this.first);
+                Pass right = new Pass(this.material, this.states, middle, this.end, this.first);
+                left.fork();
+                return right.compute() + left.join();
+            }
+
+            int count = this.material.getPieceCount();
+            this.squares = new int[count];
+            this.types = new PieceType[count];
+            this.white = new boolean[count];
+            this.childSquares = new int[count];
+            this.childTypes = new PieceType[count];
+            this.childWhite = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                this.types[i] = this.material.getType(i);
+                this.white[i] = this.material.isWhite(i);
+            }
+
+            long changed = 0;
+            for (int index = this.start; index < this.end; index++) {
+                if (this.states[index] != UNKNOWN) {
+                    continue;
+                }
+                boolean whiteToMove = this.material.decode(index, this.squares);
+                if (this.first && !isLegal(whiteToMove)) {
+                    this.states[index] = ILLEGAL;
+                    continue;
+                }
+                byte state = solve(whiteToMove);
+                if (state != UNKNOWN) {
+                    this.states[index] = state;
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        //No two pieces on one tile, no pawns on the first or last rank, and the player who just moved is not in check
+        private boolean isLegal(boolean whiteToMove) {
+            long occupied = 0;
+            for (int i = 0; i < this.squares.length; i++) {
+                long bit = 1L << this.squares[i];
+                if ((occupied & bit) != 0) {
+                    return false;
+                }
+                occupied |= bit;
+                int row = this.squares[i] >>> 3;
+                if (this.types[i] == PieceType.PAWN && (row == 0 || row == 7)) {
+                    return false;
+                }
+            }
+            int otherKing = this.squares[whiteToMove ? 1 : 0];
+            return !isAttacked(otherKing, whiteToMove, this.squares, this.types, this.white, this.squares.length, occupied);
+        }
+
+        /*
+         * Tries every move of the player to move. Any move into a lost position
+         * wins, if every move goes into a won position (or there are none and
+         * the king is in check) it is lost, and if every move is known and
+         * none of that happened it is a draw
+        */
+        private byte solve(boolean whiteToMove) {
+            int count = this.squares.length;
+            long occupied = 0;
+            for (int i = 0; i < count; i++) {
+                occupied |= 1L << this.squares[i];
+            }
+            boolean hasMove = false;
+            boolean allWins = true;
+            boolean allKnown = true;
+
+            for (int piece = 0; piece < count; piece++) {
+                if (this.white[piece] != whiteToMove) {
+                    continue;
+                }
+                int from = this.squares[piece];
+                PieceType type = this.types[piece];
+                if (type == PieceType.PAWN) {
+                    int forward = whiteToMove ? -8 : 8;
+                    int to = from + forward;
+                    if ((occupied & (1L << to)) == 0) {
+                        byte result = pawnMove(piece, to, -1, whiteToMove);
+                        if (result == LOSS) {
+                            return WIN;
+                        }
+                        if (result != ILLEGAL) {
+                            hasMove = true;
+                            allWins &= result == WIN;
+                            allKnown &= result != UNKNOWN;
+                        }
+                        int startRow = whiteToMove ? 6 : 1;
+                        int jump = to + forward;
+                        if (from >>> 3 == startRow && (occupied & (1L << jump)) == 0) {
+                            result = move(piece, jump, -1, null, whiteToMove);
+                            if (result == LOSS) {
+                                return WIN;
+                            }
+                            if (result != ILLEGAL) {
+                                hasMove = true;
+                                allWins &= result == WIN;
+                                allKnown &= result != UNKNOWN;
+                            }
+                        }
+                    }
+                    for (int side = -1; side <= 1; side += 2) {
+                        int file = (from & 7) + side;
+                        if (file < 0 || file > 7) {
+                            continue;
+                        }
+                        int target = from + forward + side;
+                        int captured = pieceAt(target);
+                        if (captured >= 0 && this.white[captured] != whiteToMove) {
+                            byte result = pawnMove(piece, target, captured, whiteToMove);
+                            if (result == LOSS) {
+                                return WIN;
+                            }
+                            if (result != ILLEGAL) {
+                                hasMove = true;
+                                allWins &= result == WIN;
+                                allKnown &= result != UNKNOWN;
+                            }
+                        }
+                    }
+                    continue;
+                }
+
+                int[] directions;
+                boolean slides;
+                if (type == PieceType.KING) {
+                    directions = KING_DIRECTIONS;
+                    slides = false;
+                } else if (type == PieceType.KNIGHT) {
+                    directions = KNIGHT_JUMPS;
+                    slides = false;
+                } else if (type == PieceType.BISHOP) {
+                    directions = BISHOP_DIRECTIONS;
+                    slides = true;
+                } else if (type == PieceType.ROOK) {
+                    directions = ROOK_DIRECTIONS;
+                    slides = true;
+                } else {
+                    directions = KING_DIRECTIONS;
+                    slides = true;
+                }
+                for (int direction : directions) {
+                    int to = from;
+                    while (true) {
+                        int next = to + direction;
+                        //A step may change the file by at most 2 (knights), more means it wrapped around the board
+                        if (next < 0 || next > 63 || Math.abs((next & 7) - (to & 7)) > 2 ||
+                            (type != PieceType.KNIGHT && Math.abs((next & 7) - (to & 7)) > 1)) {
+                            break;
+                        }
+                        to = next;
+                        int captured = pieceAt(to);
+                        if (captured >= 0 && this.white[captured] == whiteToMove) {
+                            break;
+                        }
+                        byte result = move(piece, to, captured, null, whiteToMove);
+                        if (result == LOSS) {
+                            return WIN;
+                        }
+                        if (result != ILLEGAL) {
+                            hasMove = true;
+                            allWins &= result == WIN;
+                            allKnown &= result != UNKNOWN;
+                        }
+                        if (!slides || captured >= 0) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (!hasMove) {
+                int king = this.squares[whiteToMove ? 0 : 1];
+                return isAttacked(king, !whiteToMove, this.squares, this.types, this.white, count, occupied) ? LOSS : DRAW;
+            }
+            if (allWins) {
+                return LOSS;
+            }
+            return allKnown ? DRAW : UNKNOWN;
+        }
+
+        //A pawn reaching the last rank tries every promotion, the one best for the mover counts
+        private byte pawnMove(int piece, int to, int captured, boolean whiteToMove) {
+            int row = to >>> 3;
+            if (row != 0 && row != 7) {
+                return move(piece, to, captured, null, whiteToMove);
+            }
+            byte best = ILLEGAL;
+            for (PieceType promotion : PROMOTIONS) {
+                byte result = move(piece, to, captured, promotion, whiteToMove);
+                if (moverPreference(result) > moverPreference(best)) {
+                    best = result;
+                }
+            }
+            return best;
+        }
+
+        //How good a result for the opponent is for the mover, unknown might still turn out to be a loss
+        private int moverPreference(byte result) {
+            switch (result) {
+                case LOSS:
+                    return 4;
+                case UNKNOWN:
+                    return 3;
+                case DRAW:
+                    return 2;
+                case WIN:
+                    return 1;
+                default:
+                    return 0;
+            }
+        }
+
+        /*
+         * Makes the move on the scratch arrays and returns the result for the
+         * opponent who is then to move, ILLEGAL if it leaves the mover in check
+        */
+        private byte move(int piece, int to, int captured, PieceType promotion, boolean whiteToMove) {
+            int count = 0;
+            long occupied = 0;
+            for (int i = 0; i < this.squares.length; i++) {
+                if (i == captured) {
+                    continue;
+                }
+                this.childSquares[count] = i == piece ? to : this.squares[i];
+                this.childTypes[count] = i == piece && promotion != null ? promotion : this.types[i];
+                this.childWhite[count] = this.white[i];
+                occupied |= 1L << this.childSquares[count];
+                count++;
+            }
+            int king = this.childSquares[whiteToMove ? 0 : 1];
+            if (isAttacked(king, !whiteToMove, this.childSquares, this.childTypes, this.childWhite, count, occupied)) {
+                return ILLEGAL;
+            }
+            if (captured < 0 && promotion == null) {
+                return this.states[this.material.index(this.childSquares, !whiteToMove)];
+            }
+            //Left the endgame, the smaller one already has the answer
+            switch (bitbases.probe(this.childTypes, this.childWhite, this.childSquares, count, !whiteToMove)) {
+                case Bitbase.WIN:
+                    return WIN;
+                case Bitbase.LOSS:
+                    return LOSS;
+                default:
+                    return DRAW;
+            }
+        }
+
+        private int pieceAt(int square) {
+            for (int i = 0; i < this.squares.length; i++) {
+                if (this.squares[i] == square) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    //Whether any piece of the given colour attacks the tile
+    private static boolean isAttacked(int target, boolean byWhite, int[] squares, PieceType[] types, boolean[] white,
+                                      int count, long occupied) {
+        int targetRow = target >>> 3;
+        int targetFile = target & 7;
+        for (int i = 0; i < count; i++) {
+            if (white[i] != byWhite) {
+                continue;
+            }
+            int rowDistance = targetRow - (squares[i] >>> 3);
+            int fileDistance = targetFile - (squares[i] & 7);
+            int absRow = Math.abs(rowDistance);
+            int absFile = Math.abs(fileDistance);
+            switch (types[i]) {
+                case PAWN:
+                    //White pawns go up the board, to lower tile numbers
+                    if (absFile == 1 && rowDistance == (byWhite ? -1 : 1)) {
+                        return true;
+                    }
+                    break;
+                case KNIGHT:
+                    if (absRow * absFile == 2) {
+                        return true;
+                    }
+                    break;
+                case KING:
+                    if (Math.max(absRow, absFile) == 1) {
+                        return true;
+                    }
+                    break;
+                default:
+                    boolean straight = rowDistance == 0 || fileDistance == 0;
+                    boolean diagonal = absRow == absFile;
+                    if ((types[i] == PieceType.ROOK && !straight) || (types[i] == PieceType.BISHOP && !diagonal) ||
+                        (!straight && !diagonal) || target == squares[i]) {
+                        break;
+                    }
+                    int step = Integer.signum(rowDistance) * 8 + Integer.signum(fileDistance);
+                    int square = squares[i] + step;
+                    while (square != target && (occupied & (1L << square)) == 0) {
+                        square += step;
+                    }
+                    if (square == target) {
+                        return true;
+                    }
+                    break;
+            }
+        }
+        return false;
+    }
+}
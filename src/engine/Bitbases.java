@@ -0,0 +1,80 @@
+package engine;
+
+import board.Board;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: All the bitbases the engine knows about, looked up by the
+ * pieces on the board. Positions where black has the stronger pieces are
+ * flipped (colours swapped, board turned upside down) to find them
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class Bitbases implements EndgameProbe {
+
+        public static final String EXTENSION = ".bb";
+
+        private final Map<String, Bitbase> bitbases = new ConcurrentHashMap<>();
+
+        //Loads every bitbase file in the directory
+        public static Bitbases load(Path directory) throws IOException {
+            Bitbases bitbases = new Bitbases();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                for (Path file : files) {
+                    bitbases.add(Bitbase.load(file));
+                }
+            }
+            return bitbases;
+        }
+
+        public void add(Bitbase bitbase) {
+            this.bitbases.put(bitbase.getName(), bitbase);
+        }
+
+        public Bitbase get(String name) {
+            return this.bitbases.get(name);
+        }
+
+        public int size() {
+            return this.bitbases.size();
+        }
+
+        //Win, draw or loss for the player to move, UNKNOWN if no bitbase has these pieces
+        @Override
+        public int probeWdl(Board board) {
+            PieceType[] types = new PieceType[EndgameMaterial.MAX_PIECES];
+            boolean[] white = new boolean[EndgameMaterial.MAX_PIECES];
+            int[] squares = new int[EndgameMaterial.MAX_PIECES];
+            int count = EndgameMaterial.collect(board, types, white, squares);
+            if (count < 0) {
+                return Bitbase.UNKNOWN;
+            }
+            return probe(types, white, squares, count, board.currentPlayer().getAlliance().isWhite());
+        }
+
+        //Bitbases only know the result, not how far away the next capture or pawn move is
+        @Override
+        public int probeDtz(Board board) {
+            return UNKNOWN_DTZ;
+        }
+
+        /*
+         * Kings in the first two places (white, black), the other pieces in any
+         * order. The arrays are sorted and may be flipped in place
+        */
+        int probe(PieceType[] types, boolean[] white, int[] squares, int count, boolean whiteToMove) {
+            if (count == 2) {
+                return Bitbase.DRAW;
+            }
+            whiteToMove = EndgameMaterial.canonicalize(types, white, squares, count, whiteToMove);
+            Bitbase bitbase = this.bitbases.get(EndgameMaterial.nameOf(types, white, count));
+            return bitbase == null ? Bitbase.UNKNOWN : bitbase.probe(squares, whiteToMove);
+        }
+}
@@ -0,0 +1,16 @@
+package engine;
+
+import board.Board;
+
+/**
+ * Description: Scores a board for the search, positive numbers are good for the
+ * player whose turn it is
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public interface BoardEvaluator {
+
+    int evaluate(Board board);
+
+}
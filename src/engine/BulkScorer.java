@@ -0,0 +1,329 @@
+package engine;
+
+import board.Board;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Description: Scores long lists of positions for filtering and labelling,
+ * either with a shallow search or with the static evaluation alone (no search
+ * at all, much faster). The pool and every thread's search, table and pawn
+ * table are made once and used for every batch, so the setup is paid once
+ * however many positions there are. Positions go to the pool in batches and
+ * only a few batches per thread are in flight at a time. The oldest batch is
+ * always the next one written, so the scores come out in input order and
+ * memory stays the same for any input size. Scores are in centipawns for the
+ * player to move, like the evaluator
+ *
+ * Usage: java engine.BulkScorer input output [[static] config] [threads]
+ * A .bin input (TrainingData records) is written back with the scores filled
+ * in, anything else is read as one FEN per line and gets one score per line
+ * ("-" for a line that is not a position)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class BulkScorer implements Closeable {
+
+    //Returned for a position that could not be read
+    public static final int INVALID = Integer.MIN_VALUE;
+    private static final int BATCH_SIZE = 256;
+    private static final int BATCHES_PER_THREAD = 2;
+
+    private final EngineConfiguration configuration;
+    private final boolean staticOnly;
+    private final ExecutorService pool;
+    private final int maxInFlight;
+    private final Deque<Future<int[]>> inFlight = new ArrayDeque<>();
+    private final Deque<Batch> inFlightBatches = new ArrayDeque<>();
+    private final ThreadLocal<Scorer> scorer = new ThreadLocal<Scorer>() {
+        @Override
+        protected Scorer initialValue() {
+            return new Scorer();
+        }
+    };
+
+    //Takes every score, in the order of the input
+    public interface ScoreSink {
+        void accept(int score) throws IOException;
+    }
+
+    public BulkScorer(EngineConfiguration configuration, boolean staticOnly, int threads) {
+        this.configuration = configuration;
+        this.staticOnly = staticOnly;
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.maxInFlight = BATCHES_PER_THREAD * threads;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.BulkScorer input output [[static] config] [threads]");
+            return;
+        }
+        //"static" alone or in front of a configuration ("static params=tuned.txt") skips the search
+        String text = args.length > 2 ? args[2].trim() : "depth=2";
+        boolean staticOnly = text.startsWith("static");
+        EngineConfiguration configuration = EngineConfiguration.parse(staticOnly ? text.substring(6) : text);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Path input = Paths.get(args[0]);
+
+        long start = System.currentTimeMillis();
+        long positions;
+        try (BulkScorer scorer = new BulkScorer(configuration, staticOnly, threads)) {
+            if (args[0].endsWith(".bin")) {
+                try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(Paths.get(args[1]), StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    positions = scorer.scoreRecords(in, out);
+                }
+            } else {
+                try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.ISO_8859_1);
+                     final BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                    positions = scorer.scoreFens(in, new ScoreSink() {
+                        @Override
+                        public void accept(int score) throws IOException {
+                            out.write(score == INVALID ? "-" : Integer.toString(score));
+                            out.newLine();
+                        }
+                    });
+                }
+            }
+        }
+        double seconds = Math.max(System.currentTimeMillis() - start, 1) / 1000.0;
+        System.out.println(String.format("%d positions in %.1f s, %.0f positions/s", positions, seconds, positions / seconds));
+    }
+
+    //Scores one FEN per line, returns how many lines there were
+    public long scoreFens(BufferedReader in, ScoreSink sink) throws IOException, InterruptedException {
+        long count = 0;
+        List<String> lines = new ArrayList<>(BATCH_SIZE);
+        String line;
+        while ((line = in.readLine()) != null) {
+            lines.add(line);
+            if (lines.size() == BATCH_SIZE) {
+                submit(new FenBatch(lines), sink);
+                count += lines.size();
+                lines = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!lines.isEmpty()) {
+            submit(new FenBatch(lines), sink);
+            count += lines.size();
+        }
+        finish(sink);
+        return count;
+    }
+
+    //Writes the TrainingData records to out with their scores replaced, returns how many there were
+    public long scoreRecords(ReadableByteChannel in, final WritableByteChannel out) throws IOException, InterruptedException {
+        long count = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH_SIZE * TrainingData.RECORD_SIZE);
+        //The batches write themselves, the scores are already in their records
+        ScoreSink ignore = new ScoreSink() {
+            @Override
+            public void accept(int score) {
+            }
+        };
+        while (true) {
+            int read = in.read(buffer);
+            if (buffer.hasRemaining() && read >= 0) {
+                continue;
+            }
+            buffer.flip();
+            int records = buffer.remaining() / TrainingData.RECORD_SIZE;
+            if (records > 0) {
+                ByteBuffer batch = ByteBuffer.allocate(records * TrainingData.RECORD_SIZE);
+                buffer.limit(records * TrainingData.RECORD_SIZE);
+                batch.put(buffer);
+                submit(new RecordBatch(batch, out), ignore);
+                count += records;
+            }
+            if (read < 0) {
+                break;
+            }
+            buffer.clear();
+        }
+        finish(ignore);
+        return count;
+    }
+
+    //Scores boards already in memory, in the same order
+    public int[] score(final List<Board> boards) throws InterruptedException {
+        final int[] scores = new int[boards.size()];
+        try {
+            for (int start = 0; start < boards.size(); start += BATCH_SIZE) {
+                final int first = start;
+                submit(new Batch(Math.min(BATCH_SIZE, boards.size() - start)) {
+                    @Override
+                    Board board(int i) {
+                        return boards.get(first + i);
+                    }
+
+                    @Override
+                    void write(int[] batchScores) {
+                        System.arraycopy(batchScores, 0, scores, first, batchScores.length);
+                    }
+                }, null);
+            }
+            finish(null);
+        } catch (IOException e) {
+            //Nothing here writes to a stream
+            throw new RuntimeException(e);
+        }
+        return scores;
+    }
+
+    @Override
+    public void close() {
+        this.pool.shutdownNow();
+    }
+
+    //Waits for the oldest batch first if too many are in flight
+    private void submit(Batch batch, ScoreSink sink) throws IOException, InterruptedException {
+        if (this.inFlight.size() >= this.maxInFlight) {
+            writeOldest(sink);
+        }
+        this.inFlight.addLast(this.pool.submit(batch));
+        this.inFlightBatches.addLast(batch);
+    }
+
+    private void finish(ScoreSink sink) throws IOException, InterruptedException {
+        while (!this.inFlight.isEmpty()) {
+            writeOldest(sink);
+        }
+    }
+
+    private void writeOldest(ScoreSink sink) throws IOException, InterruptedException {
+        int[] scores;
+        try {
+            scores = this.inFlight.pollFirst().get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        this.inFlightBatches.pollFirst().write(scores);
+        if (sink != null) {
+            for (int score : scores) {
+                sink.accept(score);
+            }
+        }
+    }
+
+    //One thread's search state, kept for every batch it scores
+    private class Scorer {
+
+        private final BoardEvaluator evaluator = configuration.createEvaluator();
+        private final AlphaBeta search = staticOnly ? null : configuration.createSearch();
+
+        int score(Board board) {
+            if (this.search == null) {
+                return this.evaluator.evaluate(board);
+            }
+            if (this.search.execute(board) == null) {
+                //No legal move: mated or stalemated
+                return board.currentPlayer().isInCheck() ? -AlphaBeta.MATE_SCORE : 0;
+            }
+            List<PrincipalVariation> lines = this.search.getPrincipalVariations();
+            return lines.isEmpty() ? this.evaluator.evaluate(board) : lines.get(0).getScore();
+        }
+    }
+
+    private abstract class Batch implements Callable<int[]> {
+
+        private final int size;
+
+        Batch(int size) {
+            this.size = size;
+        }
+
+        //Throws if the position cannot be read
+        abstract Board board(int i);
+
+        //Called in input order once the batch is scored
+        void write(int[] scores) throws IOException {
+        }
+
+        @Override
+        public int[] call() {
+            Scorer scorer = BulkScorer.this.scorer.get();
+            int[] scores = new int[this.size];
+            for (int i = 0; i < this.size; i++) {
+                Board board;
+                try {
+                    board = board(i);
+                } catch (RuntimeException e) {
+                    scores[i] = INVALID;
+                    continue;
+                }
+                scores[i] = scorer.score(board);
+            }
+            return scores;
+        }
+    }
+
+    private class FenBatch extends Batch {
+
+        private final List<String> lines;
+
+        FenBatch(List<String> lines) {
+            super(lines.size());
+            this.lines = lines;
+        }
+
+        @Override
+        Board board(int i) {
+            return Board.fromFen(this.lines.get(i));
+        }
+    }
+
+    private class RecordBatch extends Batch {
+
+        private final ByteBuffer records;
+        private final WritableByteChannel out;
+
+        RecordBatch(ByteBuffer records, WritableByteChannel out) {
+            super(records.capacity() / TrainingData.RECORD_SIZE);
+            this.records = records;
+            this.out = out;
+        }
+
+        @Override
+        Board board(int i) {
+            return TrainingData.readBoard(this.records, i * TrainingData.RECORD_SIZE);
+        }
+
+        //A record that could not be read keeps the score it had
+        @Override
+        void write(int[] scores) throws IOException {
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] != INVALID) {
+                    TrainingData.setScore(this.records, i, scores[i]);
+                }
+            }
+            this.records.clear();
+            while (this.records.hasRemaining()) {
+                this.out.write(this.records);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package engine;
+
+import board.Board;
+import java.util.ArrayList;
+import java.util.List;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: The pieces of one endgame, like KRKP (white king and rook
+ * against black king and pawn), and the compact index of its positions.
+ * Pieces go in a fixed order, white king, black king, then the other white
+ * pieces and the other black pieces from most to least valuable. Positions
+ * are mirrored so the white king is always on files a-d (there is no castling
+ * left in these endgames, so left and right play the same), which halves the
+ * index: side to move, 32 white king tiles, then 64 tiles for every other piece
+ *
+ * Date: Oct. 19, 2026
+ */
+
+final class EndgameMaterial {
+
+        //5 pieces would be 2 * 32 * 64^4 positions, far too many for a byte per position while generating
+        static final int MAX_PIECES = 4;
+
+        private final String name;
+        private final PieceType[] types;
+        private final boolean[] white;
+        private final int size;
+
+        private EndgameMaterial(String name, PieceType[] types, boolean[] white) {
+            this.name = name;
+            this.types = types;
+            this.white = white;
+            int size = 2 * 32;
+            for (int i = 1; i < types.length; i++) {
+                size *= 64;
+            }
+            this.size = size;
+        }
+
+        //Reads a name like KQKR, the pieces of each side may be in any order
+        static EndgameMaterial of(String name) {
+            int blackKing = name.indexOf('K', 1);
+            if (!name.startsWith("K") || blackKing < 0) {
+                throw new IllegalArgumentException("Not an endgame: " + name);
+            }
+            List<PieceType> whitePieces = parsePieces(name.substring(1, blackKing));
+            List<PieceType> blackPieces = parsePieces(name.substring(blackKing + 1));
+            if (2 + whitePieces.size() + blackPieces.size() > MAX_PIECES) {
+                throw new IllegalArgumentException("At most " + MAX_PIECES + " pieces: " + name);
+            }
+
+            PieceType[] types = new PieceType[2 + whitePieces.size() + blackPieces.size()];
+            boolean[] white = new boolean[types.length];
+            //No squares to carry along, the sort just needs somewhere to put them
+            int[] squares = new int[types.length];
+            types[0] = PieceType.KING;
+            white[0] = true;
+            types[1] = PieceType.KING;
+            int count = 2;
+            for (PieceType type : whitePieces) {
+                types[count] = type;
+                white[count++] = true;
+            }
+            for (PieceType type : blackPieces) {
+                types[count++] = type;
+            }
+            sortSides(types, white, squares, count);
+            return new EndgameMaterial(nameOf(types, white, count), types, white);
+        }
+
+        //The same endgame in the colouring that gets generated, see needsColourSwap
+        static EndgameMaterial canonical(String name) {
+            EndgameMaterial material = of(name);
+            if (!needsColourSwap(material.types, material.white, material.types.length)) {
+                return material;
+            }
+            int blackKing = material.name.indexOf('K', 1);
+            return of(material.name.substring(blackKing) + material.name.substring(0, blackKing));
+        }
+
+        private static List<PieceType> parsePieces(String letters) {
+            List<PieceType> pieces = new ArrayList<>();
+            for (char letter : letters.toCharArray()) {
+                PieceType found = null;
+                for (PieceType type : PieceType.values()) {
+                    if (type != PieceType.KING && type.toString().charAt(0) == letter) {
+                        found = type;
+                    }
+                }
+                if (found == null) {
+                    throw new IllegalArgumentException("Not a piece: " + letter);
+                }
+                pieces.add(found);
+            }
+            return pieces;
+        }
+
+        /*
+         * Puts the pieces after the two kings in the standard order (white
+         * first, then the most valuable first on each side). The squares in
+         * order, if there are any, are moved along with their pieces
+        */
+        static void sortSides(PieceType[] types, boolean[] white, int[] squares, int count) {
+            for (int i = 3; i < count; i++) {
+                for (int j = i; j > 2 && comesBefore(types[j], white[j], types[j - 1], white[j - 1]); j--) {
+                    PieceType type = types[j];
+                    types[j] = types[j - 1];
+                    types[j - 1] = type;
+                    boolean isWhite = white[j];
+                    white[j] = white[j - 1];
+                    white[j - 1] = isWhite;
+                    int square = squares[j];
+                    squares[j] = squares[j - 1];
+                    squares[j - 1] = square;
+                }
+            }
+        }
+
+        private static boolean comesBefore(PieceType type, boolean white, PieceType otherType, boolean otherWhite) {
+            if (white != otherWhite) {
+                return white;
+            }
+            return type.ordinal() > otherType.ordinal();
+        }
+
+        //The name of sorted pieces, white first
+        static String nameOf(PieceType[] types, boolean[] white, int count) {
+            StringBuilder whitePart = new StringBuilder("K");
+            StringBuilder blackPart = new StringBuilder("K");
+            for (int i = 2; i < count; i++) {
+                (white[i] ? whitePart : blackPart).append(types[i]);
+            }
+            return whitePart.append(blackPart).toString();
+        }
+
+        /*
+         * Only one colouring of each endgame is generated, the one where white
+         * has the stronger pieces (KRK, never KKR). Returns true if sorted
+         * pieces have to swap colours to get there
+        */
+        static boolean needsColourSwap(PieceType[] types, boolean[] white, int count) {
+            int whiteStrength = 0;
+            int blackStrength = 0;
+            StringBuilder whitePart = new StringBuilder();
+            StringBuilder blackPart = new StringBuilder();
+            for (int i = 2; i < count; i++) {
+                if (white[i]) {
+                    whiteStrength += types[i].getPieceValue();
+                    whitePart.append(types[i]);
+                } else {
+                    blackStrength += types[i].getPieceValue();
+                    blackPart.append(types[i]);
+                }
+            }
+            if (whiteStrength != blackStrength) {
+                return blackStrength > whiteStrength;
+            }
+            return blackPart.toString().compareTo(whitePart.toString()) > 0;
+        }
+
+        /*
+         * Fills in the pieces on the board, kings in the first two places
+         * (white, black) and the other pieces in any order. Returns how many
+         * there are, or -1 if there are more than any endgame has or the kings
+         * are not one each
+        */
+        static int collect(Board board, PieceType[] types, boolean[] white, int[] squares) {
+            int count = board.getWhitePieces().size() + board.getBlackPieces().size();
+            if (count > MAX_PIECES) {
+                return -1;
+            }
+            int next = 2;
+            for (Piece piece : board.getWhitePieces()) {
+                next = place(piece, true, types, white, squares, next);
+            }
+            for (Piece piece : board.getBlackPieces()) {
+                next = place(piece, false, types, white, squares, next);
+            }
+            return next == count ? count : -1;
+        }
+
+        private static int place(Piece piece, boolean isWhite, PieceType[] types, boolean[] white, int[] squares, int next) {
+            int slot = piece.getPieceType().isKing() ? (isWhite ? 0 : 1) : next++;
+            types[slot] = piece.getPieceType();
+            white[slot] = isWhite;
+            squares[slot] = piece.getPiecePosition();
+            return next;
+        }
+
+        /*
+         * Sorts collected pieces and flips them in place (colours swapped,
+         * board turned upside down) if black has the stronger pieces, so they
+         * match the colouring that gets generated. Returns whether white is to
+         * move afterwards
+        */
+        static boolean canonicalize(PieceType[] types, boolean[] white, int[] squares, int count, boolean whiteToMove) {
+            sortSides(types, white, squares, count);
+            if (!needsColourSwap(types, white, count)) {
+                return whiteToMove;
+            }
+            int whiteKing = squares[0];
+            squares[0] = squares[1] ^ 56;
+            squares[1] = whiteKing ^ 56;
+            for (int i = 2; i < count; i++) {
+                white[i] = !white[i];
+                squares[i] ^= 56;
+            }
+            sortSides(types, white, squares, count);
+            return !whiteToMove;
+        }
+
+        String getName() {
+            return this.name;
+        }
+
+        int getPieceCount() {
+            return this.types.length;
+        }
+
+        PieceType getType(int piece) {
+            return this.types[piece];
+        }
+
+        boolean isWhite(int piece) {
+            return this.white[piece];
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        //Squares in piece order, mirrored here if the white king is on the right half
+        int index(int[] squares, boolean whiteToMove) {
+            int mirror = (squares[0] & 7) > 3 ? 7 : 0;
+            int whiteKing = squares[0] ^ mirror;
+            int index = (whiteToMove ? 0 : 32) + (whiteKing >>> 3) * 4 + (whiteKing & 7);
+            for (int i = 1; i < this.types.length; i++) {
+                index = index * 64 + (squares[i] ^ mirror);
+            }
+            return index;
+        }
+
+        //The other way round, fills in the squares and returns true if white is to move
+        boolean decode(int index, int[] squares) {
+            for (int i = this.types.length - 1; i > 0; i--) {
+                squares[i] = index & 63;
+                index >>>= 6;
+            }
+            int whiteKing = index & 31;
+            squares[0] = (whiteKing >>> 2) * 8 + (whiteKing & 3);
+            return index < 32;
+        }
+}
@@ -0,0 +1,29 @@
+package engine;
+
+import board.Board;
+
+/**
+ * Description: Something that knows the exact result of positions with only
+ * a few pieces left, bitbases or tablebases. The search asks it instead of
+ * searching such positions
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public interface EndgameProbe {
+
+        //Returned by probeDtz for positions it knows nothing about
+        int UNKNOWN_DTZ = Integer.MIN_VALUE;
+        //The longest DTZ probeDtz returns, the 50 move rule draws anything longer
+        int MAX_DTZ = 100;
+
+        //Bitbase.WIN, DRAW or LOSS for the player to move, Bitbase.UNKNOWN if the position is not covered
+        int probeWdl(Board board);
+
+        /*
+         * Plies to the next capture, pawn move or mate with best play, positive
+         * if the player to move wins and negative if they lose. 0 is a draw (or
+         * a player who is already mated)
+        */
+        int probeDtz(Board board);
+}
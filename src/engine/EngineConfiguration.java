@@ -0,0 +1,109 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Description: One way of setting up the engine, written as a short line of
+ * options so tools can take it on the command line, for example
+ * "depth=5,nodes=200000,params=tuned.params,off=NULL_MOVE+RAZORING".
+ * Options: depth (plies), nodes (node limit per move), params (an
+ * EvaluationParameters file), nnue (a NeuralNetwork file, evaluated with
+ * NeuralEvaluator instead of the standard evaluator), off (Pruning techniques
+ * to switch off, joined with +) and hash (transposition table entries as a
+ * power of two)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class EngineConfiguration {
+
+        private final String text;
+        private int depth = 4;
+        private long nodeLimit = Long.MAX_VALUE;
+        private EvaluationParameters parameters = EvaluationParameters.createDefault();
+        //Loaded once and shared, every evaluator made from it keeps its own accumulator
+        private NeuralNetwork network;
+        private final Set<Pruning> disabledPruning = EnumSet.noneOf(Pruning.class);
+        private int tableEntries = 1 << 18;
+
+        private EngineConfiguration(String text) {
+            this.text = text;
+        }
+
+        public static EngineConfiguration parse(String text) throws IOException {
+            EngineConfiguration configuration = new EngineConfiguration(text.trim());
+            for (String option : text.split(",")) {
+                option = option.trim();
+                if (option.isEmpty()) {
+                    continue;
+                }
+                int equals = option.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("Expected name=value: " + option);
+                }
+                String name = option.substring(0, equals).trim();
+                String value = option.substring(equals + 1).trim();
+                switch (name) {
+                    case "depth":
+                        configuration.depth = Integer.parseInt(value);
+                        break;
+                    case "nodes":
+                        configuration.nodeLimit = Long.parseLong(value);
+                        break;
+                    case "params":
+                        configuration.parameters = EvaluationParameters.load(Paths.get(value));
+                        break;
+                    case "nnue":
+                        configuration.network = NeuralNetwork.load(Paths.get(value));
+                        break;
+                    case "off":
+                        for (String technique : value.split("\\+")) {
+                            configuration.disabledPruning.add(Pruning.valueOf(technique.trim()));
+                        }
+                        break;
+                    case "hash":
+                        configuration.tableEntries = 1 << Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + name);
+                }
+            }
+            return configuration;
+        }
+
+        //A new search with its own evaluator and table, so every thread can have one
+        public AlphaBeta createSearch() {
+            return createSearch(new TranspositionTable(this.tableEntries));
+        }
+
+        //A new search using the given table, which may be shared with other searches
+        public AlphaBeta createSearch(TranspositionTable table) {
+            AlphaBeta search = new AlphaBeta(createEvaluator(), this.depth)
+                                   .setTranspositionTable(table)
+                                   .setNodeLimit(this.nodeLimit);
+            for (Pruning technique : this.disabledPruning) {
+                search.setPruning(technique, false);
+            }
+            return search;
+        }
+
+        //A new evaluator with this configuration's network or parameters, one per thread like the searches
+        public BoardEvaluator createEvaluator() {
+            if (this.network != null) {
+                return new NeuralEvaluator(this.network);
+            }
+            return new StandardBoardEvaluator(this.parameters);
+        }
+
+        public int getTableEntries() {
+            return this.tableEntries;
+        }
+
+        @Override
+        public String toString() {
+            return this.text.isEmpty() ? "default" : this.text;
+        }
+}
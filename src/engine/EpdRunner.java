@@ -0,0 +1,317 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import pgn.AlgebraicNotation;
+
+/**
+ * Description: Command line tool that runs an EPD test suite, the quickest
+ * check that a change to the search has not cost it tactics. Every position
+ * is searched under the configuration's depth and node limits and an optional
+ * time limit, on a pool of worker threads. The workers share one
+ * transposition table or each keep their own (cleared before every position,
+ * so results do not depend on which positions a worker had before). A
+ * position is solved if the search ends on one of its bm moves, or on none
+ * of its am moves. The time to solution is when the search settled on a
+ * right move for good, taken from the finished iterations
+ * for more information: https://www.chessprogramming.org/Extended_Position_Description
+ *
+ * Usage: java engine.EpdRunner suite.epd results.tsv [config] [threads] [seconds per position] [shared|own]
+ * results.tsv has a header line, then one line per position in suite order:
+ * id, solved (1 or 0), the move found, the expected moves, time to solution
+ * in ms (-1 if not solved), depth reached, nodes, nodes per second
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class EpdRunner {
+
+    private static final String HEADER = "id\tsolved\tmove\texpected\ttime_to_solution_ms\tdepth\tnodes\tnps";
+
+    private final EngineConfiguration configuration;
+    private final long timeLimit;
+    //null when every worker has its own table
+    private final TranspositionTable sharedTable;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final ThreadLocal<TranspositionTable> localTable = new ThreadLocal<TranspositionTable>() {
+        @Override
+        protected TranspositionTable initialValue() {
+            return new TranspositionTable(configuration.getTableEntries());
+        }
+    };
+
+    //timeLimit in milliseconds, 0 for none
+    public EpdRunner(EngineConfiguration configuration, long timeLimit, boolean sharedTable) {
+        this.configuration = configuration;
+        this.timeLimit = timeLimit;
+        this.sharedTable = sharedTable ? new TranspositionTable(configuration.getTableEntries()) : null;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.EpdRunner suite.epd results.tsv [config] [threads] [seconds per position] [shared|own]");
+            return;
+        }
+        EngineConfiguration configuration = EngineConfiguration.parse(args.length > 2 ? args[2] : "depth=6");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long timeLimit = args.length > 4 ? (long) (Double.parseDouble(args[4]) * 1000) : 0;
+        boolean shared = args.length > 5 && args[5].equals("shared");
+
+        List<TestPosition> positions = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.ISO_8859_1)) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            TestPosition position = TestPosition.parse(line, positions.size() + 1);
+            if (position != null) {
+                positions.add(position);
+            } else {
+                System.out.println("Skipping unreadable position: " + line);
+            }
+        }
+
+        EpdRunner runner = new EpdRunner(configuration, timeLimit, shared);
+        long start = System.currentTimeMillis();
+        List<Outcome> outcomes = runner.run(positions, threads);
+        long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        int solved = 0;
+        long nodes = 0;
+        for (Outcome outcome : outcomes) {
+            lines.add(outcome.toString());
+            solved += outcome.solved ? 1 : 0;
+            nodes += outcome.nodes;
+        }
+        Files.write(Paths.get(args[1]), lines, StandardCharsets.UTF_8);
+        System.out.println(String.format("%s: solved %d of %d in %.1f s, %d nodes, %d nodes/s per thread",
+                                         configuration, solved, outcomes.size(), elapsed / 1000.0, nodes,
+                                         nodes * 1000 / elapsed / threads));
+    }
+
+    //Searches every position, the outcomes come back in the same order
+    public List<Outcome> run(List<TestPosition> positions, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (final TestPosition position : positions) {
+                futures.add(workers.submit(new Callable<Outcome>() {
+                    @Override
+                    public Outcome call() {
+                        return solve(position);
+                    }
+                }));
+            }
+            List<Outcome> outcomes = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                Outcome outcome = futures.get(i).get();
+                outcomes.add(outcome);
+                System.out.println(String.format("%d/%d %s %s", i + 1, futures.size(), outcome.id,
+                                                 outcome.solved ? "solved" : "not solved (" + outcome.move + ")"));
+            }
+            return outcomes;
+        } finally {
+            workers.shutdownNow();
+            this.timer.shutdownNow();
+        }
+    }
+
+    private Outcome solve(final TestPosition position) {
+        TranspositionTable table = this.sharedTable;
+        if (table == null) {
+            table = this.localTable.get();
+            table.clear();
+        }
+        //A new search every time, so a late stop from the timer can only reach the search it was meant for
+        final AlphaBeta search = this.configuration.createSearch(table);
+        final long start = System.nanoTime();
+        //When the search last switched to a right move, -1 while it is on a wrong one
+        final long[] solvedAt = {-1};
+        search.addSearchListener(new SearchListener() {
+            @Override
+            public void depthCompleted(int depth, List<PrincipalVariation> lines, SearchStatistics statistics) {
+                if (lines.isEmpty() || !position.isRight(lines.get(0).getFirstMove())) {
+                    solvedAt[0] = -1;
+                } else if (solvedAt[0] < 0) {
+                    solvedAt[0] = System.nanoTime() - start;
+                }
+            }
+        });
+        ScheduledFuture<?> stopper = null;
+        if (this.timeLimit > 0) {
+            stopper = this.timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    search.stop();
+                }
+            }, this.timeLimit, TimeUnit.MILLISECONDS);
+        }
+        Move move = search.execute(position.board);
+        if (stopper != null) {
+            stopper.cancel(false);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<PrincipalVariation> lines = search.getPrincipalVariations();
+        boolean solved = move != null && position.isRight(move);
+        //A search that ends without a finished iteration (a table hit at the root) still counts when it is right
+        long timeToSolution = !solved ? -1 : (solvedAt[0] >= 0 ? solvedAt[0] : elapsed) / 1000000;
+        return new Outcome(position.id, solved, move == null ? "-" : AlgebraicNotation.toSan(position.board, move),
+                           position.expected, timeToSolution, lines.isEmpty() ? 0 : lines.get(0).getDepth(),
+                           search.getStatistics().getNodes(), elapsed);
+    }
+
+    //One EPD line: the position, its bm or am moves and its id
+    static class TestPosition {
+
+        private final String id;
+        private final Board board;
+        private final List<Move> bestMoves;
+        private final List<Move> avoidMoves;
+        private final String expected;
+
+        private TestPosition(String id, Board board, List<Move> bestMoves, List<Move> avoidMoves, String expected) {
+            this.id = id;
+            this.board = board;
+            this.bestMoves = bestMoves;
+            this.avoidMoves = avoidMoves;
+            this.expected = expected;
+        }
+
+        //null if the position or one of the moves cannot be read, or there is neither bm nor am
+        static TestPosition parse(String line, int number) {
+            Board board;
+            try {
+                board = Board.fromFen(line);
+            } catch (RuntimeException e) {
+                return null;
+            }
+            //The operations start after the four position fields (and the move counters, if someone left them in)
+            int start = 0;
+            for (int field = 0; field < 6; field++) {
+                while (start < line.length() && line.charAt(start) == ' ') {
+                    start++;
+                }
+                if (field >= 4 && (start == line.length() || !Character.isDigit(line.charAt(start)))) {
+                    break;
+                }
+                while (start < line.length() && line.charAt(start) != ' ') {
+                    start++;
+                }
+            }
+            String id = "#" + number;
+            List<Move> bestMoves = new ArrayList<>();
+            List<Move> avoidMoves = new ArrayList<>();
+            StringBuilder expected = new StringBuilder();
+            for (String operation : splitOperations(line.substring(start))) {
+                String[] parts = operation.trim().split("\\s+", 2);
+                if (parts.length < 2) {
+                    continue;
+                }
+                if (parts[0].equals("id")) {
+                    id = parts[1].replace("\"", "");
+                } else if (parts[0].equals("bm") || parts[0].equals("am")) {
+                    for (String san : parts[1].split("\\s+")) {
+                        Move move = AlgebraicNotation.parseMove(board, san);
+                        if (move == null) {
+                            return null;
+                        }
+                        (parts[0].equals("bm") ? bestMoves : avoidMoves).add(move);
+                    }
+                    expected.append(expected.length() > 0 ? " " : "").append(operation.trim());
+                }
+            }
+            if (bestMoves.isEmpty() && avoidMoves.isEmpty()) {
+                return null;
+            }
+            return new TestPosition(id, board, bestMoves, avoidMoves, expected.toString());
+        }
+
+        //Operations end with a semicolon, which may also be inside a quoted string
+        private static List<String> splitOperations(String text) {
+            List<String> operations = new ArrayList<>();
+            StringBuilder operation = new StringBuilder();
+            boolean quoted = false;
+            for (char c : text.toCharArray()) {
+                if (c == '"') {
+                    quoted = !quoted;
+                }
+                if (c == ';' && !quoted) {
+                    operations.add(operation.toString());
+                    operation.setLength(0);
+                } else {
+                    operation.append(c);
+                }
+            }
+            if (operation.toString().trim().length() > 0) {
+                operations.add(operation.toString());
+            }
+            return operations;
+        }
+
+        boolean isRight(Move move) {
+            if (!this.bestMoves.isEmpty() && !contains(this.bestMoves, move)) {
+                return false;
+            }
+            return !contains(this.avoidMoves, move);
+        }
+
+        //By tiles, the search may hand back a move made on its own copy of the board
+        private static boolean contains(List<Move> moves, Move move) {
+            for (Move candidate : moves) {
+                if (candidate.getCurrentCoordinate() == move.getCurrentCoordinate() &&
+                    candidate.getDestinationCoordinate() == move.getDestinationCoordinate()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    //What happened on one position, toString is its line in the results file
+    static class Outcome {
+
+        private final String id;
+        private final boolean solved;
+        private final String move;
+        private final String expected;
+        private final long timeToSolution;
+        private final int depth;
+        private final long nodes;
+        private final long nanos;
+
+        Outcome(String id, boolean solved, String move, String expected, long timeToSolution, int depth, long nodes, long nanos) {
+            this.id = id;
+            this.solved = solved;
+            this.move = move;
+            this.expected = expected;
+            this.timeToSolution = timeToSolution;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            long nps = (long) (this.nodes * 1e9 / Math.max(this.nanos, 1));
+            return this.id + "\t" + (this.solved ? 1 : 0) + "\t" + this.move + "\t" + this.expected + "\t" +
+                   this.timeToSolution + "\t" + this.depth + "\t" + this.nodes + "\t" + nps;
+        }
+    }
+}
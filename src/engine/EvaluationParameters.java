@@ -0,0 +1,125 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import pieces.Alliance;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: The numbers StandardBoardEvaluator adds up, kept in one flat
+ * array so a tuner can treat them as a vector: the piece values, a
+ * piece-square table for every piece type (seen from white, tile 0 is a8,
+ * black pieces use the mirrored tile) and the mobility weight. The defaults
+ * are the piece values of PieceType with empty tables, so an untuned
+ * evaluator plays exactly like before
+ * for more information: https://www.chessprogramming.org/Piece-Square_Tables
+ *
+ * File format: the numbers in the order above separated by white space,
+ * lines starting with # are comments
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class EvaluationParameters {
+
+        //Pawn to queen, the king is never traded so it has no value to tune
+        public static final int PIECE_VALUES = 0;
+        public static final int PIECE_SQUARES = PIECE_VALUES + 5;
+        public static final int MOBILITY = PIECE_SQUARES + 6 * 64;
+        public static final int COUNT = MOBILITY + 1;
+
+        private static final int DEFAULT_MOBILITY_WEIGHT = 2;
+
+        private final int[] values;
+
+        public EvaluationParameters(int[] values) {
+            if (values.length != COUNT) {
+                throw new IllegalArgumentException("Expected " + COUNT + " parameters, got " + values.length);
+            }
+            this.values = values.clone();
+        }
+
+        public static EvaluationParameters createDefault() {
+            int[] values = new int[COUNT];
+            for (PieceType type : PieceType.values()) {
+                if (!type.isKing()) {
+                    values[PIECE_VALUES + type.ordinal()] = type.getPieceValue();
+                }
+            }
+            values[MOBILITY] = DEFAULT_MOBILITY_WEIGHT;
+            return new EvaluationParameters(values);
+        }
+
+        public static EvaluationParameters load(Path path) throws IOException {
+            List<Integer> numbers = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.US_ASCII)) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                for (String number : line.split("\\s+")) {
+                    numbers.add(Integer.parseInt(number));
+                }
+            }
+            if (numbers.size() != COUNT) {
+                throw new IOException("Expected " + COUNT + " parameters in " + path + ", found " + numbers.size());
+            }
+            int[] values = new int[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                values[i] = numbers.get(i);
+            }
+            return new EvaluationParameters(values);
+        }
+
+        public void save(Path path) throws IOException {
+            StringBuilder text = new StringBuilder();
+            text.append("#Piece values (pawn, knight, bishop, rook, queen)\n");
+            appendRow(text, PIECE_VALUES, 5);
+            for (PieceType type : PieceType.values()) {
+                text.append("#").append(type).append(" piece-square table, rank 8 first\n");
+                for (int row = 0; row < 8; row++) {
+                    appendRow(text, PIECE_SQUARES + type.ordinal() * 64 + row * 8, 8);
+                }
+            }
+            text.append("#Mobility weight (per move)\n");
+            appendRow(text, MOBILITY, 1);
+            Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void appendRow(StringBuilder text, int start, int length) {
+            for (int i = start; i < start + length; i++) {
+                text.append(String.format("%5d", this.values[i]));
+            }
+            text.append('\n');
+        }
+
+        public int get(int index) {
+            return this.values[index];
+        }
+
+        //A copy, changing it does not change the parameters
+        public int[] toArray() {
+            return this.values.clone();
+        }
+
+        public int getPieceValue(PieceType type) {
+            return type.isKing() ? 0 : this.values[PIECE_VALUES + type.ordinal()];
+        }
+
+        public int getPieceSquare(PieceType type, Alliance alliance, int position) {
+            return this.values[pieceSquareIndex(type, alliance.isWhite(), position)];
+        }
+
+        public int getMobilityWeight() {
+            return this.values[MOBILITY];
+        }
+
+        //Black pieces use the tile mirrored top to bottom, so both sides share one table
+        public static int pieceSquareIndex(PieceType type, boolean white, int position) {
+            return PIECE_SQUARES + type.ordinal() * 64 + (white ? position : position ^ 56);
+        }
+}
@@ -0,0 +1,84 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: Keeps track of one game played without a board on screen and
+ * says when it is over: mate, stalemate, threefold repetition, the fifty move
+ * rule, bare kings, or a game long enough that it is called a draw
+ *
+ * Date: Oct. 19, 2026
+ */
+
+final class GameAdjudicator {
+
+        static final int WHITE_WINS = 2;
+        static final int DRAW = 1;
+        static final int BLACK_WINS = 0;
+        //Returned by result() while the game goes on
+        static final int ONGOING = -1;
+
+        //Without a capture or pawn move (the fifty move rule)
+        private static final int DRAW_PLIES = 100;
+
+        private final int maxPlies;
+        private final Map<Long, Integer> seen = new HashMap<>();
+        private int quietPlies;
+        private int plies;
+
+        GameAdjudicator(int maxPlies) {
+            this.maxPlies = maxPlies;
+        }
+
+        //The moves that do not leave the king in check
+        static List<Move> legalMoves(Board board) {
+            List<Move> legalMoves = new ArrayList<>();
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                if (board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    legalMoves.add(move);
+                }
+            }
+            return legalMoves;
+        }
+
+        //Captures and pawn moves can never be taken back, so they start the fifty moves again
+        static boolean isZeroing(Move move) {
+            return move.isAttacked() || move.getMovedPiece().getPieceType() == PieceType.PAWN;
+        }
+
+        /*
+         * Call once for every position of the game, before its move is
+         * chosen. Returns the result in half points for white, or ONGOING
+        */
+        int result(Board board, List<Move> legalMoves) {
+            if (legalMoves.isEmpty()) {
+                if (!board.currentPlayer().isInCheck()) {
+                    return DRAW;
+                }
+                return board.currentPlayer().getAlliance().isWhite() ? BLACK_WINS : WHITE_WINS;
+            }
+            Integer repetitions = this.seen.get(board.getHashKey());
+            this.seen.put(board.getHashKey(), repetitions == null ? 1 : repetitions + 1);
+            if ((repetitions != null && repetitions >= 2) || this.quietPlies >= DRAW_PLIES ||
+                this.plies >= this.maxPlies ||
+                (board.getWhitePieces().size() == 1 && board.getBlackPieces().size() == 1)) {
+                return DRAW;
+            }
+            return ONGOING;
+        }
+
+        void moveMade(Move move) {
+            this.quietPlies = isZeroing(move) ? 0 : this.quietPlies + 1;
+            this.plies++;
+        }
+
+        int getPlies() {
+            return this.plies;
+        }
+}
@@ -0,0 +1,308 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import pgn.AlgebraicNotation;
+import pgn.ImportedGame;
+import pgn.PgnGame;
+import pgn.PgnReader;
+import pgn.PgnWriter;
+
+/**
+ * Description: Goes through a finished game and marks its inaccuracies,
+ * mistakes and blunders. Every position of the game is searched under the
+ * configuration's limits, and a move is as bad as the score it gave away:
+ * the score of the position before it against the score after it, both from
+ * the side that made it. The plies are split into short runs of neighbouring
+ * positions and the runs are searched in parallel. Each run is searched from
+ * its last position back to its first in one transposition table, so every
+ * search finds the position after its move already in the table. The runs
+ * are handed out longest first (judged by how many moves their positions
+ * have), so a slow middlegame run is not the one left going at the end
+ * for more information: https://www.chessprogramming.org/Numeric_Annotation_Glyphs
+ *
+ * Usage: java engine.GameAnnotator games.pgn annotated.pgn [config default depth=5] [threads]
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class GameAnnotator implements Closeable {
+
+    private static final int RUN_LENGTH = 6;
+    //Scores are capped here before comparing, so a longer mate or a bigger win is not counted as a mistake
+    private static final int SCORE_CAP = 1000;
+
+    //How bad a move was, by the centipawns it lost, with its NAG and SAN suffix
+    public enum Judgement {
+        NONE(0, null, ""),
+        INACCURACY(50, "$6", "?!"),
+        MISTAKE(100, "$2", "?"),
+        BLUNDER(250, "$4", "??");
+
+        private final int loss;
+        private final String nag;
+        private final String symbol;
+
+        Judgement(int loss, String nag, String symbol) {
+            this.loss = loss;
+            this.nag = nag;
+            this.symbol = symbol;
+        }
+
+        public String getNag() {
+            return this.nag;
+        }
+
+        public String getSymbol() {
+            return this.symbol;
+        }
+
+        static Judgement of(int loss) {
+            Judgement judgement = NONE;
+            for (Judgement candidate : values()) {
+                if (loss >= candidate.loss) {
+                    judgement = candidate;
+                }
+            }
+            return judgement;
+        }
+    }
+
+    //What the search thought of one move of the game
+    public static class Annotation {
+
+        private final int scoreBefore;
+        private final int scoreAfter;
+        private final String bestMove;
+        private final Judgement judgement;
+
+        //A move the search would have played itself is never judged bad, whatever the two searches scored
+        Annotation(int scoreBefore, int scoreAfter, String bestMove, boolean playedBest) {
+            this.scoreBefore = scoreBefore;
+            this.scoreAfter = scoreAfter;
+            this.bestMove = bestMove;
+            this.judgement = playedBest ? Judgement.NONE : Judgement.of(cap(scoreBefore) - cap(scoreAfter));
+        }
+
+        //From the side that made the move, before and after it
+        public int getScoreBefore() {
+            return this.scoreBefore;
+        }
+
+        public int getScoreAfter() {
+            return this.scoreAfter;
+        }
+
+        //The search's move in the position, in SAN, null if it had none
+        public String getBestMove() {
+            return this.bestMove;
+        }
+
+        public Judgement getJudgement() {
+            return this.judgement;
+        }
+
+        //The score after the move from white's side, then the better move for a bad one
+        String comment(boolean white) {
+            String score = formatScore(white ? this.scoreAfter : -this.scoreAfter);
+            if (this.judgement == Judgement.NONE || this.bestMove == null) {
+                return score;
+            }
+            return score + " " + this.judgement.name().toLowerCase() + ", " + this.bestMove + " was better (" +
+                   formatScore(white ? this.scoreBefore : -this.scoreBefore) + ")";
+        }
+    }
+
+    private final EngineConfiguration configuration;
+    private final ExecutorService pool;
+    private final ThreadLocal<TranspositionTable> table = new ThreadLocal<TranspositionTable>() {
+        @Override
+        protected TranspositionTable initialValue() {
+            return new TranspositionTable(configuration.getTableEntries());
+        }
+    };
+
+    public GameAnnotator(EngineConfiguration configuration, int threads) {
+        this.configuration = configuration;
+        this.pool = Executors.newFixedThreadPool(threads);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.GameAnnotator games.pgn annotated.pgn [config] [threads]");
+            return;
+        }
+        EngineConfiguration configuration = EngineConfiguration.parse(args.length > 2 ? args[2] : "depth=5");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.currentTimeMillis();
+        int games = 0;
+        try (GameAnnotator annotator = new GameAnnotator(configuration, threads);
+             PgnReader reader = PgnReader.open(Paths.get(args[0]));
+             PgnWriter writer = PgnWriter.create(Paths.get(args[1]))) {
+            PgnGame game;
+            long number = 0;
+            while ((game = reader.next()) != null) {
+                ImportedGame imported = ImportedGame.validate(++number, game);
+                if (!imported.isValid()) {
+                    System.out.println("Skipping game " + number + ", illegal move at ply " + (imported.getErrorPly() + 1));
+                    continue;
+                }
+                long gameStart = System.currentTimeMillis();
+                List<Move> moves = imported.replay();
+                List<Annotation> annotations = annotator.annotate(moves);
+                annotator.write(writer, game.getTags(), moves, annotations, game.getResult());
+                games++;
+                int[] counts = new int[Judgement.values().length];
+                for (Annotation annotation : annotations) {
+                    counts[annotation.getJudgement().ordinal()]++;
+                }
+                System.out.println(String.format("Game %d: %d plies in %.1f s, %d inaccuracies, %d mistakes, %d blunders",
+                                                 number, moves.size(), (System.currentTimeMillis() - gameStart) / 1000.0,
+                                                 counts[Judgement.INACCURACY.ordinal()], counts[Judgement.MISTAKE.ordinal()],
+                                                 counts[Judgement.BLUNDER.ordinal()]));
+            }
+        }
+        System.out.println(String.format("%d games in %.1f s", games, (System.currentTimeMillis() - start) / 1000.0));
+    }
+
+    //One annotation per move, in order. The moves are a game from the standard position, like MoveLog's
+    public List<Annotation> annotate(List<Move> moves) throws InterruptedException {
+        if (moves.isEmpty()) {
+            return Collections.emptyList();
+        }
+        //The positions before every move and the one after the last
+        final Board[] boards = new Board[moves.size() + 1];
+        for (int ply = 0; ply < moves.size(); ply++) {
+            boards[ply] = moves.get(ply).getBoard();
+        }
+        Move last = moves.get(moves.size() - 1);
+        boards[moves.size()] = last.getBoard().currentPlayer().makeMove(last).getTransitionBoard();
+
+        final int[] scores = new int[boards.length];
+        final Move[] bestMoves = new Move[boards.length];
+        List<Run> runs = new ArrayList<>();
+        for (int first = 0; first < boards.length; first += RUN_LENGTH) {
+            runs.add(new Run(boards, first, Math.min(first + RUN_LENGTH, boards.length), scores, bestMoves));
+        }
+        Collections.sort(runs, new Comparator<Run>() {
+            @Override
+            public int compare(Run run1, Run run2) {
+                return Long.compare(run2.cost, run1.cost);
+            }
+        });
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Run run : runs) {
+            futures.add(this.pool.submit(run));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        List<Annotation> annotations = new ArrayList<>(moves.size());
+        for (int ply = 0; ply < moves.size(); ply++) {
+            Move best = bestMoves[ply];
+            Move played = moves.get(ply);
+            String bestMove = best == null ? null : AlgebraicNotation.toSan(boards[ply], best);
+            boolean playedBest = best != null && best.getCurrentCoordinate() == played.getCurrentCoordinate() &&
+                                 best.getDestinationCoordinate() == played.getDestinationCoordinate();
+            annotations.add(new Annotation(scores[ply], -scores[ply + 1], bestMove, playedBest));
+        }
+        return annotations;
+    }
+
+    //Writes the game with a NAG on every bad move and the score after every move
+    public void write(PgnWriter writer, Map<String, String> tags, List<Move> moves, List<Annotation> annotations,
+                      String result) throws IOException {
+        String[] nags = new String[moves.size()];
+        String[] comments = new String[moves.size()];
+        for (int ply = 0; ply < annotations.size(); ply++) {
+            Annotation annotation = annotations.get(ply);
+            nags[ply] = annotation.getJudgement().getNag();
+            comments[ply] = annotation.comment(ply % 2 == 0);
+        }
+        writer.writeGame(tags, moves, nags, comments, result);
+    }
+
+    @Override
+    public void close() {
+        this.pool.shutdownNow();
+    }
+
+    private static int cap(int score) {
+        return Math.max(-SCORE_CAP, Math.min(SCORE_CAP, score));
+    }
+
+    //Pawns with two decimals, or #n / #-n for a mate in n moves
+    static String formatScore(int score) {
+        if (Math.abs(score) >= AlphaBeta.MATE_SCORE - 1000) {
+            //0 is the position that is already mate
+            int moves = (AlphaBeta.MATE_SCORE - Math.abs(score) + 1) / 2;
+            return moves == 0 ? "#" : score > 0 ? "#" + moves : "#-" + moves;
+        }
+        return String.format("%+.2f", score / 100.0);
+    }
+
+    //Neighbouring positions searched last to first by one thread in one table
+    private class Run implements Callable<Void> {
+
+        private final Board[] boards;
+        private final int first;
+        private final int end;
+        private final int[] scores;
+        private final Move[] bestMoves;
+        //How long the run should take, the sum of its positions' move counts
+        private final long cost;
+
+        Run(Board[] boards, int first, int end, int[] scores, Move[] bestMoves) {
+            this.boards = boards;
+            this.first = first;
+            this.end = end;
+            this.scores = scores;
+            this.bestMoves = bestMoves;
+            long cost = 0;
+            for (int ply = first; ply < end; ply++) {
+                cost += boards[ply].currentPlayer().getLegalMoves().size();
+            }
+            this.cost = cost;
+        }
+
+        @Override
+        public Void call() {
+            TranspositionTable table = GameAnnotator.this.table.get();
+            table.clear();
+            AlphaBeta search = configuration.createSearch(table);
+            for (int ply = this.end - 1; ply >= this.first; ply--) {
+                Board board = this.boards[ply];
+                Move move = search.execute(board);
+                List<PrincipalVariation> lines = search.getPrincipalVariations();
+                if (move == null) {
+                    //Mated or stalemated
+                    this.scores[ply] = board.currentPlayer().isInCheck() ? -AlphaBeta.MATE_SCORE : 0;
+                } else {
+                    this.scores[ply] = lines.isEmpty() ? 0 : lines.get(0).getScore();
+                    this.bestMoves[ply] = move;
+                }
+            }
+            return null;
+        }
+    }
+}
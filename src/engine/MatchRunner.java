@@ -0,0 +1,245 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import pgn.AlgebraicNotation;
+
+/**
+ * Description: Command line tool that plays two engine configurations against
+ * each other until a sequential probability ratio test (SPRT) can tell which
+ * of two hypotheses holds: the new configuration (A) is elo0 stronger than
+ * the old one (B), or it is elo1 stronger. Every opening is played twice
+ * with the colours swapped, many games run at once on a thread pool, and the
+ * match stops as soon as the log likelihood ratio crosses a bound, usually
+ * long before a fixed length match would have ended. The ratio uses the
+ * normal approximation of the game results, like most testing frameworks
+ * for more information: https://www.chessprogramming.org/Sequential_Probability_Ratio_Test
+ *
+ * Usage: java engine.MatchRunner configA configB [openings.txt] [threads] [elo0] [elo1] [max games]
+ * The configurations are EngineConfiguration lines. Each line of openings.txt
+ * is a balanced opening in SAN (e4 e5 Nf3 Nc6), a few are built in
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class MatchRunner {
+
+    //5% chance of each kind of wrong answer
+    private static final double ALPHA = 0.05;
+    private static final double BETA = 0.05;
+    private static final int MAX_PLIES = 300;
+    private static final int REPORT_GAMES = 20;
+
+    //No castling in these, the board cannot replay it reliably yet
+    private static final String[] OPENINGS = {
+        "e4 e5 Nf3 Nc6 Bb5 a6", "e4 e5 Nf3 Nc6 Bc4 Bc5", "e4 e5 Nf3 Nf6 Nxe5 d6", "e4 c5 Nf3 d6 d4 cxd4",
+        "e4 c5 Nf3 Nc6 d4 cxd4", "e4 c5 c3 Nf6 e5 Nd5", "e4 e6 d4 d5 Nc3 Nf6", "e4 e6 d4 d5 e5 c5",
+        "e4 c6 d4 d5 Nc3 dxe4", "e4 c6 d4 d5 e5 Bf5", "e4 d6 d4 Nf6 Nc3 g6", "e4 Nf6 e5 Nd5 d4 d6",
+        "d4 d5 c4 e6 Nc3 Nf6", "d4 d5 c4 c6 Nf3 Nf6", "d4 d5 c4 dxc4 Nf3 Nf6", "d4 Nf6 c4 e6 Nc3 Bb4",
+        "d4 Nf6 c4 g6 Nc3 Bg7", "d4 Nf6 c4 e6 Nf3 b6", "d4 Nf6 c4 c5 d5 e6", "d4 f5 g3 Nf6 Bg2 e6",
+        "c4 e5 Nc3 Nf6 g3 d5", "c4 c5 Nc3 Nc6 g3 g6", "Nf3 d5 g3 Nf6 Bg2 c6", "Nf3 Nf6 c4 b6 g3 Bb7"
+    };
+
+    private final EngineConfiguration first;
+    private final EngineConfiguration second;
+    private final List<Board> openings;
+    private final double elo0;
+    private final double elo1;
+    //Set when the match is over, games still running give up at their next move
+    private volatile boolean finished;
+    private int wins;
+    private int draws;
+    private int losses;
+
+    public MatchRunner(EngineConfiguration first, EngineConfiguration second, List<Board> openings, double elo0, double elo1) {
+        this.first = first;
+        this.second = second;
+        this.openings = openings;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.MatchRunner configA configB [openings.txt] [threads] [elo0] [elo1] [max games]");
+            return;
+        }
+        List<String> lines = args.length > 2 && !args[2].equals("-")
+                             ? Files.readAllLines(Paths.get(args[2]), StandardCharsets.ISO_8859_1) : Arrays.asList(OPENINGS);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        double elo0 = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+        double elo1 = args.length > 5 ? Double.parseDouble(args[5]) : 5;
+        int maxGames = args.length > 6 ? Integer.parseInt(args[6]) : 20000;
+
+        List<Board> openings = new ArrayList<>();
+        for (String line : lines) {
+            Board board = playOpening(line);
+            if (board != null) {
+                openings.add(board);
+            } else if (!line.trim().isEmpty()) {
+                System.out.println("Skipping unreadable opening: " + line);
+            }
+        }
+        if (openings.isEmpty()) {
+            System.out.println("No openings to play");
+            return;
+        }
+        MatchRunner runner = new MatchRunner(EngineConfiguration.parse(args[0]), EngineConfiguration.parse(args[1]),
+                                             openings, elo0, elo1);
+        runner.run(threads, maxGames);
+    }
+
+    //The position after the moves, null if one of them cannot be played
+    static Board playOpening(String line) {
+        Board board = Board.createStandardBoard();
+        for (String san : line.trim().split("\\s+")) {
+            if (san.isEmpty()) {
+                continue;
+            }
+            Move move = AlgebraicNotation.parseMove(board, san);
+            if (move == null) {
+                return null;
+            }
+            board = board.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        return board;
+    }
+
+    //Plays until the test is decided or maxGames have been played
+    public void run(int threads, int maxGames) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<Integer> games = new ExecutorCompletionService<>(pool);
+        double lowerBound = Math.log(BETA / (1 - ALPHA));
+        double upperBound = Math.log((1 - BETA) / ALPHA);
+        System.out.println(String.format("%s vs %s, H0 elo %.1f, H1 elo %.1f, bounds [%.2f, %.2f]",
+                                         this.first, this.second, this.elo0, this.elo1, lowerBound, upperBound));
+        int started = 0;
+        int inFlight = 0;
+        try {
+            //A couple of games per thread keep every thread busy without queueing the whole match
+            while (started < maxGames && inFlight < 2 * threads) {
+                games.submit(createGame(started++));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                int result = games.take().get();
+                inFlight--;
+                if (result == 2) {
+                    this.wins++;
+                } else if (result == 1) {
+                    this.draws++;
+                } else {
+                    this.losses++;
+                }
+                int played = this.wins + this.draws + this.losses;
+                double llr = logLikelihoodRatio();
+                if (llr <= lowerBound || llr >= upperBound) {
+                    report(llr);
+                    System.out.println(llr >= upperBound ? "H1 accepted, " + this.first + " is stronger"
+                                                         : "H0 accepted, " + this.first + " is not stronger");
+                    return;
+                }
+                if (played % REPORT_GAMES == 0) {
+                    report(llr);
+                }
+                if (started < maxGames) {
+                    games.submit(createGame(started++));
+                    inFlight++;
+                }
+            }
+            report(logLikelihoodRatio());
+            System.out.println("No decision after " + maxGames + " games");
+        } finally {
+            this.finished = true;
+            pool.shutdownNow();
+        }
+    }
+
+    private void report(double llr) {
+        int played = this.wins + this.draws + this.losses;
+        double score = (this.wins + this.draws / 2.0) / played;
+        //95% of the normal distribution is within 1.96 standard deviations
+        double margin = 1.96 * Math.sqrt(variance(score) / played);
+        System.out.println(String.format("Games %d (+%d =%d -%d), Elo %.1f [%.1f, %.1f], LLR %.2f",
+                                         played, this.wins, this.draws, this.losses, elo(score),
+                                         elo(score - margin), elo(score + margin), llr));
+    }
+
+    //The variance of one game's score (0, 1/2 or 1) around the mean score
+    private double variance(double score) {
+        int played = this.wins + this.draws + this.losses;
+        return (this.wins * (1 - score) * (1 - score) + this.draws * (0.5 - score) * (0.5 - score) +
+                this.losses * score * score) / played;
+    }
+
+    /*
+     * log(P(results | elo1) / P(results | elo0)) with the score treated as
+     * normally distributed around the expected score of each hypothesis
+    */
+    private double logLikelihoodRatio() {
+        int played = this.wins + this.draws + this.losses;
+        double score = (this.wins + this.draws / 2.0) / played;
+        double variance = variance(score);
+        if (variance <= 0) {
+            //Every game had the same result so far, that says nothing yet
+            return 0;
+        }
+        double score0 = expectedScore(this.elo0);
+        double score1 = expectedScore(this.elo1);
+        return (score1 - score0) * (2 * score - score0 - score1) / (2 * variance / played);
+    }
+
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double elo(double score) {
+        score = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    //Even games give the first configuration white, the next game is the same opening with the colours swapped
+    private Callable<Integer> createGame(final int game) {
+        final Board opening = this.openings.get((game / 2) % this.openings.size());
+        final boolean firstIsWhite = game % 2 == 0;
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return playGame(opening, firstIsWhite);
+            }
+        };
+    }
+
+    //The first configuration's result in half points
+    private int playGame(Board board, boolean firstIsWhite) {
+        AlphaBeta firstSearch = this.first.createSearch();
+        AlphaBeta secondSearch = this.second.createSearch();
+        GameAdjudicator adjudicator = new GameAdjudicator(MAX_PLIES);
+        while (!this.finished) {
+            List<Move> legalMoves = GameAdjudicator.legalMoves(board);
+            int result = adjudicator.result(board, legalMoves);
+            if (result != GameAdjudicator.ONGOING) {
+                return firstIsWhite ? result : GameAdjudicator.WHITE_WINS - result;
+            }
+            boolean firstToMove = board.currentPlayer().getAlliance().isWhite() == firstIsWhite;
+            Move move = (firstToMove ? firstSearch : secondSearch).execute(board);
+            adjudicator.moveMade(move);
+            board = board.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        return GameAdjudicator.DRAW;
+    }
+}
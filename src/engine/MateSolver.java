@@ -0,0 +1,273 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import player.MoveTransition;
+
+/**
+ * Description: Depth-first proof-number search (df-pn) for forced mates. Every
+ * node keeps a proof number (how many leaves still have to be proven to show
+ * a mate) and a disproof number (how many to show there is none), and the
+ * search always walks towards the cheapest proof or disproof instead of
+ * searching every move to full depth like alpha-beta does.
+ * The numbers are kept in a fixed size table, so memory never grows with the search
+ * for more information: https://www.chessprogramming.org/Proof-Number_Search
+ * and https://www.chessprogramming.org/Depth-First_Proof-Number_Search
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class MateSolver {
+
+        private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+        public enum Status {
+            MATE,
+            NO_MATE,
+            //The node limit ran out first
+            UNKNOWN
+        }
+
+        //The answer to one "mate in N" question
+        public static class Solution {
+
+            private final Status status;
+            private final List<Move> line;
+            private final long nodes;
+
+            Solution(Status status, List<Move> line, long nodes) {
+                this.status = status;
+                this.line = line;
+                this.nodes = nodes;
+            }
+
+            public Status getStatus() {
+                return this.status;
+            }
+
+            //Attacker and defender moves one after another, ending in mate (empty unless MATE)
+            public List<Move> getLine() {
+                return this.line;
+            }
+
+            public long getNodes() {
+                return this.nodes;
+            }
+        }
+
+        //One node's children, made once per visit and reused by every pass of the loop
+        private static class Child {
+
+            final Move move;
+            final Board board;
+
+            Child(Move move, Board board) {
+                this.move = move;
+                this.board = board;
+            }
+        }
+
+        private final long[] keys;
+        private final int[] proofNumbers;
+        private final int[] disproofNumbers;
+        private final int mask;
+        private final long maxNodes;
+        private final int[] numbers = new int[2];
+        private long nodes;
+
+        //tableEntries is rounded down to a power of two
+        public MateSolver(int tableEntries, long maxNodes) {
+            int size = Integer.highestOneBit(Math.max(tableEntries, 1));
+            this.keys = new long[size];
+            this.proofNumbers = new int[size];
+            this.disproofNumbers = new int[size];
+            this.mask = size - 1;
+            this.maxNodes = maxNodes;
+        }
+
+        //Looks for a mate by the current player in at most mateMoves of their own moves
+        public Solution solve(Board board, int mateMoves) {
+
+            clearTable();
+            this.nodes = 0;
+            int plies = 2 * mateMoves - 1;
+
+            search(board, plies, INFINITY, INFINITY);
+            lookup(board, plies, this.numbers);
+            if (this.numbers[0] == 0) {
+                return new Solution(Status.MATE, extractLine(board, plies), this.nodes);
+            } else if (this.numbers[1] == 0) {
+                return new Solution(Status.NO_MATE, Collections.<Move>emptyList(), this.nodes);
+            }
+            return new Solution(Status.UNKNOWN, Collections.<Move>emptyList(), this.nodes);
+        }
+
+        /*
+         * The attacker moves when an odd number of plies is left (an OR node,
+         * one mating move is enough) and the defender when it is even (an AND
+         * node, every reply has to be mated). The node is searched until its
+         * numbers reach the thresholds given by its parent
+        */
+        private void search(Board board, int plies, int proofThreshold, int disproofThreshold) {
+
+            this.nodes++;
+            boolean attackerToMove = plies % 2 == 1;
+
+            //Out of plies, only a position that is already mate counts
+            if (plies == 0 && !board.currentPlayer().isInCheck()) {
+                store(board, plies, INFINITY, 0);
+                return;
+            }
+
+            List<Child> children = expand(board, plies);
+            if (children.isEmpty()) {
+                boolean mated = !attackerToMove && board.currentPlayer().isInCheck();
+                store(board, plies, mated ? 0 : INFINITY, mated ? INFINITY : 0);
+                return;
+            }
+            if (plies == 0) {
+                store(board, plies, INFINITY, 0);
+                return;
+            }
+
+            while (true) {
+                //For the attacker the proof number is the smallest child proof, the disproof number the sum
+                //For the defender it is the other way around
+                int proof = attackerToMove ? INFINITY : 0;
+                int disproof = attackerToMove ? 0 : INFINITY;
+                int best = -1;
+                int bestNumber = INFINITY;
+                int secondNumber = INFINITY;
+                int bestProof = 0;
+                int bestDisproof = 0;
+
+                for (int i = 0; i < children.size(); i++) {
+                    lookup(children.get(i).board, plies - 1, this.numbers);
+                    int childProof = this.numbers[0];
+                    int childDisproof = this.numbers[1];
+                    int selectNumber = attackerToMove ? childProof : childDisproof;
+                    if (attackerToMove) {
+                        proof = Math.min(proof, childProof);
+                        disproof = add(disproof, childDisproof);
+                    } else {
+                        proof = add(proof, childProof);
+                        disproof = Math.min(disproof, childDisproof);
+                    }
+                    if (selectNumber < bestNumber) {
+                        secondNumber = bestNumber;
+                        bestNumber = selectNumber;
+                        best = i;
+                        bestProof = childProof;
+                        bestDisproof = childDisproof;
+                    } else if (selectNumber < secondNumber) {
+                        secondNumber = selectNumber;
+                    }
+                }
+
+                store(board, plies, proof, disproof);
+                if (proof >= proofThreshold || disproof >= disproofThreshold || this.nodes >= this.maxNodes) {
+                    return;
+                }
+
+                //The best child is searched until it stops being the best (second best + 1) or the parent is done
+                int childProofThreshold;
+                int childDisproofThreshold;
+                if (attackerToMove) {
+                    childProofThreshold = Math.min(proofThreshold, add(secondNumber, 1));
+                    childDisproofThreshold = add(disproofThreshold - disproof, bestDisproof);
+                } else {
+                    childProofThreshold = add(proofThreshold - proof, bestProof);
+                    childDisproofThreshold = Math.min(disproofThreshold, add(secondNumber, 1));
+                }
+                search(children.get(best).board, plies - 1, childProofThreshold, childDisproofThreshold);
+            }
+        }
+
+        //Walks down the proven tree, re-proving any node the table has already thrown away
+        private List<Move> extractLine(Board board, int plies) {
+            List<Move> line = new ArrayList<>();
+            while (plies > 0) {
+                List<Child> children = expand(board, plies);
+                if (children.isEmpty()) {
+                    break;
+                }
+                //The attacker needs one proven move, for the defender any reply will do
+                Child next = findProven(children, plies - 1);
+                for (int i = 0; next == null && i < children.size(); i++) {
+                    search(children.get(i).board, plies - 1, INFINITY, INFINITY);
+                    next = findProven(children.subList(i, i + 1), plies - 1);
+                }
+                if (next == null) {
+                    break;
+                }
+                line.add(next.move);
+                board = next.board;
+                plies--;
+            }
+            return line;
+        }
+
+        private Child findProven(List<Child> children, int plies) {
+            for (Child child : children) {
+                lookup(child.board, plies, this.numbers);
+                if (this.numbers[0] == 0) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        //Returns every legal move with the board it leads to
+        private static List<Child> expand(Board board, int plies) {
+            List<Child> children = new ArrayList<>();
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (transition.getMoveStatus().isDone()) {
+                    children.add(new Child(move, transition.getTransitionBoard()));
+                }
+            }
+            return children;
+        }
+
+        //The same position with a different number of plies left is a different question, so both go in the key
+        private static long tableKey(Board board, int plies) {
+            return board.getHashKey() ^ (plies * 0x9E3779B97F4A7C15L);
+        }
+
+        //Unknown positions start at 1 and 1
+        private void lookup(Board board, int plies, int[] result) {
+            long key = tableKey(board, plies);
+            int index = (int) key & this.mask;
+            if (this.keys[index] == key) {
+                result[0] = this.proofNumbers[index];
+                result[1] = this.disproofNumbers[index];
+            } else {
+                result[0] = 1;
+                result[1] = 1;
+            }
+        }
+
+        //Always replaces, anything thrown away is simply searched again when it is needed
+        private void store(Board board, int plies, int proof, int disproof) {
+            long key = tableKey(board, plies);
+            int index = (int) key & this.mask;
+            this.keys[index] = key;
+            this.proofNumbers[index] = proof;
+            this.disproofNumbers[index] = disproof;
+        }
+
+        private void clearTable() {
+            for (int i = 0; i < this.keys.length; i++) {
+                this.keys[i] = 0;
+            }
+        }
+
+        //Adds without overflowing past INFINITY
+        private static int add(int a, int b) {
+            long sum = (long) a + b;
+            return sum >= INFINITY ? INFINITY : (int) sum;
+        }
+}
@@ -0,0 +1,17 @@
+package engine;
+
+import board.Board;
+import board.Move;
+
+/**
+ * Description: Anything that can pick a move for the current player
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public interface MoveStrategy {
+
+    //Returns the chosen move, or null if the current player has no legal moves
+    Move execute(Board board);
+
+}
@@ -0,0 +1,162 @@
+package engine;
+
+import board.Board;
+import pieces.Piece;
+
+/**
+ * Description: Evaluates boards with a NeuralNetwork. The hidden layer
+ * (the accumulator) is kept from one call to the next, and only the tiles that
+ * differ from the previously evaluated board are added or subtracted. Search
+ * evaluates neighbouring positions one after another, so that is usually two
+ * to four columns instead of all 32 pieces.
+ * Keeps state, so every search thread needs its own evaluator (the network can be shared)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class NeuralEvaluator implements BoardEvaluator {
+
+        //Clipped ReLU ceiling of the hidden layer and the output weight scale
+        private static final int QA = 255;
+        private static final int QB = 64;
+        //Converts the network's output to centipawns
+        private static final int SCALE = 400;
+        //Past this many changed tiles it is cheaper to rebuild the accumulator
+        private static final int REFRESH_LIMIT = 12;
+        private static final int EMPTY = -1;
+
+        private final NeuralNetwork network;
+        private final int hiddenSize;
+        //The hidden layer as seen by white and by black
+        private final short[] whiteAccumulator;
+        private final short[] blackAccumulator;
+        //Piece code (alliance * 6 + type) on each tile of the board the accumulator holds
+        private final int[] accumulatedTiles = new int[64];
+        private final int[] boardTiles = new int[64];
+        private boolean initialized;
+        private long incrementalUpdates;
+        private long refreshes;
+
+        public NeuralEvaluator(NeuralNetwork network) {
+            this.network = network;
+            this.hiddenSize = network.getHiddenSize();
+            this.whiteAccumulator = new short[this.hiddenSize];
+            this.blackAccumulator = new short[this.hiddenSize];
+        }
+
+        @Override
+        public int evaluate(Board board) {
+            updateAccumulator(board);
+            boolean whiteToMove = board.currentPlayer().getAlliance().isWhite();
+            short[] us = whiteToMove ? this.whiteAccumulator : this.blackAccumulator;
+            short[] them = whiteToMove ? this.blackAccumulator : this.whiteAccumulator;
+            short[] outputWeights = this.network.getOutputWeights();
+
+            //Up to 2 * H * 255 * 32767, too much for an int with a real hidden layer
+            long sum = 0;
+            for (int i = 0; i < this.hiddenSize; i++) {
+                sum += clippedRelu(us[i]) * outputWeights[i];
+            }
+            for (int i = 0; i < this.hiddenSize; i++) {
+                sum += clippedRelu(them[i]) * outputWeights[this.hiddenSize + i];
+            }
+            return (int) ((sum + this.network.getOutputBias()) * SCALE / (QA * QB));
+        }
+
+        public long getIncrementalUpdates() {
+            return this.incrementalUpdates;
+        }
+
+        public long getRefreshes() {
+            return this.refreshes;
+        }
+
+        private void updateAccumulator(Board board) {
+
+            int changedTiles = 0;
+            for (int tile = 0; tile < 64; tile++) {
+                Piece piece = board.getTile(tile).getPiece();
+                this.boardTiles[tile] = piece == null ? EMPTY :
+                                        piece.getPieceAlliance().ordinal() * 6 + piece.getPieceType().ordinal();
+                if (this.boardTiles[tile] != this.accumulatedTiles[tile]) {
+                    changedTiles++;
+                }
+            }
+
+            if (!this.initialized || changedTiles > REFRESH_LIMIT) {
+                refresh();
+                return;
+            }
+            this.incrementalUpdates++;
+            for (int tile = 0; tile < 64; tile++) {
+                int oldCode = this.accumulatedTiles[tile];
+                int newCode = this.boardTiles[tile];
+                if (oldCode != newCode) {
+                    if (oldCode != EMPTY) {
+                        subtractFeature(oldCode, tile);
+                    }
+                    if (newCode != EMPTY) {
+                        addFeature(newCode, tile);
+                    }
+                    this.accumulatedTiles[tile] = newCode;
+                }
+            }
+        }
+
+        //Starts both halves over from the biases and adds every piece
+        private void refresh() {
+            this.refreshes++;
+            System.arraycopy(this.network.getFeatureBiases(), 0, this.whiteAccumulator, 0, this.hiddenSize);
+            System.arraycopy(this.network.getFeatureBiases(), 0, this.blackAccumulator, 0, this.hiddenSize);
+            for (int tile = 0; tile < 64; tile++) {
+                this.accumulatedTiles[tile] = this.boardTiles[tile];
+                if (this.boardTiles[tile] != EMPTY) {
+                    addFeature(this.boardTiles[tile], tile);
+                }
+            }
+            this.initialized = true;
+        }
+
+        /*
+         * These two loops are the whole cost of an update. They are plain array
+         * loops on purpose, HotSpot turns them into SIMD instructions on its own
+        */
+        private void addFeature(int pieceCode, int tile) {
+            short[] weights = this.network.getFeatureWeights();
+            int whiteOffset = whiteFeature(pieceCode, tile) * this.hiddenSize;
+            int blackOffset = blackFeature(pieceCode, tile) * this.hiddenSize;
+            for (int i = 0; i < this.hiddenSize; i++) {
+                this.whiteAccumulator[i] += weights[whiteOffset + i];
+            }
+            for (int i = 0; i < this.hiddenSize; i++) {
+                this.blackAccumulator[i] += weights[blackOffset + i];
+            }
+        }
+
+        private void subtractFeature(int pieceCode, int tile) {
+            short[] weights = this.network.getFeatureWeights();
+            int whiteOffset = whiteFeature(pieceCode, tile) * this.hiddenSize;
+            int blackOffset = blackFeature(pieceCode, tile) * this.hiddenSize;
+            for (int i = 0; i < this.hiddenSize; i++) {
+                this.whiteAccumulator[i] -= weights[whiteOffset + i];
+            }
+            for (int i = 0; i < this.hiddenSize; i++) {
+                this.blackAccumulator[i] -= weights[blackOffset + i];
+            }
+        }
+
+        //White sees the board as it is stored
+        private static int whiteFeature(int pieceCode, int tile) {
+            return pieceCode * 64 + tile;
+        }
+
+        //Black sees it with the colours swapped and the board mirrored top to bottom
+        private static int blackFeature(int pieceCode, int tile) {
+            int swappedCode = pieceCode < 6 ? pieceCode + 6 : pieceCode - 6;
+            return swappedCode * 64 + (tile ^ 56);
+        }
+
+        private static int clippedRelu(short value) {
+            return value < 0 ? 0 : (value > QA ? QA : value);
+        }
+}
@@ -0,0 +1,98 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Description: Quantised weights of a small efficiently updatable network (NNUE)
+ * with 768 inputs (2 colours x 6 piece types x 64 tiles), one hidden layer
+ * seen from both sides, and one output. The weights never change once loaded,
+ * so one network can be shared by every search thread
+ * for more information: https://www.chessprogramming.org/NNUE
+ *
+ * File layout (little endian):
+ *   int   magic ("JNN1")
+ *   int   hidden size H
+ *   short feature weights [768][H] (feature major, so one piece is one column)
+ *   short feature biases  [H]
+ *   short output weights  [2H] (side to move half first)
+ *   int   output bias
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class NeuralNetwork {
+
+        public static final int INPUTS = 768;
+        private static final int MAGIC = 0x314E4E4A; //"JNN1" read little endian
+
+        private final int hiddenSize;
+        private final short[] featureWeights;
+        private final short[] featureBiases;
+        private final short[] outputWeights;
+        private final int outputBias;
+
+        private NeuralNetwork(int hiddenSize, short[] featureWeights, short[] featureBiases,
+                              short[] outputWeights, int outputBias) {
+            this.hiddenSize = hiddenSize;
+            this.featureWeights = featureWeights;
+            this.featureBiases = featureBiases;
+            this.outputWeights = outputWeights;
+            this.outputBias = outputBias;
+        }
+
+        //Maps the file and copies the weights out in bulk, no parsing of individual numbers
+        public static NeuralNetwork load(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Not a network file: " + path);
+                }
+                int hiddenSize = buffer.getInt();
+                long expectedSize = 8L + 2L * ((long) INPUTS * hiddenSize + hiddenSize + 2L * hiddenSize) + 4;
+                if (hiddenSize <= 0 || channel.size() != expectedSize) {
+                    throw new IOException("Network file has the wrong size: " + path);
+                }
+
+                short[] featureWeights = new short[INPUTS * hiddenSize];
+                short[] featureBiases = new short[hiddenSize];
+                short[] outputWeights = new short[2 * hiddenSize];
+                buffer.asShortBuffer().get(featureWeights);
+                buffer.position(buffer.position() + 2 * featureWeights.length);
+                buffer.asShortBuffer().get(featureBiases);
+                buffer.position(buffer.position() + 2 * featureBiases.length);
+                buffer.asShortBuffer().get(outputWeights);
+                buffer.position(buffer.position() + 2 * outputWeights.length);
+                int outputBias = buffer.getInt();
+
+                return new NeuralNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, outputBias);
+            }
+        }
+
+        public int getHiddenSize() {
+            return this.hiddenSize;
+        }
+
+        //Feature major, the column of feature f starts at f * H
+        short[] getFeatureWeights() {
+            return this.featureWeights;
+        }
+
+        short[] getFeatureBiases() {
+            return this.featureBiases;
+        }
+
+        short[] getOutputWeights() {
+            return this.outputWeights;
+        }
+
+        int getOutputBias() {
+            return this.outputBias;
+        }
+}
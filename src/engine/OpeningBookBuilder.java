@@ -0,0 +1,436 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import pgn.AlgebraicNotation;
+import pgn.PgnGame;
+import pgn.PgnReader;
+import player.MoveTransition;
+
+/**
+ * Description: Command line tool that reads a PGN collection, replays the
+ * first plies of every game and writes a Polyglot opening book plus an explorer
+ * index with the statistics of every book move. One thread reads the file,
+ * batches of games are replayed on a fork-join pool and every worker thread
+ * counts into its own tree. When a tree gets too big it is sorted and written
+ * out as a run, and the runs are merged at the end, like PositionIndex does.
+ * Only a few batches are in flight at a time, so memory stays bounded however
+ * big the collection is, and a rare move is only dropped once all of its games
+ * have been counted
+ *
+ * Usage: java engine.OpeningBookBuilder games.pgn output [plies] [min games] [max entries]
+ * Writes output.bin (Polyglot) and output.explorer, and output.run0, .run1...
+ * while it works
+ *
+ * Explorer entry layout (32 bytes, big endian, same order as the book):
+ *   long  key
+ *   short move (Polyglot encoding)
+ *   short average rating of the players who chose the move
+ *   int   games, wins, draws, losses (for the player making the move)
+ *   int   book weight
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class OpeningBookBuilder {
+
+    private static final int BATCH_SIZE = 1024;
+    //Batches smaller than this are replayed on one thread instead of being split again
+    private static final int LEAF_SIZE = 32;
+    private static final int STREAM_BUFFER = 1 << 16;
+
+    private final PolyglotKeys keys;
+    private final int plies;
+    private final int minGames;
+    private final int maxEntriesPerThread;
+    private final Path runBase;
+    private final List<Path> runs = new ArrayList<>();
+    private IOException runFailure;
+    private long droppedEntries;
+    private final List<OpeningTree> trees = new ArrayList<>();
+    private final ThreadLocal<OpeningTree> localTree = new ThreadLocal<OpeningTree>() {
+        @Override
+        protected OpeningTree initialValue() {
+            OpeningTree tree = new OpeningTree();
+            synchronized (trees) {
+                trees.add(tree);
+            }
+            return tree;
+        }
+    };
+
+    //The runs are written next to runBase, as runBase.run0, runBase.run1...
+    public OpeningBookBuilder(PolyglotKeys keys, int plies, int minGames, int maxEntries, Path runBase) {
+        this.keys = keys;
+        this.plies = plies;
+        this.minGames = minGames;
+        this.maxEntriesPerThread = Math.max(maxEntries / Runtime.getRuntime().availableProcessors(), 1 << 16);
+        this.runBase = runBase;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.OpeningBookBuilder games.pgn output [plies] [min games] [max entries]");
+            return;
+        }
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int minGames = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int maxEntries = args.length > 4 ? Integer.parseInt(args[4]) : 1 << 24;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(PolyglotKeys.STANDARD, plies, minGames, maxEntries,
+                                                            Paths.get(args[1]));
+        long start = System.currentTimeMillis();
+        long games;
+        int written;
+        try {
+            try (PgnReader reader = new PgnReader(new InputStreamReader(Files.newInputStream(Paths.get(args[0])),
+                                                                        StandardCharsets.ISO_8859_1))) {
+                games = builder.read(reader);
+            }
+            written = builder.write(Paths.get(args[1] + ".bin"), Paths.get(args[1] + ".explorer"));
+        } finally {
+            builder.deleteRuns();
+        }
+        System.out.println(String.format("%d games, %d book entries (%d moves played in fewer than %d games left out) in %.1f s",
+                                         games, written, builder.getDroppedEntries(), minGames,
+                                         (System.currentTimeMillis() - start) / 1000.0));
+    }
+
+    //Reads and replays every game, returns how many were read
+    public long read(PgnReader reader) throws IOException, InterruptedException {
+        final ForkJoinPool pool = new ForkJoinPool();
+        //Two batches per thread keep every core busy without reading the whole file ahead
+        final Semaphore inFlight = new Semaphore(2 * pool.getParallelism());
+        long games = 0;
+        try {
+            List<PgnGame> batch = new ArrayList<>(BATCH_SIZE);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                batch.add(game);
+                games++;
+                if (batch.size() == BATCH_SIZE) {
+                    submit(pool, inFlight, batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            submit(pool, inFlight, batch);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        synchronized (this.runs) {
+            if (this.runFailure != null) {
+                throw this.runFailure;
+            }
+        }
+        return games;
+    }
+
+    private void submit(ForkJoinPool pool, final Semaphore inFlight, List<PgnGame> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        inFlight.acquire();
+        final ReplayTask task = new ReplayTask(batch, 0, batch.size());
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.invoke();
+                } finally {
+                    inFlight.release();
+                }
+            }
+        });
+    }
+
+    /*
+     * Writes what is left in every thread's tree as a run, then merges the
+     * runs into both files, one position's moves at a time. Returns the
+     * number of book entries
+    */
+    public int write(Path bookPath, Path explorerPath) throws IOException {
+        synchronized (this.trees) {
+            for (OpeningTree tree : this.trees) {
+                if (tree.size() > 0) {
+                    spill(tree);
+                }
+            }
+        }
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, this.runs.size()), new Comparator<RunReader>() {
+            @Override
+            public int compare(RunReader first, RunReader second) {
+                int byKey = Long.compareUnsigned(first.entry.key, second.entry.key);
+                return byKey != 0 ? byKey : Integer.compare(first.entry.move, second.entry.move);
+            }
+        });
+        int written = 0;
+        try (DataOutputStream book = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bookPath)));
+             DataOutputStream explorer = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(explorerPath)))) {
+            for (Path run : this.runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            //One position's moves, the same move from several runs added together
+            List<RunEntry> position = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                RunEntry entry = reader.entry;
+                RunEntry last = position.isEmpty() ? null : position.get(position.size() - 1);
+                if (last != null && last.key == entry.key && last.move == entry.move) {
+                    last.add(entry);
+                } else {
+                    if (last != null && last.key != entry.key) {
+                        written += writePosition(position, book, explorer);
+                        position.clear();
+                    }
+                    position.add(entry);
+                }
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            written += writePosition(position, book, explorer);
+        } finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+        return written;
+    }
+
+    //Moves played in fewer than the minimum games, counted over the whole collection and left out of both files
+    public long getDroppedEntries() {
+        return this.droppedEntries;
+    }
+
+    public void deleteRuns() throws IOException {
+        synchronized (this.runs) {
+            for (Path run : this.runs) {
+                Files.deleteIfExists(run);
+            }
+            this.runs.clear();
+        }
+    }
+
+    //Writes one position's moves, most played first, returns how many went in the book
+    private int writePosition(List<RunEntry> position, DataOutputStream book, DataOutputStream explorer) throws IOException {
+        List<RunEntry> kept = new ArrayList<>(position.size());
+        for (RunEntry entry : position) {
+            if (entry.games >= this.minGames) {
+                kept.add(entry);
+            } else {
+                this.droppedEntries++;
+            }
+        }
+        Collections.sort(kept, new Comparator<RunEntry>() {
+            @Override
+            public int compare(RunEntry first, RunEntry second) {
+                return Integer.compare(second.games, first.games);
+            }
+        });
+        //Weights are scaled per position to fit 16 bits
+        int maxWeight = 0;
+        for (RunEntry entry : kept) {
+            maxWeight = Math.max(maxWeight, entry.weight());
+        }
+        int written = 0;
+        for (RunEntry entry : kept) {
+            int weight = maxWeight > 0xFFFF ? (int) ((long) entry.weight() * 0xFFFF / maxWeight) : entry.weight();
+            if (weight > 0) {
+                book.writeLong(entry.key);
+                book.writeShort(entry.move);
+                book.writeShort(weight);
+                book.writeInt(0);
+                written++;
+            }
+            explorer.writeLong(entry.key);
+            explorer.writeShort(entry.move);
+            explorer.writeShort(Math.min(entry.rated == 0 ? 0 : (int) (entry.ratingSum / entry.rated), 0xFFFF));
+            explorer.writeInt(entry.games);
+            explorer.writeInt(entry.wins);
+            explorer.writeInt(entry.draws);
+            explorer.writeInt(entry.losses);
+            explorer.writeInt(weight);
+        }
+        return written;
+    }
+
+    //Sorts the tree out into a new run and empties it
+    private void spill(OpeningTree tree) throws IOException {
+        OpeningTree.Entries entries = tree.toSortedEntries();
+        Path run;
+        synchronized (this.runs) {
+            run = this.runBase.resolveSibling(this.runBase.getFileName() + ".run" + this.runs.size());
+            this.runs.add(run);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER))) {
+            for (int i = 0; i < entries.size; i++) {
+                out.writeLong(entries.keys[i]);
+                out.writeShort(entries.moves[i]);
+                out.writeInt(entries.getGames(i));
+                out.writeInt(entries.getWins(i));
+                out.writeInt(entries.getDraws(i));
+                out.writeInt(entries.getLosses(i));
+                out.writeInt(entries.getRatedGames(i));
+                out.writeLong(entries.getRatingSum(i));
+            }
+        }
+        tree.clear();
+    }
+
+    private void replay(PgnGame game) {
+        int whiteScore;
+        if (game.getResult().equals(PgnGame.WHITE_WINS)) {
+            whiteScore = 2;
+        } else if (game.getResult().equals(PgnGame.DRAW)) {
+            whiteScore = 1;
+        } else if (game.getResult().equals(PgnGame.BLACK_WINS)) {
+            whiteScore = 0;
+        } else {
+            return;
+        }
+        int whiteRating = game.getRating("WhiteElo");
+        int blackRating = game.getRating("BlackElo");
+
+        OpeningTree tree = this.localTree.get();
+        Board board = Board.createStandardBoard();
+        for (int ply = 0; ply < this.plies && ply < game.getMoves().size(); ply++) {
+            Move move = AlgebraicNotation.parseMove(board, game.getMoves().get(ply));
+            if (move == null) {
+                //Illegal or unreadable, the rest of the game cannot be trusted
+                return;
+            }
+            boolean white = board.currentPlayer().getAlliance().isWhite();
+            tree.add(this.keys.getKey(board), PolyglotBook.encodeMove(move),
+                     white ? whiteScore : 2 - whiteScore, white ? whiteRating : blackRating);
+            MoveTransition transition = board.currentPlayer().makeMove(move);
+            board = transition.getTransitionBoard();
+        }
+        if (tree.size() > this.maxEntriesPerThread) {
+            try {
+                spill(tree);
+            } catch (IOException e) {
+                synchronized (this.runs) {
+                    this.runFailure = e;
+                }
+            }
+        }
+    }
+
+    //Splits a batch in halves until the pieces are small enough to replay directly
+    private class ReplayTask extends RecursiveAction {
+
+        private final List<PgnGame> games;
+        private final int start;
+        private final int end;
+
+        ReplayTask(List<PgnGame> games, int start, int end) {
+            this.games = games;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= LEAF_SIZE) {
+                for (int i = this.start; i < this.end; i++) {
+                    replay(this.games.get(i));
+                }
+                return;
+            }
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new ReplayTask(this.games, this.start, middle), new ReplayTask(this.games, middle, this.end));
+        }
+    }
+
+    //One move's statistics in a run
+    private static class RunEntry {
+
+        long key;
+        int move;
+        int games;
+        int wins;
+        int draws;
+        int losses;
+        int rated;
+        long ratingSum;
+
+        void add(RunEntry other) {
+            this.games += other.games;
+            this.wins += other.wins;
+            this.draws += other.draws;
+            this.losses += other.losses;
+            this.rated += other.rated;
+            this.ratingSum += other.ratingSum;
+        }
+
+        //The usual book weight, a win counts twice as much as a draw
+        int weight() {
+            return 2 * this.wins + this.draws;
+        }
+    }
+
+    //Reads a run back one entry at a time
+    private static class RunReader implements Closeable {
+
+        private final DataInputStream in;
+        private RunEntry entry;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER));
+        }
+
+        //A new entry every time, the one before may still be held by the merge
+        boolean next() throws IOException {
+            RunEntry entry = new RunEntry();
+            try {
+                entry.key = this.in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            entry.move = this.in.readUnsignedShort();
+            entry.games = this.in.readInt();
+            entry.wins = this.in.readInt();
+            entry.draws = this.in.readInt();
+            entry.losses = this.in.readInt();
+            entry.rated = this.in.readInt();
+            entry.ratingSum = this.in.readLong();
+            this.entry = entry;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.in.close();
+        }
+    }
+}
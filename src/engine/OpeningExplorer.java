@@ -0,0 +1,120 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: Looks up the statistics written by OpeningBookBuilder (see
+ * there for the layout). Like the book, the index is mapped and searched in
+ * place. Indexes bigger than 2GB are not supported
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class OpeningExplorer {
+
+        private static final int ENTRY_SIZE = 32;
+
+        private final PolyglotKeys keys;
+        private final MappedByteBuffer buffer;
+        private final int entries;
+
+        private OpeningExplorer(PolyglotKeys keys, MappedByteBuffer buffer, int entries) {
+            this.keys = keys;
+            this.buffer = buffer;
+            this.entries = entries;
+        }
+
+        public static OpeningExplorer open(Path path, PolyglotKeys keys) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() % ENTRY_SIZE != 0 || channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Not an explorer index: " + path);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new OpeningExplorer(keys, buffer, (int) (channel.size() / ENTRY_SIZE));
+            }
+        }
+
+        //The moves played in the position, most played first
+        public List<MoveStatistics> getMoves(Board board) {
+            long key = this.keys.getKey(board);
+            int low = 0;
+            int high = this.entries;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (Long.compareUnsigned(this.buffer.getLong(middle * ENTRY_SIZE), key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            List<MoveStatistics> moves = new ArrayList<>();
+            for (int i = low; i < this.entries && this.buffer.getLong(i * ENTRY_SIZE) == key; i++) {
+                int offset = i * ENTRY_SIZE;
+                Move move = PolyglotBook.toMove(board, this.buffer.getShort(offset + 8) & 0xFFFF);
+                if (move != null) {
+                    moves.add(new MoveStatistics(move, this.buffer.getShort(offset + 10) & 0xFFFF,
+                                                 this.buffer.getInt(offset + 12), this.buffer.getInt(offset + 16),
+                                                 this.buffer.getInt(offset + 20), this.buffer.getInt(offset + 24)));
+                }
+            }
+            return moves;
+        }
+
+        public static class MoveStatistics {
+
+            private final Move move;
+            private final int averageRating;
+            private final int games;
+            private final int wins;
+            private final int draws;
+            private final int losses;
+
+            MoveStatistics(Move move, int averageRating, int games, int wins, int draws, int losses) {
+                this.move = move;
+                this.averageRating = averageRating;
+                this.games = games;
+                this.wins = wins;
+                this.draws = draws;
+                this.losses = losses;
+            }
+
+            public Move getMove() {
+                return this.move;
+            }
+
+            //0 if none of the games had ratings
+            public int getAverageRating() {
+                return this.averageRating;
+            }
+
+            public int getGames() {
+                return this.games;
+            }
+
+            public int getWins() {
+                return this.wins;
+            }
+
+            public int getDraws() {
+                return this.draws;
+            }
+
+            public int getLosses() {
+                return this.losses;
+            }
+
+            @Override
+            public String toString() {
+                return String.format("%s games %d +%d =%d -%d rating %d",
+                                     this.move, this.games, this.wins, this.draws, this.losses, this.averageRating);
+            }
+        }
+}
@@ -0,0 +1,211 @@
+package engine;
+
+/**
+ * Description: Move statistics per position, kept in flat arrays (open
+ * addressing on position key and move) so millions of entries do not turn into
+ * millions of objects. Results are from the side of the player making the move.
+ * Each builder thread fills its own tree, and writes it out sorted as a run
+ * and starts again whenever it gets too big
+ *
+ * Date: Oct. 19, 2026
+ */
+
+class OpeningTree {
+
+        private long[] keys;
+        private int[] moves;
+        //games, wins, draws, losses, rated games per entry
+        private int[] counts;
+        private long[] ratingSums;
+        private boolean[] used;
+        private int size;
+        private int mask;
+
+        private static final int COUNTS = 5;
+
+        OpeningTree() {
+            allocate(1 << 12);
+        }
+
+        private void allocate(int capacity) {
+            this.keys = new long[capacity];
+            this.moves = new int[capacity];
+            this.counts = new int[COUNTS * capacity];
+            this.ratingSums = new long[capacity];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+            this.size = 0;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        //score is 2 for a win, 1 for a draw and 0 for a loss, rating 0 means unrated
+        void add(long key, int move, int score, int rating) {
+            int slot = findSlot(key, move);
+            int base = COUNTS * slot;
+            this.counts[base]++;
+            this.counts[base + 1 + (2 - score)]++;
+            if (rating > 0) {
+                this.counts[base + 4]++;
+                this.ratingSums[slot] += rating;
+            }
+        }
+
+        //Empties the tree back to its first size, once its entries have been written out
+        void clear() {
+            allocate(1 << 12);
+        }
+
+        /*
+         * Copies the entries out into dense arrays sorted the way the runs are
+         * merged: by key as an unsigned number (the book file's order), then
+         * by move
+        */
+        Entries toSortedEntries() {
+            Entries entries = new Entries(this.size);
+            int n = 0;
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.used[i]) {
+                    entries.keys[n] = this.keys[i];
+                    entries.moves[n] = this.moves[i];
+                    System.arraycopy(this.counts, COUNTS * i, entries.counts, COUNTS * n, COUNTS);
+                    entries.ratingSums[n] = this.ratingSums[i];
+                    n++;
+                }
+            }
+            entries.sort();
+            return entries;
+        }
+
+        private int findSlot(long key, int move) {
+            int slot = hash(key, move) & this.mask;
+            while (this.used[slot]) {
+                if (this.keys[slot] == key && this.moves[slot] == move) {
+                    return slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            //Kept at most half full so probing stays short
+            if (2 * (this.size + 1) > this.keys.length) {
+                grow();
+                return findSlot(key, move);
+            }
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.moves[slot] = move;
+            this.size++;
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = this.keys;
+            int[] oldMoves = this.moves;
+            int[] oldCounts = this.counts;
+            long[] oldRatingSums = this.ratingSums;
+            boolean[] oldUsed = this.used;
+            allocate(2 * oldKeys.length);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = findSlot(oldKeys[i], oldMoves[i]);
+                    System.arraycopy(oldCounts, COUNTS * i, this.counts, COUNTS * slot, COUNTS);
+                    this.ratingSums[slot] = oldRatingSums[i];
+                }
+            }
+        }
+
+        private static int hash(long key, int move) {
+            long h = (key ^ move * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+            return (int) (h ^ (h >>> 31));
+        }
+
+        //The dense copy used to write the book, in file order
+        static class Entries {
+
+            final long[] keys;
+            final int[] moves;
+            final int[] counts;
+            final long[] ratingSums;
+            final int size;
+
+            Entries(int size) {
+                this.size = size;
+                this.keys = new long[size];
+                this.moves = new int[size];
+                this.counts = new int[COUNTS * size];
+                this.ratingSums = new long[size];
+            }
+
+            int getGames(int i) {
+                return this.counts[COUNTS * i];
+            }
+
+            int getWins(int i) {
+                return this.counts[COUNTS * i + 1];
+            }
+
+            int getDraws(int i) {
+                return this.counts[COUNTS * i + 2];
+            }
+
+            int getLosses(int i) {
+                return this.counts[COUNTS * i + 3];
+            }
+
+            int getRatedGames(int i) {
+                return this.counts[COUNTS * i + 4];
+            }
+
+            long getRatingSum(int i) {
+                return this.ratingSums[i];
+            }
+
+            private int compare(int a, int b) {
+                int byKey = Long.compareUnsigned(this.keys[a], this.keys[b]);
+                return byKey != 0 ? byKey : Integer.compare(this.moves[a], this.moves[b]);
+            }
+
+            private void swap(int a, int b) {
+                long key = this.keys[a];
+                this.keys[a] = this.keys[b];
+                this.keys[b] = key;
+                int move = this.moves[a];
+                this.moves[a] = this.moves[b];
+                this.moves[b] = move;
+                for (int j = 0; j < COUNTS; j++) {
+                    int count = this.counts[COUNTS * a + j];
+                    this.counts[COUNTS * a + j] = this.counts[COUNTS * b + j];
+                    this.counts[COUNTS * b + j] = count;
+                }
+                long ratingSum = this.ratingSums[a];
+                this.ratingSums[a] = this.ratingSums[b];
+                this.ratingSums[b] = ratingSum;
+            }
+
+            //Heap sort, in place on the parallel arrays so there is no boxing of millions of indexes
+            void sort() {
+                for (int i = this.size / 2 - 1; i >= 0; i--) {
+                    siftDown(i, this.size);
+                }
+                for (int end = this.size - 1; end > 0; end--) {
+                    swap(0, end);
+                    siftDown(0, end);
+                }
+            }
+
+            private void siftDown(int root, int end) {
+                while (2 * root + 1 < end) {
+                    int child = 2 * root + 1;
+                    if (child + 1 < end && compare(child + 1, child) > 0) {
+                        child++;
+                    }
+                    if (compare(root, child) >= 0) {
+                        return;
+                    }
+                    swap(root, child);
+                    root = child;
+                }
+            }
+        }
+}
@@ -0,0 +1,63 @@
+package engine;
+
+/**
+ * Description: Small fixed size cache of pawn structure scores, indexed by the
+ * board's pawn key. Pawns rarely move compared to the other pieces, so most
+ * lookups during a search are hits, and more as the table fills over a game.
+ * Not thread safe, every search thread should own its own table
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PawnHashTable {
+
+        private final long[] keys;
+        private final int[] scores;
+        private final int mask;
+        private long hits;
+        private long misses;
+
+        //The size is rounded down to a power of two so the index is just a mask
+        public PawnHashTable(int entries) {
+            int size = Integer.highestOneBit(Math.max(entries, 1));
+            this.keys = new long[size];
+            this.scores = new int[size];
+            this.mask = size - 1;
+        }
+
+        /*
+         * Returns true and leaves the score in result[0] if the key is cached.
+         * A key of 0 is the position without pawns, which an empty slot
+         * already answers correctly with a score of 0
+        */
+        public boolean probe(long pawnKey, int[] result) {
+            int index = (int) pawnKey & this.mask;
+            if (this.keys[index] == pawnKey) {
+                this.hits++;
+                result[0] = this.scores[index];
+                return true;
+            }
+            this.misses++;
+            return false;
+        }
+
+        //Always replaces, the newest structure is the one most likely to be seen again
+        public void store(long pawnKey, int score) {
+            int index = (int) pawnKey & this.mask;
+            this.keys[index] = pawnKey;
+            this.scores[index] = score;
+        }
+
+        public long getHits() {
+            return this.hits;
+        }
+
+        public long getMisses() {
+            return this.misses;
+        }
+
+        public double getHitRate() {
+            long probes = this.hits + this.misses;
+            return probes == 0 ? 0 : (double) this.hits / probes;
+        }
+}
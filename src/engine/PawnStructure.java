@@ -0,0 +1,122 @@
+package engine;
+
+import board.Board;
+import pieces.Alliance;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: Pawn structure terms of the evaluation, scored from white's side.
+ * Doubled, isolated and passed pawns only depend on where the pawns are, so
+ * they can be cached by pawn key. The pawn shield also depends on the king,
+ * so it is scored on its own every time (it only looks at a handful of tiles)
+ * for more information: https://www.chessprogramming.org/Pawn_Structure
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public final class PawnStructure {
+
+        private static final int DOUBLED_PENALTY = 15;
+        private static final int ISOLATED_PENALTY = 15;
+        //Indexed by how many rows the pawn has walked from its starting row
+        private static final int[] PASSED_BONUS = {0, 10, 15, 25, 40, 60, 90};
+        private static final int SHIELD_NEAR_BONUS = 10;
+        private static final int SHIELD_FAR_BONUS = 5;
+
+        private PawnStructure() {
+            throw new RuntimeException("Probably should not get here");
+        }
+
+        //Doubled, isolated and passed pawns, white minus black
+        public static int evaluate(Board board) {
+
+            //[row][column], true if a pawn stands there
+            boolean[][] whitePawns = new boolean[8][8];
+            boolean[][] blackPawns = new boolean[8][8];
+            int[] whiteFiles = new int[8];
+            int[] blackFiles = new int[8];
+            fillPawns(board.getWhitePieces(), whitePawns, whiteFiles);
+            fillPawns(board.getBlackPieces(), blackPawns, blackFiles);
+
+            return scoreSide(whitePawns, whiteFiles, blackPawns, Alliance.WHITE) -
+                   scoreSide(blackPawns, blackFiles, whitePawns, Alliance.BLACK);
+        }
+
+        //Own pawns right in front of the king, white minus black
+        public static int shield(Board board) {
+            return shieldSide(board, board.whitePlayer().getPlayerKing()) -
+                   shieldSide(board, board.blackPlayer().getPlayerKing());
+        }
+
+        private static void fillPawns(Iterable<Piece> pieces, boolean[][] pawns, int[] files) {
+            for (Piece piece : pieces) {
+                if (piece.getPieceType() == PieceType.PAWN) {
+                    int position = piece.getPiecePosition();
+                    pawns[position / 8][position % 8] = true;
+                    files[position % 8]++;
+                }
+            }
+        }
+
+        private static int scoreSide(boolean[][] pawns, int[] files, boolean[][] enemyPawns, Alliance alliance) {
+
+            int score = 0;
+            for (int column = 0; column < 8; column++) {
+                if (files[column] > 1) {
+                    score -= DOUBLED_PENALTY * (files[column] - 1);
+                }
+                boolean hasNeighbour = (column > 0 && files[column - 1] > 0) || (column < 7 && files[column + 1] > 0);
+                if (files[column] > 0 && !hasNeighbour) {
+                    score -= ISOLATED_PENALTY * files[column];
+                }
+            }
+
+            for (int row = 0; row < 8; row++) {
+                for (int column = 0; column < 8; column++) {
+                    if (pawns[row][column] && isPassed(row, column, enemyPawns, alliance)) {
+                        //White starts on row 6 and walks towards row 0, black starts on row 1
+                        int advance = alliance.isWhite() ? 6 - row : row - 1;
+                        score += PASSED_BONUS[Math.max(0, Math.min(advance, PASSED_BONUS.length - 1))];
+                    }
+                }
+            }
+            return score;
+        }
+
+        //No enemy pawn ahead of it on its own file or the two next to it
+        private static boolean isPassed(int row, int column, boolean[][] enemyPawns, Alliance alliance) {
+            int direction = alliance.getDirection();
+            for (int aheadRow = row + direction; aheadRow >= 0 && aheadRow < 8; aheadRow += direction) {
+                for (int aheadColumn = Math.max(0, column - 1); aheadColumn <= Math.min(7, column + 1); aheadColumn++) {
+                    if (enemyPawns[aheadRow][aheadColumn]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static int shieldSide(Board board, Piece king) {
+            int row = king.getPiecePosition() / 8;
+            int column = king.getPiecePosition() % 8;
+            int direction = king.getPieceAlliance().getDirection();
+            int score = 0;
+            for (int shieldColumn = Math.max(0, column - 1); shieldColumn <= Math.min(7, column + 1); shieldColumn++) {
+                if (isOwnPawn(board, row + direction, shieldColumn, king.getPieceAlliance())) {
+                    score += SHIELD_NEAR_BONUS;
+                } else if (isOwnPawn(board, row + 2 * direction, shieldColumn, king.getPieceAlliance())) {
+                    score += SHIELD_FAR_BONUS;
+                }
+            }
+            return score;
+        }
+
+        private static boolean isOwnPawn(Board board, int row, int column, Alliance alliance) {
+            if (row < 0 || row > 7) {
+                return false;
+            }
+            Piece piece = board.getTile(row * 8 + column).getPiece();
+            return piece != null && piece.getPieceType() == PieceType.PAWN && piece.getPieceAlliance() == alliance;
+        }
+}
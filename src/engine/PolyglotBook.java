@@ -0,0 +1,200 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Description: Opening book in the Polyglot .bin format. The file is mapped into
+ * memory and never read into objects, a lookup is a binary search over the
+ * sorted entries straight in the mapped file, so even huge books open at once
+ * and cost no heap
+ * for more information: http://hgm.nubati.net/book_format.html
+ *
+ * Entry layout (16 bytes, big endian, sorted by key):
+ *   long  key
+ *   short move (to file 0-2, to rank 3-5, from file 6-8, from rank 9-11, promotion 12-14)
+ *   short weight
+ *   int   learn (ignored)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PolyglotBook {
+
+        private static final int ENTRY_SIZE = 16;
+        //A single mapping is limited to 2GB, bigger books are mapped in pieces of 2^26 entries (1GB)
+        private static final int SEGMENT_SHIFT = 26;
+        private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+        private final PolyglotKeys keys;
+        private final MappedByteBuffer[] segments;
+        private final long entries;
+        private final Random random;
+
+        private PolyglotBook(PolyglotKeys keys, MappedByteBuffer[] segments, long entries) {
+            this.keys = keys;
+            this.segments = segments;
+            this.entries = entries;
+            this.random = new Random();
+        }
+
+        public static PolyglotBook open(Path path, PolyglotKeys keys) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() % ENTRY_SIZE != 0) {
+                    throw new IOException("Not a Polyglot book: " + path);
+                }
+                long entries = channel.size() / ENTRY_SIZE;
+                int segmentCount = (int) ((entries + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+                MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+                for (int i = 0; i < segmentCount; i++) {
+                    long first = (long) i << SEGMENT_SHIFT;
+                    long count = Math.min(entries - first, 1L << SEGMENT_SHIFT);
+                    //Big endian is the buffer default and what the format uses
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * ENTRY_SIZE, count * ENTRY_SIZE);
+                }
+                //The mappings stay valid after the channel is closed
+                return new PolyglotBook(keys, segments, entries);
+            }
+        }
+
+        public long size() {
+            return this.entries;
+        }
+
+        //All book moves for the position with their weights, highest weight first (empty if out of book)
+        public List<BookMove> getMoves(Board board) {
+            long key = this.keys.getKey(board);
+            List<BookMove> moves = new ArrayList<>();
+            for (long i = firstEntry(key); i < this.entries && keyAt(i) == key; i++) {
+                Move move = toMove(board, moveAt(i));
+                int weight = weightAt(i);
+                if (move != null && weight > 0) {
+                    moves.add(new BookMove(move, weight));
+                }
+            }
+            Collections.sort(moves);
+            return moves;
+        }
+
+        //Picks a book move at random, in proportion to the weights, null if out of book
+        public Move getBookMove(Board board) {
+            List<BookMove> moves = getMoves(board);
+            int totalWeight = 0;
+            for (BookMove move : moves) {
+                totalWeight += move.getWeight();
+            }
+            if (totalWeight == 0) {
+                return null;
+            }
+            int pick = this.random.nextInt(totalWeight);
+            for (BookMove move : moves) {
+                pick -= move.getWeight();
+                if (pick < 0) {
+                    return move.getMove();
+                }
+            }
+            return null;
+        }
+
+        //The first entry with a key at least this one (keys are sorted as unsigned numbers)
+        private long firstEntry(long key) {
+            long low = 0;
+            long high = this.entries;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private long keyAt(long entry) {
+            return this.segments[(int) (entry >>> SEGMENT_SHIFT)].getLong(offset(entry));
+        }
+
+        private int moveAt(long entry) {
+            return this.segments[(int) (entry >>> SEGMENT_SHIFT)].getShort(offset(entry) + 8) & 0xFFFF;
+        }
+
+        private int weightAt(long entry) {
+            return this.segments[(int) (entry >>> SEGMENT_SHIFT)].getShort(offset(entry) + 10) & 0xFFFF;
+        }
+
+        private static int offset(long entry) {
+            return (int) (entry & SEGMENT_MASK) * ENTRY_SIZE;
+        }
+
+        /*
+         * Finds the legal move for a book move. Polyglot writes castling as the
+         * king taking its own rook (e1h1), here the king moves two tiles (e1g1).
+         * Promotions here are always to a queen, so underpromotions are skipped
+        */
+        static Move toMove(Board board, int bookMove) {
+            int promotion = (bookMove >>> 12) & 0x7;
+            if (promotion != 0 && promotion != 4) {
+                return null;
+            }
+            int current = PolyglotKeys.fromPolyglotSquare((bookMove >>> 6) & 0x3F);
+            int destination = PolyglotKeys.fromPolyglotSquare(bookMove & 0x3F);
+            if (board.getTile(current).isTileOccupied() && board.getTile(current).getPiece().getPieceType().isKing()) {
+                if ((current == 60 && destination == 63) || (current == 4 && destination == 7)) {
+                    destination = current + 2;
+                } else if ((current == 60 && destination == 56) || (current == 4 && destination == 0)) {
+                    destination = current - 2;
+                }
+            }
+            return TranspositionTable.findMove(board, (current << 6 | destination) + 1);
+        }
+
+        //The other way round, the move as it is written in a book file
+        static int encodeMove(Move move) {
+            int current = move.getCurrentCoordinate();
+            int destination = move.getDestinationCoordinate();
+            if (move.isCastlingMove()) {
+                destination = destination > current ? current + 3 : current - 4;
+            }
+            int bookMove = PolyglotKeys.toPolyglotSquare(current) << 6 | PolyglotKeys.toPolyglotSquare(destination);
+            return move instanceof Move.PawnPromotion ? bookMove | 4 << 12 : bookMove;
+        }
+
+        public static class BookMove implements Comparable<BookMove> {
+
+            private final Move move;
+            private final int weight;
+
+            BookMove(Move move, int weight) {
+                this.move = move;
+                this.weight = weight;
+            }
+
+            public Move getMove() {
+                return this.move;
+            }
+
+            public int getWeight() {
+                return this.weight;
+            }
+
+            @Override
+            public int compareTo(BookMove other) {
+                return Integer.compare(other.weight, this.weight);
+            }
+
+            @Override
+            public String toString() {
+                return this.move + " " + this.weight;
+            }
+        }
+}
@@ -0,0 +1,175 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Description: Thinks on the opponent's time. After the engine moves it starts
+ * searching the position after the reply it expects. If the opponent plays
+ * that reply (a ponder hit) the search is already running on the right
+ * position and just carries on, otherwise (a miss) it is stopped and thrown away
+ * for more information: https://www.chessprogramming.org/Pondering
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class Ponderer {
+
+        private final ExecutorService executor;
+        private final Object lock = new Object();
+        //Used by the Swing thread and the worker thread that asks for the engine's move, always under the lock
+        private AlphaBeta search;
+        private Future<Move> result;
+        private long ponderKey;
+        private int completedDepth;
+        //Set once the search's thread is done with it, however it ended
+        private boolean finished;
+
+        public Ponderer() {
+            this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "Ponder");
+                    //Must not keep the program running once the window is closed
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        /*
+         * Starts pondering the expected reply from the search that just picked
+         * the engine's move (the second move of its best line). Does nothing if
+         * that line is too short. The ponder search should share the table of
+         * the finished search, so everything it already knows carries over
+        */
+        public void start(AlphaBeta finishedSearch, Board boardAfterMove, final AlphaBeta ponderSearch) {
+
+            miss();
+            List<PrincipalVariation> lines = finishedSearch.getPrincipalVariations();
+            if (lines.isEmpty() || lines.get(0).getMoves().size() < 2) {
+                return;
+            }
+            Move expectedReply = TranspositionTable.findMove(boardAfterMove,
+                                                             TranspositionTable.encodeMove(lines.get(0).getMoves().get(1)));
+            if (expectedReply == null || !boardAfterMove.currentPlayer().makeMove(expectedReply).getMoveStatus().isDone()) {
+                return;
+            }
+            final Board ponderBoard = boardAfterMove.currentPlayer().makeMove(expectedReply).getTransitionBoard();
+
+            ponderSearch.addSearchListener(new SearchListener() {
+                @Override
+                public void depthCompleted(int depth, List<PrincipalVariation> lines, SearchStatistics statistics) {
+                    synchronized (lock) {
+                        //A search that has been replaced since has nothing to say about the new one
+                        if (search == ponderSearch) {
+                            completedDepth = depth;
+                            lock.notifyAll();
+                        }
+                    }
+                }
+            });
+            synchronized (this.lock) {
+                //Another start may have slipped in after the miss above
+                Future<Move> running = this.result;
+                if (running != null) {
+                    this.search.stop();
+                }
+                this.search = ponderSearch;
+                this.ponderKey = ponderBoard.getHashKey();
+                this.completedDepth = 0;
+                this.finished = false;
+                //The single thread runs this only after any search stopped above has finished
+                this.result = this.executor.submit(new Callable<Move>() {
+                    @Override
+                    public Move call() {
+                        try {
+                            return ponderSearch.execute(ponderBoard);
+                        } finally {
+                            //A search that ends without finishing a depth (a table move, a stop, an error) wakes hit too
+                            synchronized (lock) {
+                                if (search == ponderSearch) {
+                                    finished = true;
+                                    lock.notifyAll();
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        //True if the opponent played the reply being pondered
+        public boolean isPonderHit(Board board) {
+            synchronized (this.lock) {
+                return this.result != null && board.getHashKey() == this.ponderKey;
+            }
+        }
+
+        //The search that is (or was) pondering, its lines are the engine's lines after a hit
+        public AlphaBeta getSearch() {
+            synchronized (this.lock) {
+                return this.search;
+            }
+        }
+
+        /*
+         * Lets the ponder search carry on until it has finished the given depth
+         * (it may already be past it), then stops it and returns its move. Returns
+         * null if a miss took the search away in the meantime. The search is
+         * waited for outside the lock, its listener needs the lock to finish
+        */
+        public Move hit(int depth) throws InterruptedException, ExecutionException {
+            Future<Move> running;
+            AlphaBeta ponderSearch;
+            synchronized (this.lock) {
+                while (this.result != null && this.completedDepth < depth && !this.finished) {
+                    this.lock.wait();
+                }
+                running = this.result;
+                ponderSearch = this.search;
+                this.result = null;
+            }
+            if (running == null) {
+                return null;
+            }
+            ponderSearch.stop();
+            return running.get();
+        }
+
+        //Stops any ponder search and waits for its thread to be free again
+        public void miss() {
+            Future<Move> running;
+            AlphaBeta ponderSearch;
+            synchronized (this.lock) {
+                running = this.result;
+                ponderSearch = this.search;
+                this.result = null;
+                //Wakes a hit waiting on this search, it sees the search is gone
+                this.lock.notifyAll();
+            }
+            if (running == null) {
+                return;
+            }
+            ponderSearch.stop();
+            try {
+                running.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                //A search that failed has nothing worth keeping anyway
+            }
+        }
+
+        public void shutdown() {
+            miss();
+            this.executor.shutdownNow();
+        }
+}
@@ -0,0 +1,51 @@
+package engine;
+
+import board.Move;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Description: One line found by the search, the moves both sides are expected
+ * to play and the score of the first move for the player to move
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PrincipalVariation {
+
+        private final int depth;
+        private final int score;
+        private final List<Move> moves;
+
+        public PrincipalVariation(int depth, int score, List<Move> moves) {
+            this.depth = depth;
+            this.score = score;
+            this.moves = Collections.unmodifiableList(moves);
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public int getScore() {
+            return this.score;
+        }
+
+        public List<Move> getMoves() {
+            return this.moves;
+        }
+
+        public Move getFirstMove() {
+            return this.moves.get(0);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("depth %d score %d pv", this.depth, this.score));
+            for (Move move : this.moves) {
+                builder.append(' ').append(move);
+            }
+            return builder.toString();
+        }
+}
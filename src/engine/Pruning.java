@@ -0,0 +1,38 @@
+package engine;
+
+/**
+ * Description: The selective search techniques that can be switched on and off
+ * in the alpha-beta search, mostly for measuring what each of them is worth
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public enum Pruning {
+
+    //Lets the opponent move twice, if they still cannot reach beta the node is cut
+    //https://www.chessprogramming.org/Null_Move_Pruning
+    NULL_MOVE("Null move"),
+    //Late quiet moves are searched one ply shallower and only re-searched if they look good
+    //https://www.chessprogramming.org/Late_Move_Reductions
+    LATE_MOVE_REDUCTION("Late move reduction"),
+    //Quiet moves one ply from the leaves are skipped when the score is hopelessly below alpha
+    //https://www.chessprogramming.org/Futility_Pruning
+    FUTILITY("Futility"),
+    //The node is cut when the static score is far enough above beta
+    //https://www.chessprogramming.org/Reverse_Futility_Pruning
+    REVERSE_FUTILITY("Reverse futility"),
+    //Nodes far below alpha near the leaves drop straight into quiescence
+    //https://www.chessprogramming.org/Razoring
+    RAZORING("Razoring");
+
+    private final String techniqueName;
+
+    Pruning(final String techniqueName) {
+        this.techniqueName = techniqueName;
+    }
+
+    @Override
+    public String toString() {
+        return this.techniqueName;
+    }
+}
@@ -0,0 +1,82 @@
+package engine;
+
+import board.Board;
+import board.BoardUtils;
+import board.Move;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: Command line tool that searches a few positions with every
+ * pruning technique on, then with each one switched off, and prints the node
+ * counts, the nodes each technique saved, the effective branching factor
+ * and how often the evaluation found its pawn structure in the pawn hash table
+ *
+ * Usage: java engine.PruningBenchmark [depth]
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PruningBenchmark {
+
+    //An Italian game, played out one move at a time to give a few different positions
+    private static final String[] OPENING = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "d2d3", "f8c5"};
+
+    public static void main(String[] args) {
+
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        List<Board> positions = createPositions();
+
+        long[] allOn = run(positions, depth, null);
+        print("All techniques on", allOn, allOn);
+        for (Pruning technique : Pruning.values()) {
+            print(technique + " off", run(positions, depth, technique), allOn);
+        }
+    }
+
+    /*
+     * Returns the total node count at depth - 1 and at depth, then the pawn
+     * hash table's hits and misses over both, with one technique switched
+     * off (null for none)
+    */
+    private static long[] run(List<Board> positions, int depth, Pruning disabled) {
+        long[] nodes = new long[4];
+        for (Board board : positions) {
+            for (int i = 0; i < 2; i++) {
+                StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+                AlphaBeta search = new AlphaBeta(evaluator, depth - 1 + i);
+                if (disabled != null) {
+                    search.setPruning(disabled, false);
+                }
+                search.execute(board);
+                nodes[i] += search.getStatistics().getNodes();
+                nodes[2] += evaluator.getPawnHashTable().getHits();
+                nodes[3] += evaluator.getPawnHashTable().getMisses();
+            }
+        }
+        return nodes;
+    }
+
+    private static void print(String label, long[] nodes, long[] allOn) {
+        //The ratio between two iterations is the usual way to measure the branching factor
+        double branchingFactor = nodes[0] == 0 ? 0 : (double) nodes[1] / nodes[0];
+        long pawnProbes = nodes[2] + nodes[3];
+        double pawnHitRate = pawnProbes == 0 ? 0 : 100.0 * nodes[2] / pawnProbes;
+        System.out.println(String.format("%-30s nodes %10d  saved by technique %10d  EBF %.2f  pawn hash hits %.1f%%",
+                                         label, nodes[1], nodes[1] - allOn[1], branchingFactor, pawnHitRate));
+    }
+
+    private static List<Board> createPositions() {
+        List<Board> positions = new ArrayList<>();
+        Board board = Board.createStandardBoard();
+        positions.add(board);
+        for (String move : OPENING) {
+            Move nextMove = Move.MoveFactory.createMove(board,
+                                                        BoardUtils.getCoordinateAtPosition(move.substring(0, 2)),
+                                                        BoardUtils.getCoordinateAtPosition(move.substring(2, 4)));
+            board = board.currentPlayer().makeMove(nextMove).getTransitionBoard();
+            positions.add(board);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,242 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import board.Move.MoveFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import pgn.AlgebraicNotation;
+import pgn.GameDatabase;
+import pgn.GameVisitor;
+import pgn.StoredGame;
+import pieces.Piece;
+import player.MoveTransition;
+
+/**
+ * Description: Finds tactics puzzles in a GameDatabase: positions where one
+ * move wins and every other move does not. Most positions are thrown out by
+ * cheap checks before any search: the opening, positions the side to move is
+ * already winning, and positions with nothing sharp about them (no material
+ * changing hands in the game over the next few plies, and no capture that
+ * gives check or wins material by SEE). The rest get a two line multi-PV
+ * search, and are puzzles if the best move wins by a clear margin and the
+ * second best is far behind. The solution is then followed down the
+ * search's line, the defender's best reply each time, for as long as the
+ * winning side's move stays the only one that wins
+ * for more information: https://www.chessprogramming.org/Extended_Position_Description
+ *
+ * Usage: java engine.PuzzleMiner database puzzles.epd [config default depth=5] [threads]
+ * Each puzzle is an EPD line: the position, bm (the first move), pv (the whole
+ * solution in SAN) and id (the game and ply it came from), so the file can
+ * also be run by EpdRunner
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PuzzleMiner {
+
+    private static final int OPENING_PLIES = 10;
+    private static final int SWING_PLIES = 4;
+    private static final int SWING = 200;
+    //The side to move must not be winning already, nor the best move be winning by less
+    private static final int WINNING_SCORE = 200;
+    //How far behind the best move the second best must be
+    private static final int SCORE_GAP = 200;
+    //Mates and big wins are all the same to the gap, like in GameAnnotator
+    private static final int SCORE_CAP = 1000;
+    private static final int MAX_SOLUTION_MOVES = 4;
+
+    private final EngineConfiguration configuration;
+    private final Writer out;
+    private final AtomicLong positions = new AtomicLong();
+    private final AtomicLong searched = new AtomicLong();
+    private final AtomicLong puzzles = new AtomicLong();
+    private final ThreadLocal<AlphaBeta> search = new ThreadLocal<AlphaBeta>() {
+        @Override
+        protected AlphaBeta initialValue() {
+            return configuration.createSearch().setMultiPv(2);
+        }
+    };
+
+    public PuzzleMiner(EngineConfiguration configuration, Writer out) {
+        this.configuration = configuration;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.PuzzleMiner database puzzles.epd [config] [threads]");
+            return;
+        }
+        EngineConfiguration configuration = EngineConfiguration.parse(args.length > 2 ? args[2] : "depth=5");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.currentTimeMillis();
+        try (GameDatabase database = GameDatabase.open(Paths.get(args[0]));
+             BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            PuzzleMiner miner = new PuzzleMiner(configuration, out);
+            miner.mine(database, threads);
+            System.out.println(String.format("%d games, %d positions, %d searched, %d puzzles in %.1f s",
+                                             database.size(), miner.positions.get(), miner.searched.get(),
+                                             miner.puzzles.get(), (System.currentTimeMillis() - start) / 1000.0));
+        }
+    }
+
+    public void mine(GameDatabase database, int threads) throws IOException, InterruptedException {
+        database.scan(threads, new GameVisitor() {
+            @Override
+            public void visit(StoredGame game) {
+                try {
+                    mine(game);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    private void mine(StoredGame game) throws IOException {
+        List<Move> moves = game.replay();
+        if (moves.size() <= OPENING_PLIES) {
+            return;
+        }
+        int[] material = new int[moves.size()];
+        for (int ply = 0; ply < moves.size(); ply++) {
+            material[ply] = material(moves.get(ply).getBoard());
+        }
+        this.positions.addAndGet(moves.size() - OPENING_PLIES);
+        //A chance that neither side takes is there again two plies later, it is only written the first time
+        Move[] lastSolution = new Move[2];
+        for (int ply = OPENING_PLIES; ply < moves.size(); ply++) {
+            Board board = moves.get(ply).getBoard();
+            int sign = board.currentPlayer().getAlliance().isWhite() ? 1 : -1;
+            if (sign * material[ply] > WINNING_SCORE) {
+                continue;
+            }
+            int swing = Math.abs(material[Math.min(ply + SWING_PLIES, moves.size() - 1)] - material[ply]);
+            if (swing < SWING && !hasTactic(board)) {
+                continue;
+            }
+            this.searched.incrementAndGet();
+            List<Move> solution = solve(board);
+            if (!solution.isEmpty() && !isSameMove(solution.get(0), lastSolution[ply % 2])) {
+                write(board, solution, game.getId(), ply);
+            }
+            lastSolution[ply % 2] = solution.isEmpty() ? null : solution.get(0);
+        }
+    }
+
+    //White's material less black's, kings left out
+    private static int material(Board board) {
+        int material = 0;
+        for (Piece piece : board.getWhitePieces()) {
+            material += piece.getPieceType().isKing() ? 0 : piece.getPieceValue();
+        }
+        for (Piece piece : board.getBlackPieces()) {
+            material -= piece.getPieceType().isKing() ? 0 : piece.getPieceValue();
+        }
+        return material;
+    }
+
+    //A capture that wins material or gives check, the only moves checked without a search
+    private static boolean hasTactic(Board board) {
+        for (Move move : board.currentPlayer().getLegalMoves()) {
+            if (!move.isAttacked()) {
+                continue;
+            }
+            if (StaticExchange.evaluate(board, move) >= SWING) {
+                return true;
+            }
+            MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone() && transition.getTransitionBoard().currentPlayer().isInCheck()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * The winning side's only winning move, then the defence and the next
+     * only winning move, and so on. Empty if the position is not a puzzle
+    */
+    private List<Move> solve(Board board) {
+        List<Move> solution = new ArrayList<>();
+        AlphaBeta search = this.search.get();
+        //The defence that led to board, only kept if the move after it is the only one too
+        Move reply = null;
+        for (int winningMoves = 0; winningMoves < MAX_SOLUTION_MOVES; winningMoves++) {
+            Move best = search.execute(board);
+            List<PrincipalVariation> lines = search.getPrincipalVariations();
+            if (best == null || lines.size() < 2 || !isUnique(lines)) {
+                break;
+            }
+            if (reply != null) {
+                solution.add(reply);
+            }
+            //Played again on this board, the search's moves belong to its own copy
+            Move move = replay(board, lines.get(0).getFirstMove());
+            solution.add(move);
+            List<Move> line = lines.get(0).getMoves();
+            Board after = board.currentPlayer().makeMove(move).getTransitionBoard();
+            if (line.size() < 2 || after.currentPlayer().isInCheckmate() || after.currentPlayer().isInStalemate()) {
+                break;
+            }
+            reply = replay(after, line.get(1));
+            board = after.currentPlayer().makeMove(reply).getTransitionBoard();
+        }
+        return solution;
+    }
+
+    private static boolean isSameMove(Move move, Move other) {
+        return other != null && move.getCurrentCoordinate() == other.getCurrentCoordinate() &&
+               move.getDestinationCoordinate() == other.getDestinationCoordinate();
+    }
+
+    private static boolean isUnique(List<PrincipalVariation> lines) {
+        int best = cap(lines.get(0).getScore());
+        int second = cap(lines.get(1).getScore());
+        return best >= WINNING_SCORE && best - second >= SCORE_GAP;
+    }
+
+    private static int cap(int score) {
+        return Math.max(-SCORE_CAP, Math.min(SCORE_CAP, score));
+    }
+
+    private static Move replay(Board board, Move move) {
+        return MoveFactory.createMove(board, move.getCurrentCoordinate(), move.getDestinationCoordinate());
+    }
+
+    private void write(Board board, List<Move> solution, long game, int ply) throws IOException {
+        String fen = board.toFen();
+        //EPD has the four position fields only
+        int end = fen.length();
+        for (int spaces = 0, i = 0; i < fen.length(); i++) {
+            if (fen.charAt(i) == ' ' && ++spaces == 4) {
+                end = i;
+                break;
+            }
+        }
+        StringBuilder line = new StringBuilder(fen.substring(0, end));
+        Board current = board;
+        StringBuilder pv = new StringBuilder();
+        for (Move move : solution) {
+            pv.append(pv.length() > 0 ? " " : "").append(AlgebraicNotation.toSan(current, move));
+            current = current.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        line.append(" bm ").append(AlgebraicNotation.toSan(board, solution.get(0))).append(';');
+        line.append(" pv \"").append(pv).append("\";");
+        line.append(" id \"game ").append(game).append(" ply ").append(ply + 1).append("\";\n");
+        synchronized (this.out) {
+            this.out.write(line.toString());
+        }
+        this.puzzles.incrementAndGet();
+    }
+}
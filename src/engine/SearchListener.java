@@ -0,0 +1,16 @@
+package engine;
+
+import java.util.List;
+
+/**
+ * Description: Gets told about every finished iteration of the search
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public interface SearchListener {
+
+    //Statistics add up over the iterations so far. Lines are best first, there are as many as the multi-PV setting (or legal moves, if fewer)
+    void depthCompleted(int depth, List<PrincipalVariation> lines, SearchStatistics statistics);
+
+}
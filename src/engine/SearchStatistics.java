@@ -0,0 +1,115 @@
+package engine;
+
+/**
+ * Description: Counters filled in by one search, reset at the start of every search
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class SearchStatistics {
+
+        private long nodes;
+        private long quiescenceNodes;
+        private long deltaPrunes;
+        private long seePrunes;
+        private long tableCutoffs;
+        private long bitbaseHits;
+        //Indexed by Pruning.ordinal()
+        private final long[] prunes = new long[Pruning.values().length];
+        private final long[] researches = new long[Pruning.values().length];
+
+        void reset() {
+            this.nodes = 0;
+            this.quiescenceNodes = 0;
+            this.deltaPrunes = 0;
+            this.seePrunes = 0;
+            this.tableCutoffs = 0;
+            this.bitbaseHits = 0;
+            for (int i = 0; i < this.prunes.length; i++) {
+                this.prunes[i] = 0;
+                this.researches[i] = 0;
+            }
+        }
+
+        void addNode() {
+            this.nodes++;
+        }
+
+        void addQuiescenceNode() {
+            this.nodes++;
+            this.quiescenceNodes++;
+        }
+
+        void addDeltaPrune() {
+            this.deltaPrunes++;
+        }
+
+        void addSeePrune() {
+            this.seePrunes++;
+        }
+
+        void addTableCutoff() {
+            this.tableCutoffs++;
+        }
+
+        void addBitbaseHit() {
+            this.bitbaseHits++;
+        }
+
+        void addPrune(Pruning technique) {
+            this.prunes[technique.ordinal()]++;
+        }
+
+        void addResearch(Pruning technique) {
+            this.researches[technique.ordinal()]++;
+        }
+
+        public long getNodes() {
+            return this.nodes;
+        }
+
+        public long getQuiescenceNodes() {
+            return this.quiescenceNodes;
+        }
+
+        public long getDeltaPrunes() {
+            return this.deltaPrunes;
+        }
+
+        public long getSeePrunes() {
+            return this.seePrunes;
+        }
+
+        //Nodes answered straight from the transposition table
+        public long getTableCutoffs() {
+            return this.tableCutoffs;
+        }
+
+        //Nodes answered by an endgame bitbase
+        public long getBitbaseHits() {
+            return this.bitbaseHits;
+        }
+
+        //How many times the technique cut a node, skipped a move or reduced a move
+        public long getPrunes(Pruning technique) {
+            return this.prunes[technique.ordinal()];
+        }
+
+        //How many times the technique had to fall back to a full search (failed reduction, failed razor)
+        public long getResearches(Pruning technique) {
+            return this.researches[technique.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("nodes %d (quiescence %d), table cutoffs %d, bitbase hits %d, delta prunes %d, SEE prunes %d%n",
+                                         this.nodes, this.quiescenceNodes, this.tableCutoffs, this.bitbaseHits,
+                                         this.deltaPrunes, this.seePrunes));
+            for (Pruning technique : Pruning.values()) {
+                builder.append(String.format("%-20s prunes %8d  re-searches %8d%n",
+                                             technique, getPrunes(technique), getResearches(technique)));
+            }
+            return builder.toString();
+        }
+}
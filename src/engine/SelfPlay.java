@@ -0,0 +1,175 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: Command line tool that has the engine play itself without a
+ * board on screen and saves the positions as TrainingData, with the search
+ * score and the result of the game. Every worker thread plays its own games
+ * with its own search and table. The first few moves of each game are random
+ * so the games differ. Whole games go to one shared writer that fills a buffer
+ * and hands it to a FileChannel when it is full. Positions in check and
+ * positions with a mate score are left out, they say little about the
+ * evaluation
+ *
+ * Usage: java engine.SelfPlay output.bin games [threads] [depth] [node limit] [random plies]
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class SelfPlay {
+
+    private static final int REPORT_SECONDS = 10;
+    //Longer games are called a draw
+    private static final int MAX_PLIES = 400;
+    private static final int TABLE_ENTRIES = 1 << 18;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final int depth;
+    private final long nodeLimit;
+    private final int randomPlies;
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final AtomicInteger gamesLeft;
+    private final AtomicLong gamesPlayed = new AtomicLong();
+    private final AtomicLong positionsWritten = new AtomicLong();
+
+    public SelfPlay(FileChannel channel, int games, int depth, long nodeLimit, int randomPlies) {
+        this.channel = channel;
+        this.gamesLeft = new AtomicInteger(games);
+        this.depth = depth;
+        this.nodeLimit = nodeLimit;
+        this.randomPlies = randomPlies;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.SelfPlay output.bin games [threads] [depth] [node limit] [random plies]");
+            return;
+        }
+        int games = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        long nodeLimit = args.length > 4 ? Long.parseLong(args[4]) : Long.MAX_VALUE;
+        int randomPlies = args.length > 5 ? Integer.parseInt(args[5]) : 8;
+
+        //Appends, so several runs can go into one file
+        try (FileChannel channel = FileChannel.open(Paths.get(args[0]), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            SelfPlay selfPlay = new SelfPlay(channel, games, depth, nodeLimit, randomPlies);
+            selfPlay.run(threads);
+        }
+    }
+
+    //Plays every game on the given number of threads, reporting along the way
+    public void run(int threads) throws IOException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            final long seed = System.nanoTime() + i;
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        playGames(new Random(seed));
+                    } catch (IOException e) {
+                        System.out.println("Could not write: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        long start = System.currentTimeMillis();
+        while (!workers.awaitTermination(REPORT_SECONDS, TimeUnit.SECONDS)) {
+            report(start, threads);
+        }
+        flush();
+        report(start, threads);
+    }
+
+    private void report(long start, int threads) {
+        double seconds = Math.max(System.currentTimeMillis() - start, 1) / 1000.0;
+        long positions = this.positionsWritten.get();
+        System.out.println(String.format("%d games, %d positions, %.1f positions/s per thread",
+                                         this.gamesPlayed.get(), positions, positions / seconds / threads));
+    }
+
+    private void playGames(Random random) throws IOException {
+        AlphaBeta search = new AlphaBeta(new StandardBoardEvaluator(), this.depth)
+                               .setTranspositionTable(new TranspositionTable(TABLE_ENTRIES))
+                               .setNodeLimit(this.nodeLimit);
+        ByteBuffer records = ByteBuffer.allocate(MAX_PLIES * TrainingData.RECORD_SIZE);
+        while (this.gamesLeft.getAndDecrement() > 0) {
+            records.clear();
+            int count = playGame(search, random, records);
+            records.flip();
+            write(records);
+            this.gamesPlayed.incrementAndGet();
+            this.positionsWritten.addAndGet(count);
+        }
+    }
+
+    //Plays one game, leaves its records in the buffer and returns how many there are
+    private int playGame(AlphaBeta search, Random random, ByteBuffer records) {
+        Board board = Board.createStandardBoard();
+        GameAdjudicator adjudicator = new GameAdjudicator(MAX_PLIES);
+        int count = 0;
+        int result;
+        while (true) {
+            List<Move> legalMoves = GameAdjudicator.legalMoves(board);
+            result = adjudicator.result(board, legalMoves);
+            if (result != GameAdjudicator.ONGOING) {
+                break;
+            }
+
+            int ply = adjudicator.getPlies();
+            Move move;
+            if (ply < this.randomPlies) {
+                move = legalMoves.get(random.nextInt(legalMoves.size()));
+            } else {
+                move = search.execute(board);
+                List<PrincipalVariation> lines = search.getPrincipalVariations();
+                if (!lines.isEmpty() && !board.currentPlayer().isInCheck() &&
+                    Math.abs(lines.get(0).getScore()) < AlphaBeta.KNOWN_WIN) {
+                    TrainingData.write(records, board, lines.get(0).getScore(), ply, 1);
+                    count++;
+                }
+            }
+            adjudicator.moveMade(move);
+            board = board.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        for (int i = 0; i < count; i++) {
+            TrainingData.setResult(records, i, result);
+        }
+        return count;
+    }
+
+    //Every game goes in whole, the buffer only goes to the file when it is full
+    private synchronized void write(ByteBuffer records) throws IOException {
+        if (records.remaining() > this.writeBuffer.remaining()) {
+            flush();
+        }
+        this.writeBuffer.put(records);
+    }
+
+    private synchronized void flush() throws IOException {
+        this.writeBuffer.flip();
+        while (this.writeBuffer.hasRemaining()) {
+            this.channel.write(this.writeBuffer);
+        }
+        this.writeBuffer.clear();
+    }
+}
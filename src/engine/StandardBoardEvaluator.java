@@ -0,0 +1,75 @@
+package engine;
+
+import board.Board;
+import pieces.Piece;
+import player.Player;
+
+/**
+ * Description: Handcrafted evaluation, material, piece-square tables, a small
+ * bonus for mobility and the pawn structure (cached in a pawn hash table).
+ * Everything but the pawn structure comes from EvaluationParameters, so it
+ * can be tuned
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class StandardBoardEvaluator implements BoardEvaluator {
+
+        private static final int PAWN_HASH_ENTRIES = 1 << 14;
+
+        private final EvaluationParameters parameters;
+        private final PawnHashTable pawnHashTable;
+        //Reused for every probe so the hot path does not allocate
+        private final int[] pawnScore = new int[1];
+
+        public StandardBoardEvaluator() {
+            this(EvaluationParameters.createDefault());
+        }
+
+        public StandardBoardEvaluator(EvaluationParameters parameters) {
+            this.parameters = parameters;
+            this.pawnHashTable = new PawnHashTable(PAWN_HASH_ENTRIES);
+        }
+
+        @Override
+        public int evaluate(Board board) {
+            int score = scorePlayer(board.whitePlayer()) - scorePlayer(board.blackPlayer()) +
+                        pawnStructure(board) + PawnStructure.shield(board);
+            return board.currentPlayer().getAlliance().isWhite() ? score : -score;
+        }
+
+        public EvaluationParameters getParameters() {
+            return this.parameters;
+        }
+
+        public PawnHashTable getPawnHashTable() {
+            return this.pawnHashTable;
+        }
+
+        private int pawnStructure(Board board) {
+            if (!this.pawnHashTable.probe(board.getPawnKey(), this.pawnScore)) {
+                this.pawnScore[0] = PawnStructure.evaluate(board);
+                this.pawnHashTable.store(board.getPawnKey(), this.pawnScore[0]);
+            }
+            return this.pawnScore[0];
+        }
+
+        private int scorePlayer(Player player) {
+            return material(player) + mobility(player);
+        }
+
+        //The king has no value (it can never be traded), only a table
+        private int material(Player player) {
+            int material = 0;
+            for (Piece piece : player.getActivePieces()) {
+                material += this.parameters.getPieceValue(piece.getPieceType()) +
+                            this.parameters.getPieceSquare(piece.getPieceType(), piece.getPieceAlliance(), piece.getPiecePosition());
+            }
+            return material;
+        }
+
+        //Each (pseudo) legal move is worth the mobility weight
+        private int mobility(Player player) {
+            return player.getLegalMoves().size() * this.parameters.getMobilityWeight();
+        }
+}
@@ -0,0 +1,169 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import board.Move.PawnPromotion;
+import board.Tile;
+import pieces.Alliance;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: Static exchange evaluation (SEE), plays out every capture on one
+ * tile with the cheapest attacker first and returns the material result.
+ * Nothing is executed, the attackers are found by scanning out from the tile
+ * so sliders hiding behind a piece that already captured (x-rays) join in
+ * for more information: https://www.chessprogramming.org/Static_Exchange_Evaluation
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public final class StaticExchange {
+
+        //Row and column steps, kept apart so nothing can wrap around the board edge
+        private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+        private static final int[][] STRAIGHT_STEPS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        private static final int[][] DIAGONAL_STEPS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+        private final PieceType[] types = new PieceType[64];
+        private final Alliance[] alliances = new Alliance[64];
+
+        private StaticExchange(Board board) {
+            for (int i = 0; i < 64; i++) {
+                Tile tile = board.getTile(i);
+                if (tile.isTileOccupied()) {
+                    this.types[i] = tile.getPiece().getPieceType();
+                    this.alliances[i] = tile.getPiece().getPieceAlliance();
+                }
+            }
+        }
+
+        //Returns the material the moving side should expect to win (negative means it loses material)
+        public static int evaluate(Board board, Move move) {
+            return new StaticExchange(board).swap(move);
+        }
+
+        private int swap(Move move) {
+
+            int target = move.getDestinationCoordinate();
+            Piece movedPiece = move.getMovedPiece();
+            Piece attackedPiece = move.getAttackedPiece();
+            //33 is more than enough, there are only 32 pieces
+            int[] gain = new int[33];
+            int depth = 0;
+
+            gain[0] = attackedPiece == null ? 0 : attackedPiece.getPieceValue();
+            int pieceOnTarget = movedPiece.getPieceValue();
+            //A promotion lands a queen on the tile instead of the pawn
+            if (move instanceof PawnPromotion) {
+                gain[0] += PieceType.QUEEN.getPieceValue() - PieceType.PAWN.getPieceValue();
+                pieceOnTarget = PieceType.QUEEN.getPieceValue();
+            }
+
+            //The en passant pawn is not on the target tile, so it is removed on its own
+            if (attackedPiece != null) {
+                this.types[attackedPiece.getPiecePosition()] = null;
+            }
+            this.types[movedPiece.getPiecePosition()] = null;
+            Alliance side = opposite(movedPiece.getPieceAlliance());
+
+            while (true) {
+                int attacker = leastValuableAttacker(target, side);
+                if (attacker == -1) {
+                    break;
+                }
+                depth++;
+                //Speculative score if the piece on the target gets taken
+                gain[depth] = pieceOnTarget - gain[depth - 1];
+                //Neither side can do better by carrying on, so stop early
+                if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                    break;
+                }
+                pieceOnTarget = this.types[attacker].getPieceValue();
+                this.types[attacker] = null;
+                side = opposite(side);
+            }
+
+            //Each side is allowed to stop capturing whenever it is better for them
+            while (--depth > 0) {
+                gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            }
+            return gain[0];
+        }
+
+        //Returns the tile of the cheapest piece of one side attacking the target, -1 if there are none
+        private int leastValuableAttacker(int target, Alliance side) {
+
+            int row = target / 8;
+            int column = target % 8;
+            int best = -1;
+
+            //White pawns attack upwards (towards row 0), so they sit one row below the target
+            int pawnRow = side.isWhite() ? row + 1 : row - 1;
+            best = cheaper(best, pieceAt(pawnRow, column - 1, side, PieceType.PAWN));
+            best = cheaper(best, pieceAt(pawnRow, column + 1, side, PieceType.PAWN));
+            if (best != -1) {
+                return best;
+            }
+
+            for (int[] step : KNIGHT_STEPS) {
+                best = cheaper(best, pieceAt(row + step[0], column + step[1], side, PieceType.KNIGHT));
+            }
+            for (int[] step : DIAGONAL_STEPS) {
+                int tile = firstOccupied(row, column, step);
+                if (tile != -1 && this.alliances[tile] == side &&
+                   (this.types[tile] == PieceType.BISHOP || this.types[tile] == PieceType.QUEEN)) {
+                    best = cheaper(best, tile);
+                }
+            }
+            for (int[] step : STRAIGHT_STEPS) {
+                int tile = firstOccupied(row, column, step);
+                if (tile != -1 && this.alliances[tile] == side &&
+                   (this.types[tile] == PieceType.ROOK || this.types[tile] == PieceType.QUEEN)) {
+                    best = cheaper(best, tile);
+                }
+            }
+            for (int[] step : KING_STEPS) {
+                best = cheaper(best, pieceAt(row + step[0], column + step[1], side, PieceType.KING));
+            }
+            return best;
+        }
+
+        //Returns the tile if it holds the given piece of the given side, -1 otherwise
+        private int pieceAt(int row, int column, Alliance side, PieceType type) {
+            if (row < 0 || row > 7 || column < 0 || column > 7) {
+                return -1;
+            }
+            int tile = row * 8 + column;
+            return this.types[tile] == type && this.alliances[tile] == side ? tile : -1;
+        }
+
+        //Walks away from the tile in one direction and returns the first occupied tile, -1 if it hits the edge
+        private int firstOccupied(int row, int column, int[] step) {
+            row += step[0];
+            column += step[1];
+            while (row >= 0 && row <= 7 && column >= 0 && column <= 7) {
+                if (this.types[row * 8 + column] != null) {
+                    return row * 8 + column;
+                }
+                row += step[0];
+                column += step[1];
+            }
+            return -1;
+        }
+
+        private int cheaper(int current, int candidate) {
+            if (candidate == -1) {
+                return current;
+            }
+            if (current == -1 || this.types[candidate].getPieceValue() < this.types[current].getPieceValue()) {
+                return candidate;
+            }
+            return current;
+        }
+
+        private static Alliance opposite(Alliance alliance) {
+            return alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        }
+}
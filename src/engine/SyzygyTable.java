@@ -0,0 +1,754 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: One Syzygy endgame, like KQvKR: its WDL file (.rtbw) and, if
+ * there is one, its DTZ file (.rtbz), both memory-mapped. A position is
+ * turned into an index the way the generator numbered them (mirrored so the
+ * leading piece or pawn is on the left, pieces of a kind placed together)
+ * and the value at the index is found in the compressed blocks: a sparse
+ * index gives the block, the block is a canonical Huffman code of symbols and
+ * each symbol stands for a run of values made by recursive pairing. A block
+ * is decompressed whole on the first probe into it and kept in Tablebases'
+ * cache. Squares here are numbered like the files do, a1 = 0 to h8 = 63, and
+ * pieces are 1 to 6 (pawn to king) for white and 9 to 14 for black
+ * for more information: https://www.chessprogramming.org/Syzygy_Bases
+ *
+ * Date: Oct. 19, 2026
+ */
+
+final class SyzygyTable {
+
+        //Stored WDL values for the side to move, blessed losses and cursed wins are drawn by the 50 move rule
+        static final int LOSS = -2;
+        static final int BLESSED_LOSS = -1;
+        static final int DRAW = 0;
+        static final int CURSED_WIN = 1;
+        static final int WIN = 2;
+        //Returned by probe when a DTZ table only has the other side to move
+        static final int CHANGE_SIDE = Integer.MIN_VALUE;
+
+        private static final int WDL_MAGIC = 0x5d23e871;
+        private static final int DTZ_MAGIC = 0xa50c66d7;
+        //Header flags
+        private static final int SPLIT = 1;
+        private static final int HAS_PAWNS = 2;
+        //Flags of one table
+        private static final int STM = 1;
+        private static final int MAPPED = 2;
+        private static final int WIN_PLIES = 4;
+        private static final int LOSS_PLIES = 8;
+        private static final int WIDE = 16;
+        private static final int SINGLE_VALUE = 128;
+        //Which of the four DTZ maps a WDL value uses, from LOSS up
+        private static final int[] WDL_MAP = {1, 3, 0, 2, 0};
+
+        private static final long[][] BINOMIAL = new long[6][64];
+        private static final int[] MAP_PAWNS = new int[64];
+        private static final int[][] LEAD_PAWN_INDEX = new int[6][64];
+        private static final int[][] LEAD_PAWNS_SIZE = new int[6][4];
+        private static final int[] MAP_B1H1H7 = new int[64];
+        private static final int[] MAP_A1D1D4 = new int[64];
+        private static final int[][] MAP_KK = new int[10][64];
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        static {
+            int code = 0;
+            for (int square = 0; square < 64; square++) {
+                if (offDiagonal(square) < 0) {
+                    MAP_B1H1H7[square] = code++;
+                }
+            }
+
+            //The a1-d1-d4 triangle below the diagonal first, then the diagonal itself
+            code = 0;
+            for (int square = 0; square < 28; square++) {
+                if (offDiagonal(square) < 0 && (square & 7) <= 3) {
+                    MAP_A1D1D4[square] = code++;
+                }
+            }
+            for (int square = 0; square < 28; square++) {
+                if (offDiagonal(square) == 0 && (square & 7) <= 3) {
+                    MAP_A1D1D4[square] = code++;
+                }
+            }
+
+            /*
+             * The 462 ways to put two kings with the first one in the
+             * triangle. With the first king on the diagonal the second one is
+             * never above it, and both on the diagonal come last
+            */
+            code = 0;
+            int[] bothOnDiagonal = new int[64];
+            int bothCount = 0;
+            for (int index = 0; index < 10; index++) {
+                for (int first = 0; first < 28; first++) {
+                    if (MAP_A1D1D4[first] != index || (index == 0 && first != 1)) {
+                        continue;
+                    }
+                    for (int second = 0; second < 64; second++) {
+                        if (Math.abs((first >>> 3) - (second >>> 3)) <= 1 && Math.abs((first & 7) - (second & 7)) <= 1) {
+                            continue;
+                        }
+                        if (offDiagonal(first) == 0 && offDiagonal(second) > 0) {
+                            continue;
+                        }
+                        if (offDiagonal(first) == 0 && offDiagonal(second) == 0) {
+                            bothOnDiagonal[bothCount++] = index << 6 | second;
+                        } else {
+                            MAP_KK[index][second] = code++;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < bothCount; i++) {
+                MAP_KK[bothOnDiagonal[i] >>> 6][bothOnDiagonal[i] & 63] = code++;
+            }
+
+            BINOMIAL[0][0] = 1;
+            for (int n = 1; n < 64; n++) {
+                for (int k = 0; k < 6 && k <= n; k++) {
+                    BINOMIAL[k][n] = (k > 0 ? BINOMIAL[k - 1][n - 1] : 0) + (k < n ? BINOMIAL[k][n - 1] : 0);
+                }
+            }
+
+            /*
+             * Pawns on a2-h7 are 47 down to 0, the files from the edge in and
+             * the ranks from the bottom up, and the leading pawn is the one
+             * with the highest number. Every file has its own table, so the
+             * leading pawns' index starts again at 0 on each
+            */
+            int available = 47;
+            for (int leadPawns = 1; leadPawns <= 5; leadPawns++) {
+                for (int file = 0; file < 4; file++) {
+                    int index = 0;
+                    for (int rank = 1; rank <= 6; rank++) {
+                        int square = rank * 8 + file;
+                        if (leadPawns == 1) {
+                            MAP_PAWNS[square] = available--;
+                            MAP_PAWNS[square ^ 7] = available--;
+                        }
+                        LEAD_PAWN_INDEX[leadPawns][square] = index;
+                        index += BINOMIAL[leadPawns - 1][MAP_PAWNS[square]];
+                    }
+                    LEAD_PAWNS_SIZE[leadPawns][file] = index;
+                }
+            }
+        }
+
+        private final String name;
+        private final String mirroredName;
+        private final int pieceCount;
+        private final boolean hasPawns;
+        private final boolean hasUniquePieces;
+        //Pawns of the leading colour (the one with fewer pawns, if both have some), then the other's
+        private final int[] pawnCount = new int[2];
+        private final ByteBuffer wdl;
+        //[file][side to move], one file and one side if they are not split
+        private final Pairs[][] wdlPairs;
+        private final ByteBuffer dtz;
+        //[file][0]
+        private final Pairs[][] dtzPairs;
+        private int dtzMap;
+
+        private SyzygyTable(String name, Path wdlPath, Path dtzPath) throws IOException {
+            int split = name.indexOf('v');
+            if (!name.startsWith("K") || split < 0 || !name.startsWith("K", split + 1)) {
+                throw new IOException("Not a Syzygy endgame: " + name);
+            }
+            String whitePart = name.substring(0, split);
+            String blackPart = name.substring(split + 1);
+            this.name = name;
+            this.mirroredName = blackPart + "v" + whitePart;
+            this.pieceCount = name.length() - 1;
+            int whitePawns = count(whitePart, 'P');
+            int blackPawns = count(blackPart, 'P');
+            this.hasPawns = whitePawns + blackPawns > 0;
+            boolean unique = false;
+            for (char letter : "QRBNP".toCharArray()) {
+                unique |= count(whitePart, letter) == 1 || count(blackPart, letter) == 1;
+            }
+            this.hasUniquePieces = unique;
+            boolean whiteLeads = blackPawns == 0 || (whitePawns > 0 && blackPawns >= whitePawns);
+            this.pawnCount[0] = whiteLeads ? whitePawns : blackPawns;
+            this.pawnCount[1] = whiteLeads ? blackPawns : whitePawns;
+
+            this.wdl = map(wdlPath, WDL_MAGIC);
+            this.wdlPairs = parse(this.wdl, false, wdlPath);
+            this.dtz = dtzPath == null ? null : map(dtzPath, DTZ_MAGIC);
+            this.dtzPairs = this.dtz == null ? null : parse(this.dtz, true, dtzPath);
+        }
+
+        //The DTZ file is optional, without it only WDL can be probed
+        static SyzygyTable load(String name, Path wdlPath, Path dtzPath) throws IOException {
+            return new SyzygyTable(name, wdlPath, dtzPath);
+        }
+
+        //White's pieces first, like KQvKR
+        String getName() {
+            return this.name;
+        }
+
+        //The same endgame with black holding the first side's pieces, KRvKQ for KQvKR
+        String getMirroredName() {
+            return this.mirroredName;
+        }
+
+        int getPieceCount() {
+            return this.pieceCount;
+        }
+
+        boolean hasDtz() {
+            return this.dtz != null;
+        }
+
+        /*
+         * The stored value of the position: a WDL value from LOSS to WIN, or
+         * for DTZ the plies to zeroing (always positive, the sign is the WDL
+         * value's) or CHANGE_SIDE. pieces holds the piece on every square,
+         * whiteFirst says whether white has this table's first side, and wdl
+         * is the position's WDL value when probing DTZ
+        */
+        int probe(int[] pieces, boolean blackToMove, boolean whiteFirst, boolean probeDtz, int wdl, Tablebases.BlockCache cache) {
+            Pairs[][] table = probeDtz ? this.dtzPairs : this.wdlPairs;
+            //Only white to move is stored when both sides are the same, and only white as the first side
+            boolean flip = !whiteFirst || (this.name.equals(this.mirroredName) && blackToMove);
+            int flipColour = flip ? 8 : 0;
+            int flipSquares = flip ? 56 : 0;
+            int stm = (flip ? 1 : 0) ^ (blackToMove ? 1 : 0);
+
+            int[] squares = new int[this.pieceCount];
+            int[] codes = new int[this.pieceCount];
+            int size = 0;
+            int leadPawnCount = 0;
+            long leadPawns = 0;
+            int file = 0;
+            if (this.hasPawns) {
+                //The leading pawns come first in every one of the tables
+                int leadPawn = table[0][0].pieces[0] ^ flipColour;
+                for (int square = 0; square < 64; square++) {
+                    if (pieces[square] == leadPawn) {
+                        squares[size++] = square ^ flipSquares;
+                        leadPawns |= 1L << square;
+                    }
+                }
+                leadPawnCount = size;
+                int lead = 0;
+                for (int i = 1; i < leadPawnCount; i++) {
+                    if (MAP_PAWNS[squares[i]] > MAP_PAWNS[squares[lead]]) {
+                        lead = i;
+                    }
+                }
+                swap(squares, 0, lead);
+                file = squares[0] & 7;
+                if (file > 3) {
+                    file ^= 7;
+                }
+            }
+            Pairs pairs = table[file][probeDtz || table[file].length == 1 ? 0 : stm];
+            //DTZ files only have one side to move
+            if (probeDtz && (pairs.flags & STM) != stm && (!this.name.equals(this.mirroredName) || this.hasPawns)) {
+                return CHANGE_SIDE;
+            }
+
+            for (int square = 0; square < 64; square++) {
+                if (pieces[square] != 0 && (leadPawns & 1L << square) == 0) {
+                    squares[size] = square ^ flipSquares;
+                    codes[size++] = pieces[square] ^ flipColour;
+                }
+            }
+            //The pieces in the order the table has them
+            for (int i = leadPawnCount; i < size - 1; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    if (pairs.pieces[i] == codes[j]) {
+                        swap(codes, i, j);
+                        swap(squares, i, j);
+                        break;
+                    }
+                }
+            }
+            if ((squares[0] & 7) > 3) {
+                for (int i = 0; i < size; i++) {
+                    squares[i] ^= 7;
+                }
+            }
+
+            long index;
+            if (this.hasPawns) {
+                index = LEAD_PAWN_INDEX[leadPawnCount][squares[0]];
+                sortByPawnMap(squares, 1, leadPawnCount);
+                for (int i = 1; i < leadPawnCount; i++) {
+                    index += BINOMIAL[i][MAP_PAWNS[squares[i]]];
+                }
+            } else {
+                index = leadingIndex(pairs, squares, size);
+            }
+
+            index *= pairs.groupIndex[0];
+            int start = pairs.groupLength[0];
+            boolean remainingPawns = this.hasPawns && this.pawnCount[1] > 0;
+            for (int group = 1; pairs.groupLength[group] != 0; group++) {
+                int length = pairs.groupLength[group];
+                sort(squares, start, start + length);
+                long n = 0;
+                //Squares taken by the groups before are skipped
+                for (int i = 0; i < length; i++) {
+                    int square = squares[start + i];
+                    int below = 0;
+                    for (int j = 0; j < start; j++) {
+                        if (squares[j] < square) {
+                            below++;
+                        }
+                    }
+                    n += BINOMIAL[i + 1][square - below - (remainingPawns ? 8 : 0)];
+                }
+                remainingPawns = false;
+                index += n * pairs.groupIndex[group];
+                start += length;
+            }
+
+            int value = pairs.value(probeDtz ? this.dtz : this.wdl, index, cache);
+            return probeDtz ? dtzValue(file, value, wdl) : value - 2;
+        }
+
+        /*
+         * The index of the leading group of a table without pawns, after
+         * mirroring the first piece into the a1-d1-d4 triangle and the first
+         * piece off the long diagonal below it. With three different pieces
+         * (the kings and a piece there is one of) they are numbered together,
+         * otherwise just the two kings
+        */
+        private long leadingIndex(Pairs pairs, int[] squares, int size) {
+            if ((squares[0] >>> 3) > 3) {
+                for (int i = 0; i < size; i++) {
+                    squares[i] ^= 56;
+                }
+            }
+            for (int i = 0; i < pairs.groupLength[0]; i++) {
+                int off = offDiagonal(squares[i]);
+                if (off == 0) {
+                    continue;
+                }
+                if (off > 0) {
+                    for (int j = i; j < size; j++) {
+                        squares[j] = ((squares[j] >>> 3) | (squares[j] << 3)) & 63;
+                    }
+                }
+                break;
+            }
+            if (!this.hasUniquePieces) {
+                return MAP_KK[MAP_A1D1D4[squares[0]]][squares[1]];
+            }
+            int adjust1 = squares[1] > squares[0] ? 1 : 0;
+            int adjust2 = (squares[2] > squares[0] ? 1 : 0) + (squares[2] > squares[1] ? 1 : 0);
+            if (offDiagonal(squares[0]) != 0) {
+                return ((long) MAP_A1D1D4[squares[0]] * 63 + squares[1] - adjust1) * 62 + squares[2] - adjust2;
+            }
+            if (offDiagonal(squares[1]) != 0) {
+                return (6 * 63 + (squares[0] >>> 3) * 28 + MAP_B1H1H7[squares[1]]) * 62L + squares[2] - adjust2;
+            }
+            if (offDiagonal(squares[2]) != 0) {
+                return 6 * 63 * 62 + 4 * 28 * 62 + (squares[0] >>> 3) * 7 * 28 +
+                       ((squares[1] >>> 3) - adjust1) * 28 + MAP_B1H1H7[squares[2]];
+            }
+            return 6 * 63 * 62 + 4 * 28 * 62 + 4 * 7 * 28 + (squares[0] >>> 3) * 7 * 6 +
+                   ((squares[1] >>> 3) - adjust1) * 6 + (squares[2] >>> 3) - adjust2;
+        }
+
+        //A stored DTZ value in plies, through the file's map if it has one
+        private int dtzValue(int file, int value, int wdl) {
+            Pairs pairs = this.dtzPairs[file][0];
+            if ((pairs.flags & MAPPED) != 0) {
+                int map = pairs.mapIndex[WDL_MAP[wdl + 2]];
+                if ((pairs.flags & WIDE) != 0) {
+                    value = this.dtz.getShort(this.dtzMap + 2 * (map + value)) & 0xFFFF;
+                } else {
+                    value = this.dtz.get(this.dtzMap + map + value) & 0xFF;
+                }
+            }
+            //Stored in moves unless the flags say plies, the 50 move rule cases always are
+            if ((wdl == WIN && (pairs.flags & WIN_PLIES) == 0) || (wdl == LOSS && (pairs.flags & LOSS_PLIES) == 0) ||
+                wdl == CURSED_WIN || wdl == BLESSED_LOSS) {
+                value *= 2;
+            }
+            return value + 1;
+        }
+
+        private static ByteBuffer map(Path path, int magic) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Syzygy file too large to map: " + path);
+                }
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                if (channel.size() < 6 || buffer.getInt(0) != magic) {
+                    throw new IOException("Not a Syzygy file: " + path);
+                }
+                return buffer;
+            }
+        }
+
+        /*
+         * Reads the header: for every file (a-d with pawns, one without) and
+         * side the piece order and group order, then each table's sizes and
+         * Huffman code, the DTZ maps, the sparse indexes, the block lengths
+         * and the 64 byte aligned blocks, each section for every table in turn
+        */
+        private Pairs[][] parse(ByteBuffer buffer, boolean isDtz, Path path) throws IOException {
+            int data = 4;
+            int header = buffer.get(data++);
+            boolean split = (header & SPLIT) != 0;
+            if (((header & HAS_PAWNS) != 0) != this.hasPawns || split != !this.name.equals(this.mirroredName)) {
+                throw new IOException("Syzygy file does not match its name: " + path);
+            }
+            int sides = !isDtz && split ? 2 : 1;
+            int files = this.hasPawns ? 4 : 1;
+            boolean bothHavePawns = this.hasPawns && this.pawnCount[1] > 0;
+            Pairs[][] table = new Pairs[files][sides];
+            for (int file = 0; file < files; file++) {
+                int first = buffer.get(data) & 0xFF;
+                int second = bothHavePawns ? buffer.get(data + 1) & 0xFF : 0xFF;
+                int[][] order = {{first & 0xF, second & 0xF}, {first >>> 4, second >>> 4}};
+                data += bothHavePawns ? 2 : 1;
+                for (int side = 0; side < sides; side++) {
+                    table[file][side] = new Pairs(this.pieceCount);
+                }
+                for (int k = 0; k < this.pieceCount; k++, data++) {
+                    int pieces = buffer.get(data) & 0xFF;
+                    for (int side = 0; side < sides; side++) {
+                        table[file][side].pieces[k] = side == 0 ? pieces & 0xF : pieces >>> 4;
+                    }
+                }
+                for (int side = 0; side < sides; side++) {
+                    setGroups(table[file][side], order[side], file);
+                }
+            }
+            data += data & 1;
+            for (Pairs[] pairs : table) {
+                for (Pairs side : pairs) {
+                    data = side.setSizes(buffer, data);
+                }
+            }
+            if (isDtz) {
+                data = setDtzMap(buffer, data, table);
+            }
+            for (Pairs[] pairs : table) {
+                for (Pairs side : pairs) {
+                    side.sparseIndex = data;
+                    data += 6 * side.sparseIndexSize;
+                }
+            }
+            for (Pairs[] pairs : table) {
+                for (Pairs side : pairs) {
+                    side.blockLengths = data;
+                    data += 2 * side.blockLengthSize;
+                }
+            }
+            long end = data;
+            for (Pairs[] pairs : table) {
+                for (Pairs side : pairs) {
+                    end = (end + 0x3F) & ~0x3F;
+                    side.data = (int) end;
+                    end += (long) side.blockCount * side.blockSize;
+                }
+            }
+            if (end > buffer.capacity()) {
+                throw new IOException("Syzygy file is too short: " + path);
+            }
+            return table;
+        }
+
+        /*
+         * Splits the pieces into groups numbered on their own: the leading
+         * group (the kings and a unique piece, or the leading pawns), the
+         * other side's pawns, then each run of identical pieces. The index is
+         * a mixed radix number of the groups, in the order the file gives
+        */
+        private void setGroups(Pairs pairs, int[] order, int file) {
+            int n = 0;
+            int firstLength = this.hasPawns ? 0 : this.hasUniquePieces ? 3 : 2;
+            pairs.groupLength[n] = 1;
+            for (int i = 1; i < this.pieceCount; i++) {
+                if (--firstLength > 0 || pairs.pieces[i] == pairs.pieces[i - 1]) {
+                    pairs.groupLength[n]++;
+                } else {
+                    pairs.groupLength[++n] = 1;
+                }
+            }
+            pairs.groupLength[++n] = 0;
+
+            boolean bothHavePawns = this.hasPawns && this.pawnCount[1] > 0;
+            int next = bothHavePawns ? 2 : 1;
+            int freeSquares = 64 - pairs.groupLength[0] - (bothHavePawns ? pairs.groupLength[1] : 0);
+            long index = 1;
+            for (int k = 0; next < n || k == order[0] || k == order[1]; k++) {
+                if (k == order[0]) {
+                    pairs.groupIndex[0] = index;
+                    index *= this.hasPawns ? LEAD_PAWNS_SIZE[pairs.groupLength[0]][file] : this.hasUniquePieces ? 31332 : 462;
+                } else if (k == order[1]) {
+                    pairs.groupIndex[1] = index;
+                    index *= BINOMIAL[pairs.groupLength[1]][48 - pairs.groupLength[0]];
+                } else {
+                    pairs.groupIndex[next] = index;
+                    index *= BINOMIAL[pairs.groupLength[next]][freeSquares];
+                    freeSquares -= pairs.groupLength[next++];
+                }
+            }
+            pairs.groupIndex[n] = index;
+        }
+
+        //Four maps per file (one per WDL value) from stored values to distances, bytes or 16 bit words
+        private int setDtzMap(ByteBuffer buffer, int data, Pairs[][] table) {
+            this.dtzMap = data;
+            for (Pairs[] pairs : table) {
+                Pairs file = pairs[0];
+                if ((file.flags & MAPPED) == 0) {
+                    continue;
+                }
+                if ((file.flags & WIDE) != 0) {
+                    data += data & 1;
+                    for (int i = 0; i < 4; i++) {
+                        file.mapIndex[i] = (data - this.dtzMap) / 2 + 1;
+                        data += 2 * (buffer.getShort(data) & 0xFFFF) + 2;
+                    }
+                } else {
+                    for (int i = 0; i < 4; i++) {
+                        file.mapIndex[i] = data - this.dtzMap + 1;
+                        data += (buffer.get(data) & 0xFF) + 1;
+                    }
+                }
+            }
+            return data + (data & 1);
+        }
+
+        //Ranks above files are positive, below negative, the a1-h8 diagonal 0
+        private static int offDiagonal(int square) {
+            return (square >>> 3) - (square & 7);
+        }
+
+        private static int count(String pieces, char letter) {
+            int count = 0;
+            for (int i = 0; i < pieces.length(); i++) {
+                count += pieces.charAt(i) == letter ? 1 : 0;
+            }
+            return count;
+        }
+
+        private static void swap(int[] values, int i, int j) {
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+
+        private static void sort(int[] values, int start, int end) {
+            for (int i = start + 1; i < end; i++) {
+                for (int j = i; j > start && values[j] < values[j - 1]; j--) {
+                    swap(values, j, j - 1);
+                }
+            }
+        }
+
+        private static void sortByPawnMap(int[] squares, int start, int end) {
+            for (int i = start + 1; i < end; i++) {
+                for (int j = i; j > start && MAP_PAWNS[squares[j]] < MAP_PAWNS[squares[j - 1]]; j--) {
+                    swap(squares, j, j - 1);
+                }
+            }
+        }
+
+        /*
+         * One compressed table: a file's worth of positions for one side to
+         * move. Offsets are into the mapped file. Symbols are 12 bits, the
+         * pairing tree stores a symbol's left and right half in 3 bytes and
+         * a symbol standing for one value keeps the value in its left half
+        */
+        static final class Pairs {
+
+            final int id = NEXT_ID.getAndIncrement();
+            final int[] pieces;
+            final int[] groupLength;
+            final long[] groupIndex;
+            final int[] mapIndex = new int[4];
+            int flags;
+            //The one value of a table where every position has the same
+            int minSymbolLength;
+            int blockSize;
+            long span;
+            int sparseIndexSize;
+            int blockCount;
+            int blockLengthSize;
+            int lowestSymbols;
+            //Codes of each length padded to 64 bits, longest codes have the lowest values
+            long[] base;
+            //How many values each symbol stands for, less one
+            int[] symbolLength;
+            int tree;
+            int sparseIndex;
+            int blockLengths;
+            int data;
+
+            Pairs(int pieceCount) {
+                this.pieces = new int[pieceCount];
+                this.groupLength = new int[pieceCount + 1];
+                this.groupIndex = new long[pieceCount + 1];
+            }
+
+            int setSizes(ByteBuffer buffer, int data) {
+                this.flags = buffer.get(data++) & 0xFF;
+                if ((this.flags & SINGLE_VALUE) != 0) {
+                    this.minSymbolLength = buffer.get(data++) & 0xFF;
+                    return data;
+                }
+                int groups = 0;
+                while (this.groupLength[groups] != 0) {
+                    groups++;
+                }
+                long size = this.groupIndex[groups];
+                this.blockSize = 1 << buffer.get(data++);
+                this.span = 1L << buffer.get(data++);
+                this.sparseIndexSize = (int) ((size + this.span - 1) / this.span);
+                int padding = buffer.get(data++) & 0xFF;
+                this.blockCount = buffer.getInt(data);
+                data += 4;
+                //Padded so the sparse index never points past the end
+                this.blockLengthSize = this.blockCount + padding;
+                int maxSymbolLength = buffer.get(data++) & 0xFF;
+                this.minSymbolLength = buffer.get(data++) & 0xFF;
+                this.lowestSymbols = data;
+                this.base = new long[maxSymbolLength - this.minSymbolLength + 1];
+                for (int i = this.base.length - 2; i >= 0; i--) {
+                    this.base[i] = (this.base[i + 1] + lowestSymbol(buffer, i) - lowestSymbol(buffer, i + 1)) / 2;
+                }
+                for (int i = 0; i < this.base.length; i++) {
+                    this.base[i] <<= 64 - i - this.minSymbolLength;
+                }
+                data += 2 * this.base.length;
+                int symbols = buffer.getShort(data) & 0xFFFF;
+                data += 2;
+                this.tree = data;
+                this.symbolLength = new int[symbols];
+                boolean[] visited = new boolean[symbols];
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    if (!visited[symbol]) {
+                        this.symbolLength[symbol] = setSymbolLength(buffer, symbol, visited);
+                    }
+                }
+                return data + 3 * symbols + (symbols & 1);
+            }
+
+            //The pairing tree has no cycles, so every symbol is only worked out once
+            private int setSymbolLength(ByteBuffer buffer, int symbol, boolean[] visited) {
+                visited[symbol] = true;
+                int right = right(buffer, symbol);
+                if (right == 0xFFF) {
+                    return 0;
+                }
+                int left = left(buffer, symbol);
+                if (!visited[left]) {
+                    this.symbolLength[left] = setSymbolLength(buffer, left, visited);
+                }
+                if (!visited[right]) {
+                    this.symbolLength[right] = setSymbolLength(buffer, right, visited);
+                }
+                return this.symbolLength[left] + this.symbolLength[right] + 1;
+            }
+
+            /*
+             * The value at the index. Sparse index entry k points at the block
+             * and offset of index k * span + span / 2, the block lengths are
+             * walked from there to the block that holds the index
+            */
+            int value(ByteBuffer buffer, long index, Tablebases.BlockCache cache) {
+                if ((this.flags & SINGLE_VALUE) != 0) {
+                    return this.minSymbolLength;
+                }
+                int k = (int) (index / this.span);
+                int block = buffer.getInt(this.sparseIndex + 6 * k);
+                int offset = (buffer.getShort(this.sparseIndex + 6 * k + 4) & 0xFFFF) +
+                             (int) (index % this.span - this.span / 2);
+                while (offset < 0) {
+                    offset += blockLength(buffer, --block) + 1;
+                }
+                while (offset > blockLength(buffer, block)) {
+                    offset -= blockLength(buffer, block++) + 1;
+                }
+                long key = (long) this.id << 32 | block;
+                short[] values = cache.get(key);
+                if (values == null) {
+                    //Decompressed outside the lock, two threads may both do it but they get the same values
+                    values = decompress(buffer, block);
+                    cache.put(key, values);
+                }
+                return values[offset];
+            }
+
+            /*
+             * Reads the block's Huffman code 64 bits at a time (big endian),
+             * finds each code's length from the base of each length, and
+             * expands its symbol down the pairing tree into the values
+            */
+            private short[] decompress(ByteBuffer buffer, int block) {
+                short[] values = new short[blockLength(buffer, block) + 1];
+                int position = this.data + block * this.blockSize;
+                int end = buffer.capacity();
+                long bits = Long.reverseBytes(buffer.getLong(position));
+                position += 8;
+                int bitCount = 64;
+                int[] stack = new int[this.symbolLength.length + 1];
+                int count = 0;
+                while (count < values.length) {
+                    int length = 0;
+                    while (Long.compareUnsigned(bits, this.base[length]) < 0) {
+                        length++;
+                    }
+                    int symbol = (int) ((bits - this.base[length]) >>> (64 - length - this.minSymbolLength)) +
+                                 lowestSymbol(buffer, length);
+                    int top = 0;
+                    stack[top++] = symbol;
+                    while (top > 0 && count < values.length) {
+                        int next = stack[--top];
+                        if (this.symbolLength[next] == 0) {
+                            values[count++] = (short) left(buffer, next);
+                        } else {
+                            stack[top++] = right(buffer, next);
+                            stack[top++] = left(buffer, next);
+                        }
+                    }
+                    length += this.minSymbolLength;
+                    bits <<= length;
+                    bitCount -= length;
+                    if (bitCount <= 32) {
+                        bitCount += 32;
+                        long word = position + 4 <= end ? Integer.reverseBytes(buffer.getInt(position)) & 0xFFFFFFFFL : 0;
+                        bits |= word << (64 - bitCount);
+                        position += 4;
+                    }
+                }
+                return values;
+            }
+
+            private int blockLength(ByteBuffer buffer, int block) {
+                return buffer.getShort(this.blockLengths + 2 * block) & 0xFFFF;
+            }
+
+            private int lowestSymbol(ByteBuffer buffer, int length) {
+                return buffer.getShort(this.lowestSymbols + 2 * length) & 0xFFFF;
+            }
+
+            private int left(ByteBuffer buffer, int symbol) {
+                int entry = this.tree + 3 * symbol;
+                return (buffer.get(entry + 1) & 0xF) << 8 | buffer.get(entry) & 0xFF;
+            }
+
+            private int right(ByteBuffer buffer, int symbol) {
+                int entry = this.tree + 3 * symbol;
+                return (buffer.get(entry + 2) & 0xFF) << 4 | (buffer.get(entry + 1) & 0xFF) >>> 4;
+            }
+        }
+}
@@ -0,0 +1,356 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+import player.MoveTransition;
+
+/**
+ * Description: Syzygy tablebases for endgames of up to six pieces, looked up
+ * by the pieces on the board. A WDL file does not store a position where the
+ * side to move has a capture at least as good as the stored value (that
+ * compresses better), so every probe tries the captures first and takes the
+ * best of them and the table, the same as the Syzygy probing code does. DTZ
+ * files only store one side to move, for the other side the distance comes
+ * from one move ahead. Decompressed blocks are kept in one small cache
+ * shared by every table, the least recently used one goes first.
+ * Positions that can still castle are not in the tables and are left alone,
+ * and wins (or losses) too long for the 50 move rule count as draws
+ * for more information: https://www.chessprogramming.org/Syzygy_Bases
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class Tablebases implements EndgameProbe {
+
+        public static final String WDL_EXTENSION = ".rtbw";
+        public static final String DTZ_EXTENSION = ".rtbz";
+        //Seven piece tables exist but take terabytes
+        public static final int MAX_PIECES = 6;
+        //Decompressed values kept in all, two bytes each so 8 MB
+        private static final int CACHED_VALUES = 1 << 22;
+
+        //Probe results besides the value
+        private static final int OK = 0;
+        private static final int FAIL = 1;
+        //The best move is a capture or pawn move, so the DTZ table's value for the position is not used
+        private static final int ZEROING_BEST_MOVE = 2;
+        //Longer than any DTZ, for the smallest of a position's moves
+        private static final int NO_DTZ = 0xFFFF;
+
+        //Both colourings of each endgame, KQvKR and KRvKQ find the same table
+        private final Map<String, SyzygyTable> tables = new HashMap<>();
+        private final BlockCache cache = new BlockCache(CACHED_VALUES);
+        private int maxPieces;
+
+        //Loads every WDL file in the directory and the DTZ file next to it if there is one
+        public static Tablebases load(Path directory) throws IOException {
+            Tablebases tablebases = new Tablebases();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + WDL_EXTENSION)) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    String name = fileName.substring(0, fileName.length() - WDL_EXTENSION.length());
+                    if (!name.matches("K[QRBNP]*vK[QRBNP]*") || name.length() - 1 > MAX_PIECES) {
+                        continue;
+                    }
+                    Path dtz = directory.resolve(name + DTZ_EXTENSION);
+                    tablebases.add(SyzygyTable.load(name, file, Files.exists(dtz) ? dtz : null));
+                }
+            }
+            return tablebases;
+        }
+
+        private void add(SyzygyTable table) {
+            this.tables.put(table.getName(), table);
+            this.tables.put(table.getMirroredName(), table);
+            this.maxPieces = Math.max(this.maxPieces, table.getPieceCount());
+        }
+
+        //How many endgames there are tables for
+        public int size() {
+            int size = 0;
+            for (Map.Entry<String, SyzygyTable> entry : this.tables.entrySet()) {
+                size += entry.getKey().equals(entry.getValue().getName()) ? 1 : 0;
+            }
+            return size;
+        }
+
+        @Override
+        public int probeWdl(Board board) {
+            if (!isCovered(board)) {
+                return Bitbase.UNKNOWN;
+            }
+            int[] state = {OK};
+            int wdl = search(board, false, state);
+            if (state[0] == FAIL) {
+                return Bitbase.UNKNOWN;
+            }
+            return wdl == SyzygyTable.WIN ? Bitbase.WIN : wdl == SyzygyTable.LOSS ? Bitbase.LOSS : Bitbase.DRAW;
+        }
+
+        @Override
+        public int probeDtz(Board board) {
+            if (!isCovered(board)) {
+                return UNKNOWN_DTZ;
+            }
+            int[] state = {OK};
+            int dtz = dtz(board, state);
+            if (state[0] == FAIL) {
+                return UNKNOWN_DTZ;
+            }
+            if (Math.abs(dtz) > MAX_DTZ || (dtz == -1 && board.currentPlayer().isInCheckmate())) {
+                return 0;
+            }
+            return dtz;
+        }
+
+        //Few enough pieces for a table and no castling left
+        private boolean isCovered(Board board) {
+            if (board.getWhitePieces().size() + board.getBlackPieces().size() > this.maxPieces) {
+                return false;
+            }
+            return !canCastle(board.getWhitePieces()) && !canCastle(board.getBlackPieces());
+        }
+
+        //An unmoved king with an unmoved rook in one of its corners
+        private static boolean canCastle(Iterable<Piece> pieces) {
+            boolean kingUnmoved = false;
+            boolean rookUnmoved = false;
+            for (Piece piece : pieces) {
+                int backRank = piece.getPieceAlliance().isWhite() ? 56 : 0;
+                if (piece.getPieceType().isKing()) {
+                    kingUnmoved = piece.isFirstMove();
+                } else if (piece.getPieceType().isRook() && piece.isFirstMove() &&
+                           (piece.getPiecePosition() == backRank || piece.getPiecePosition() == backRank + 7)) {
+                    rookUnmoved = true;
+                }
+            }
+            return kingUnmoved && rookUnmoved;
+        }
+
+        /*
+         * The WDL value for the player to move: the best of the captures (and
+         * pawn moves too if checkZeroing) and the table. If every legal move
+         * is one of those the table is not needed. The state says whether
+         * the best move zeroes, since the DTZ table has nothing useful there
+        */
+        private int search(Board board, boolean checkZeroing, int[] state) {
+            int bestValue = SyzygyTable.LOSS;
+            int moveCount = 0;
+            boolean otherMoves = false;
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                boolean zeroing = move.isAttacked() || (checkZeroing && move.getMovedPiece().getPieceType() == PieceType.PAWN);
+                if (!zeroing && otherMoves) {
+                    continue;
+                }
+                MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (!transition.getMoveStatus().isDone()) {
+                    continue;
+                }
+                if (!zeroing) {
+                    otherMoves = true;
+                    continue;
+                }
+                moveCount++;
+                int value = -search(transition.getTransitionBoard(), false, state);
+                if (state[0] == FAIL) {
+                    return SyzygyTable.DRAW;
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    if (value >= SyzygyTable.WIN) {
+                        state[0] = ZEROING_BEST_MOVE;
+                        return value;
+                    }
+                }
+            }
+
+            boolean noMoreMoves = moveCount > 0 && !otherMoves;
+            int value;
+            if (noMoreMoves) {
+                value = bestValue;
+            } else {
+                value = probeTable(board, false, SyzygyTable.DRAW, state);
+                if (state[0] == FAIL) {
+                    return SyzygyTable.DRAW;
+                }
+            }
+            //The table may hold anything where a capture does as well
+            if (bestValue >= value) {
+                state[0] = bestValue > SyzygyTable.DRAW || noMoreMoves ? ZEROING_BEST_MOVE : OK;
+                return bestValue;
+            }
+            state[0] = OK;
+            return value;
+        }
+
+        /*
+         * Plies to zeroing, signed like the WDL value, with 100 added for the
+         * wins and losses the 50 move rule draws. When the DTZ table has the
+         * other side to move, the distance is the best of the moves' plus one
+        */
+        private int dtz(Board board, int[] state) {
+            int wdl = search(board, true, state);
+            if (state[0] == FAIL || wdl == SyzygyTable.DRAW) {
+                return 0;
+            }
+            if (state[0] == ZEROING_BEST_MOVE) {
+                return dtzBeforeZeroing(wdl);
+            }
+            int dtz = probeTable(board, true, wdl, state);
+            if (state[0] == FAIL) {
+                return 0;
+            }
+            if (dtz != SyzygyTable.CHANGE_SIDE) {
+                boolean fiftyMoves = wdl == SyzygyTable.BLESSED_LOSS || wdl == SyzygyTable.CURSED_WIN;
+                return (dtz + (fiftyMoves ? 100 : 0)) * Integer.signum(wdl);
+            }
+
+            int minDtz = NO_DTZ;
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (!transition.getMoveStatus().isDone()) {
+                    continue;
+                }
+                Board nextBoard = transition.getTransitionBoard();
+                boolean zeroing = move.isAttacked() || move.getMovedPiece().getPieceType() == PieceType.PAWN;
+                //A zeroing move's distance is the one before it, the sign comes from the position after it
+                int moveDtz = zeroing ? -dtzBeforeZeroing(search(nextBoard, false, state)) : -dtz(nextBoard, state);
+                if (state[0] == FAIL) {
+                    return 0;
+                }
+                if (moveDtz == 1 && nextBoard.currentPlayer().isInCheckmate()) {
+                    minDtz = 1;
+                }
+                if (!zeroing) {
+                    moveDtz += Integer.signum(moveDtz);
+                }
+                //Draws are skipped, and a win only takes winning moves
+                if (moveDtz < minDtz && Integer.signum(moveDtz) == Integer.signum(wdl)) {
+                    minDtz = moveDtz;
+                }
+            }
+            //No legal moves: mated
+            return minDtz == NO_DTZ ? -1 : minDtz;
+        }
+
+        private static int dtzBeforeZeroing(int wdl) {
+            switch (wdl) {
+                case SyzygyTable.WIN:
+                    return 1;
+                case SyzygyTable.CURSED_WIN:
+                    return 101;
+                case SyzygyTable.BLESSED_LOSS:
+                    return -101;
+                case SyzygyTable.LOSS:
+                    return -1;
+                default:
+                    return 0;
+            }
+        }
+
+        //The table's value for the position, FAIL in the state if there is no table for it
+        private int probeTable(Board board, boolean probeDtz, int wdl, int[] state) {
+            int[] pieces = new int[64];
+            int[][] counts = new int[2][7];
+            for (Piece piece : board.getWhitePieces()) {
+                place(piece, 0, pieces, counts);
+            }
+            for (Piece piece : board.getBlackPieces()) {
+                place(piece, 8, pieces, counts);
+            }
+            //Bare kings
+            if (board.getWhitePieces().size() + board.getBlackPieces().size() == 2) {
+                return SyzygyTable.DRAW;
+            }
+            String name = nameOf(counts[0]) + "v" + nameOf(counts[1]);
+            SyzygyTable table = this.tables.get(name);
+            if (table == null || (probeDtz && !table.hasDtz())) {
+                state[0] = FAIL;
+                return 0;
+            }
+            return table.probe(pieces, board.currentPlayer().getAlliance().isBlack(), name.equals(table.getName()),
+                               probeDtz, wdl, this.cache);
+        }
+
+        //Puts the piece's code on its square (numbered from a1) and counts it
+        private static void place(Piece piece, int colour, int[] pieces, int[][] counts) {
+            int code;
+            switch (piece.getPieceType()) {
+                case PAWN:
+                    code = 1;
+                    break;
+                case KNIGHT:
+                    code = 2;
+                    break;
+                case BISHOP:
+                    code = 3;
+                    break;
+                case ROOK:
+                    code = 4;
+                    break;
+                case QUEEN:
+                    code = 5;
+                    break;
+                default:
+                    code = 6;
+                    break;
+            }
+            pieces[piece.getPiecePosition() ^ 56] = colour + code;
+            counts[colour / 8][code]++;
+        }
+
+        //One side's letters in the order of the file names, KQRBNP
+        private static String nameOf(int[] counts) {
+            StringBuilder name = new StringBuilder();
+            for (int code = 6; code >= 1; code--) {
+                for (int i = 0; i < counts[code]; i++) {
+                    name.append("PNBRQK".charAt(code - 1));
+                }
+            }
+            return name.toString();
+        }
+
+        /*
+         * Least recently used blocks go first, a LinkedHashMap in access order
+         * does the bookkeeping. Blocks differ in size, so the limit is on the
+         * values kept rather than the blocks
+        */
+        static class BlockCache {
+
+            private final int capacity;
+            private final LinkedHashMap<Long, short[]> blocks = new LinkedHashMap<>(256, 0.75f, true);
+            private int size;
+
+            BlockCache(int capacity) {
+                this.capacity = capacity;
+            }
+
+            synchronized short[] get(long key) {
+                return this.blocks.get(key);
+            }
+
+            synchronized void put(long key, short[] values) {
+                short[] replaced = this.blocks.put(key, values);
+                this.size += values.length - (replaced == null ? 0 : replaced.length);
+                Iterator<short[]> eldest = this.blocks.values().iterator();
+                while (this.size > this.capacity && eldest.hasNext()) {
+                    short[] removed = eldest.next();
+                    if (removed == values) {
+                        break;
+                    }
+                    this.size -= removed.length;
+                    eldest.remove();
+                }
+            }
+        }
+}
@@ -0,0 +1,419 @@
+package engine;
+
+import board.Board;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import pieces.Piece;
+
+/**
+ * Description: Command line tool that tunes EvaluationParameters on positions
+ * labelled with the result of the game they came from (Texel's method). The
+ * evaluation is turned into an expected score with a sigmoid and the mean
+ * squared difference to the real results is minimised with gradient descent
+ * (Adam). Everything the parameters touch is linear, so every position is
+ * read once and packed into flat arrays: the pieces as piece-square indices,
+ * the mobility difference and the fixed pawn structure score. A pass over the
+ * packed positions then needs no Board at all and is split over every core
+ * with fork-join
+ * for more information: https://www.chessprogramming.org/Texel%27s_Tuning_Method
+ *
+ * Usage: java engine.TexelTuner positions output.params [iterations] [start.params]
+ * The positions are either TrainingData records (a file ending in .bin, as
+ * written by SelfPlay) or text, a FEN followed by the result on each line:
+ * "1-0", "0-1", "1/2-1/2" or [1.0], [0.0], [0.5] (for white)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class TexelTuner {
+
+    //Lines read before they are packed in parallel
+    private static final int BATCH_SIZE = 1 << 16;
+    //Positions handled by one task before it stops splitting
+    private static final int LEAF_SIZE = 1 << 13;
+    private static final double LEARNING_RATE = 1.0;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+    //Feature flag for black pieces, below it is the piece-square index without the table offset
+    private static final int BLACK = 1 << 9;
+
+    private final ForkJoinPool pool = new ForkJoinPool();
+    //Results in half points for white (0, 1 or 2)
+    private byte[] results = new byte[1 << 16];
+    //Pawn structure and king shield, not tuned
+    private int[] constants = new int[1 << 16];
+    //White's moves minus black's moves
+    private short[] mobility = new short[1 << 16];
+    //Where each position's features start in features, the last one is the end
+    private int[] offsets = new int[(1 << 16) + 1];
+    private short[] features = new short[1 << 20];
+    private int size;
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.TexelTuner positions output.params [iterations] [start.params]");
+            return;
+        }
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        EvaluationParameters start = args.length > 3 ? EvaluationParameters.load(Paths.get(args[3]))
+                                                     : EvaluationParameters.createDefault();
+
+        TexelTuner tuner = new TexelTuner();
+        long time = System.currentTimeMillis();
+        int skipped = tuner.read(Paths.get(args[0]));
+        System.out.println(String.format("%d positions packed (%d lines skipped) in %.1f s",
+                                         tuner.size(), skipped, (System.currentTimeMillis() - time) / 1000.0));
+        double scale = tuner.fitScale(start);
+        System.out.println(String.format("Scale %.4f, error %.6f", scale, tuner.error(toDoubles(start), scale)));
+        EvaluationParameters tuned = tuner.tune(start, scale, iterations);
+        tuned.save(Paths.get(args[1]));
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    //Packs every readable position of the file, returns how many were skipped
+    public int read(Path path) throws IOException {
+        if (path.toString().endsWith(".bin")) {
+            readRecords(path);
+            return 0;
+        }
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    batch.add(line);
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    skipped += pack(batch);
+                    batch.clear();
+                }
+            }
+            skipped += pack(batch);
+        }
+        return skipped;
+    }
+
+    private void readRecords(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BATCH_SIZE * TrainingData.RECORD_SIZE);
+            while (channel.read(buffer) > 0 || buffer.position() > 0) {
+                buffer.flip();
+                int records = buffer.remaining() / TrainingData.RECORD_SIZE;
+                if (records == 0) {
+                    //A cut off record at the end of the file
+                    break;
+                }
+                short[][] packed = new short[records][];
+                this.pool.invoke(new RecordTask(buffer, packed, 0, records));
+                for (short[] position : packed) {
+                    add(position);
+                }
+                buffer.position(records * TrainingData.RECORD_SIZE);
+                buffer.compact();
+            }
+        }
+    }
+
+    private int pack(List<String> lines) {
+        short[][] packed = new short[lines.size()][];
+        this.pool.invoke(new PackTask(lines, packed, 0, lines.size()));
+        int skipped = 0;
+        for (short[] position : packed) {
+            if (position == null) {
+                skipped++;
+            } else {
+                add(position);
+            }
+        }
+        return skipped;
+    }
+
+    //Record layout from packPosition: result, constant (two halves), mobility, features
+    private void add(short[] position) {
+        if (this.size == this.results.length) {
+            int capacity = this.results.length * 2;
+            this.results = Arrays.copyOf(this.results, capacity);
+            this.constants = Arrays.copyOf(this.constants, capacity);
+            this.mobility = Arrays.copyOf(this.mobility, capacity);
+            this.offsets = Arrays.copyOf(this.offsets, capacity + 1);
+        }
+        int start = this.offsets[this.size];
+        int count = position.length - 4;
+        if (start + count > this.features.length) {
+            this.features = Arrays.copyOf(this.features, Math.max(this.features.length * 2, start + count));
+        }
+        this.results[this.size] = (byte) position[0];
+        this.constants[this.size] = (position[1] << 16) | (position[2] & 0xFFFF);
+        this.mobility[this.size] = position[3];
+        System.arraycopy(position, 4, this.features, start, count);
+        this.offsets[this.size + 1] = start + count;
+        this.size++;
+    }
+
+    //null if the line has no result or the FEN cannot be read
+    static short[] packPosition(String line) {
+        int result;
+        if (line.contains("1/2-1/2") || line.contains("[0.5]")) {
+            result = 1;
+        } else if (line.contains("1-0") || line.contains("[1.0]")) {
+            result = 2;
+        } else if (line.contains("0-1") || line.contains("[0.0]")) {
+            result = 0;
+        } else {
+            return null;
+        }
+        try {
+            return packPosition(Board.fromFen(line), result);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    static short[] packPosition(Board board, int result) {
+        int pieceCount = board.getWhitePieces().size() + board.getBlackPieces().size();
+        short[] position = new short[4 + pieceCount];
+        int constant = PawnStructure.evaluate(board) + PawnStructure.shield(board);
+        position[0] = (short) result;
+        position[1] = (short) (constant >> 16);
+        position[2] = (short) constant;
+        position[3] = (short) (board.whitePlayer().getLegalMoves().size() - board.blackPlayer().getLegalMoves().size());
+        int next = 4;
+        for (Piece piece : board.getWhitePieces()) {
+            position[next++] = feature(piece, true);
+        }
+        for (Piece piece : board.getBlackPieces()) {
+            position[next++] = feature(piece, false);
+        }
+        return position;
+    }
+
+    private static short feature(Piece piece, boolean white) {
+        int index = EvaluationParameters.pieceSquareIndex(piece.getPieceType(), white, piece.getPiecePosition()) -
+                    EvaluationParameters.PIECE_SQUARES;
+        return (short) (white ? index : index | BLACK);
+    }
+
+    public double error(double[] parameters, double scale) {
+        return this.pool.invoke(new GradientTask(parameters, scale, false, 0, this.size))[EvaluationParameters.COUNT] / this.size;
+    }
+
+    //The scale of the sigmoid that fits the starting parameters best (golden section search)
+    public double fitScale(EvaluationParameters parameters) {
+        double[] values = toDoubles(parameters);
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = 0.1;
+        double high = 3.0;
+        double left = high - ratio * (high - low);
+        double right = low + ratio * (high - low);
+        double leftError = error(values, left);
+        double rightError = error(values, right);
+        for (int i = 0; i < 40; i++) {
+            if (leftError < rightError) {
+                high = right;
+                right = left;
+                rightError = leftError;
+                left = high - ratio * (high - low);
+                leftError = error(values, left);
+            } else {
+                low = left;
+                left = right;
+                leftError = rightError;
+                right = low + ratio * (high - low);
+                rightError = error(values, right);
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    public EvaluationParameters tune(EvaluationParameters start, double scale, int iterations) {
+        double[] values = toDoubles(start);
+        double[] firstMoment = new double[values.length];
+        double[] secondMoment = new double[values.length];
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            double[] gradient = this.pool.invoke(new GradientTask(values, scale, true, 0, this.size));
+            for (int i = 0; i < values.length; i++) {
+                double g = gradient[i] / this.size;
+                firstMoment[i] = BETA1 * firstMoment[i] + (1 - BETA1) * g;
+                secondMoment[i] = BETA2 * secondMoment[i] + (1 - BETA2) * g * g;
+                double corrected = firstMoment[i] / (1 - Math.pow(BETA1, iteration));
+                double correctedSecond = secondMoment[i] / (1 - Math.pow(BETA2, iteration));
+                values[i] -= LEARNING_RATE * corrected / (Math.sqrt(correctedSecond) + EPSILON);
+            }
+            if (iteration % 10 == 0 || iteration == iterations) {
+                System.out.println(String.format("Iteration %d, error %.6f",
+                                                 iteration, gradient[EvaluationParameters.COUNT] / this.size));
+            }
+        }
+        int[] rounded = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            rounded[i] = (int) Math.round(values[i]);
+        }
+        return new EvaluationParameters(rounded);
+    }
+
+    private static double[] toDoubles(EvaluationParameters parameters) {
+        double[] values = new double[EvaluationParameters.COUNT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parameters.get(i);
+        }
+        return values;
+    }
+
+    //The same score StandardBoardEvaluator gives, for white
+    private double evaluate(double[] parameters, int position) {
+        double score = this.constants[position] + parameters[EvaluationParameters.MOBILITY] * this.mobility[position];
+        for (int i = this.offsets[position]; i < this.offsets[position + 1]; i++) {
+            int feature = this.features[i];
+            int index = feature & (BLACK - 1);
+            int type = index >>> 6;
+            double value = parameters[EvaluationParameters.PIECE_SQUARES + index];
+            //Types after the queen (the king) have no value
+            if (type < 5) {
+                value += parameters[EvaluationParameters.PIECE_VALUES + type];
+            }
+            score += (feature & BLACK) != 0 ? -value : value;
+        }
+        return score;
+    }
+
+    //Parses and packs a range of lines, unreadable ones are left null
+    private static class PackTask extends RecursiveAction {
+
+        private final List<String> lines;
+        private final short[][] packed;
+        private final int start;
+        private final int end;
+
+        PackTask(List<String> lines, short[][] packed, int start, int end) {
+            this.lines = lines;
+            this.packed = packed;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= LEAF_SIZE / 32) {
+                for (int i = this.start; i < this.end; i++) {
+                    this.packed[i] = packPosition(this.lines.get(i));
+                }
+                return;
+            }
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new PackTask(this.lines, this.packed, this.start, middle),
+                      new PackTask(this.lines, this.packed, middle, this.end));
+        }
+    }
+
+    //Packs a range of TrainingData records, only absolute reads so the buffer can be shared
+    private static class RecordTask extends RecursiveAction {
+
+        private final ByteBuffer buffer;
+        private final short[][] packed;
+        private final int start;
+        private final int end;
+
+        RecordTask(ByteBuffer buffer, short[][] packed, int start, int end) {
+            this.buffer = buffer;
+            this.packed = packed;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= LEAF_SIZE / 32) {
+                for (int i = this.start; i < this.end; i++) {
+                    int offset = i * TrainingData.RECORD_SIZE;
+                    this.packed[i] = packPosition(TrainingData.readBoard(this.buffer, offset),
+                                                  TrainingData.readResult(this.buffer, offset));
+                }
+                return;
+            }
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new RecordTask(this.buffer, this.packed, this.start, middle),
+                      new RecordTask(this.buffer, this.packed, middle, this.end));
+        }
+    }
+
+    /*
+     * Sums the squared error over a range of positions (in the last slot) and,
+     * if asked, its gradient for every parameter. Each task has its own array,
+     * the halves are added together on the way back up
+    */
+    private class GradientTask extends RecursiveTask<double[]> {
+
+        private final double[] parameters;
+        private final double scale;
+        private final boolean withGradient;
+        private final int start;
+        private final int end;
+
+        GradientTask(double[] parameters, double scale, boolean withGradient, int start, int end) {
+            this.parameters = parameters;
+            this.scale = scale;
+            this.withGradient = withGradient;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (this.end - this.start > LEAF_SIZE) {
+                int middle = (this.start + this.end) >>> 1;
+                GradientTask left = new GradientTask(this.parameters, this.scale, this.withGradient, this.start, middle);
+                GradientTask right = new GradientTask(this.parameters, this.scale, this.withGradient, middle, this.end);
+                left.fork();
+                double[] sums = right.compute();
+                double[] leftSums = left.join();
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += leftSums[i];
+                }
+                return sums;
+            }
+
+            double[] sums = new double[EvaluationParameters.COUNT + 1];
+            //d sigmoid / d score = sigmoid * (1 - sigmoid) * this
+            double slope = Math.log(10) * this.scale / 400;
+            for (int position = this.start; position < this.end; position++) {
+                double expected = 1 / (1 + Math.pow(10, -this.scale * evaluate(this.parameters, position) / 400));
+                double difference = results[position] / 2.0 - expected;
+                sums[EvaluationParameters.COUNT] += difference * difference;
+                if (!this.withGradient) {
+                    continue;
+                }
+                double gradient = -2 * difference * expected * (1 - expected) * slope;
+                sums[EvaluationParameters.MOBILITY] += gradient * mobility[position];
+                for (int i = offsets[position]; i < offsets[position + 1]; i++) {
+                    int feature = features[i];
+                    int index = feature & (BLACK - 1);
+                    double signed = (feature & BLACK) != 0 ? -gradient : gradient;
+                    sums[EvaluationParameters.PIECE_SQUARES + index] += signed;
+                    if (index >>> 6 < 5) {
+                        sums[EvaluationParameters.PIECE_VALUES + (index >>> 6)] += signed;
+                    }
+                }
+            }
+            return sums;
+        }
+    }
+}
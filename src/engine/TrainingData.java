@@ -0,0 +1,129 @@
+package engine;
+
+import board.Board;
+import board.Board.Builder;
+import java.nio.ByteBuffer;
+import pieces.Alliance;
+import pieces.Bishop;
+import pieces.King;
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+import pieces.Queen;
+import pieces.Rook;
+
+/**
+ * Description: Fixed size binary records of positions with a search score
+ * and the result of the game, written by SelfPlay and read by TexelTuner (or
+ * any trainer that can read a few bytes). The pieces are stored as an
+ * occupancy mask plus four bits per occupied tile, so a position takes 32
+ * bytes instead of the 60 or so of a FEN
+ *
+ * Record layout (32 bytes, big endian):
+ *   long  occupancy (bit n set if tile n has a piece, tile 0 is a8)
+ *   byte  pieces [16] (4 bits each in tile order, high half first: type + 1, plus 8 for black)
+ *   byte  player to move (0 white, 1 black)
+ *   byte  result in half points for white (0, 1 or 2)
+ *   short score for the player to move in centipawns
+ *   short ply of the game
+ *   short reserved
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public final class TrainingData {
+
+        public static final int RECORD_SIZE = 32;
+        private static final int RESULT_OFFSET = 25;
+
+        private TrainingData() {
+            throw new RuntimeException("Probably should not get here");
+        }
+
+        //Appends one record at the buffer's position, the result can be filled in once the game is over
+        public static void write(ByteBuffer buffer, Board board, int score, int ply, int result) {
+            long occupancy = 0;
+            byte[] pieces = new byte[16];
+            int count = 0;
+            for (int tile = 0; tile < 64; tile++) {
+                Piece piece = board.getTile(tile).getPiece();
+                if (piece == null) {
+                    continue;
+                }
+                occupancy |= 1L << tile;
+                int code = piece.getPieceType().ordinal() + 1 + (piece.getPieceAlliance().isWhite() ? 0 : 8);
+                pieces[count >>> 1] |= (count & 1) == 0 ? code << 4 : code;
+                count++;
+            }
+            buffer.putLong(occupancy);
+            buffer.put(pieces);
+            buffer.put((byte) (board.currentPlayer().getAlliance().isWhite() ? 0 : 1));
+            buffer.put((byte) result);
+            buffer.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+            buffer.putShort((short) ply);
+            buffer.putShort((short) 0);
+        }
+
+        //Fills in the result of the record'th record in the buffer
+        public static void setResult(ByteBuffer buffer, int record, int result) {
+            buffer.put(record * RECORD_SIZE + RESULT_OFFSET, (byte) result);
+        }
+
+        /*
+         * The position of the record starting at offset. Pawns on their
+         * starting rank can still jump, nothing can castle any more
+        */
+        public static Board readBoard(ByteBuffer buffer, int offset) {
+            long occupancy = buffer.getLong(offset);
+            Builder builder = new Builder();
+            int count = 0;
+            for (int tile = 0; tile < 64; tile++) {
+                if ((occupancy & (1L << tile)) == 0) {
+                    continue;
+                }
+                int packed = buffer.get(offset + 8 + (count >>> 1));
+                int code = (count & 1) == 0 ? (packed >>> 4) & 15 : packed & 15;
+                count++;
+                Alliance alliance = code >= 8 ? Alliance.BLACK : Alliance.WHITE;
+                builder.setPiece(createPiece(PieceType.values()[(code & 7) - 1], tile, alliance));
+            }
+            builder.setMoveMaker(buffer.get(offset + 24) == 0 ? Alliance.WHITE : Alliance.BLACK);
+            return builder.build();
+        }
+
+        public static int readResult(ByteBuffer buffer, int offset) {
+            return buffer.get(offset + RESULT_OFFSET);
+        }
+
+        //Replaces the score of the record'th record in the buffer, for labelling positions again
+        public static void setScore(ByteBuffer buffer, int record, int score) {
+            buffer.putShort(record * RECORD_SIZE + 26, (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+        }
+
+        public static int readScore(ByteBuffer buffer, int offset) {
+            return buffer.getShort(offset + 26);
+        }
+
+        public static int readPly(ByteBuffer buffer, int offset) {
+            return buffer.getShort(offset + 28);
+        }
+
+        //Pawns on their starting rank can still jump, nothing can castle
+        static Piece createPiece(PieceType type, int tile, Alliance alliance) {
+            switch (type) {
+                case PAWN:
+                    return new Pawn(tile, alliance, tile >>> 3 == (alliance.isWhite() ? 6 : 1));
+                case KNIGHT:
+                    return new Knight(tile, alliance, false);
+                case BISHOP:
+                    return new Bishop(tile, alliance, false);
+                case ROOK:
+                    return new Rook(tile, alliance, false);
+                case QUEEN:
+                    return new Queen(tile, alliance, false);
+                default:
+                    return new King(tile, alliance, false, false, false, false);
+            }
+        }
+}
@@ -0,0 +1,209 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Description: Fixed size hash table of search results, indexed by the board's
+ * Zobrist key. Each entry is two longs in one flat array: the key XOR the data,
+ * then the data. An entry torn by two threads writing at once no longer
+ * matches its key and is just treated as a miss, so one table can be shared
+ * between search threads without locks
+ * for more information: https://www.chessprogramming.org/Transposition_Table
+ * and https://www.chessprogramming.org/Shared_Hash_Table#Lockless
+ *
+ * Data layout: score (32 bits) | depth (8) | bound (2) | move (16)
+ *
+ * A table can be saved to a file and loaded again, so a long analysis can
+ * pick up where it left off. The file is the array as it is, copied through
+ * a memory mapping, after a header:
+ *   int   magic "JTT1"
+ *   int   version
+ *   long  entries (the size of the table it came from)
+ *   long  CRC32 of everything after the header
+ *   long  unused
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class TranspositionTable {
+
+        public static final int EXACT = 1;
+        //The real score is at least this (the search failed high)
+        public static final int LOWER_BOUND = 2;
+        //The real score is at most this (the search failed low)
+        public static final int UPPER_BOUND = 3;
+
+        private static final int MAGIC = 0x4A545431; //"JTT1"
+        //2: castling keys per castle side
+        private static final int VERSION = 2;
+        private static final int HEADER_SIZE = 32;
+        //A mapping can be at most 2 GB, so big tables are copied 1 GB at a time
+        private static final int SEGMENT_LONGS = 1 << 27;
+
+        private final long[] entries;
+        private final int mask;
+
+        //The size is rounded down to a power of two so the index is just a mask
+        public TranspositionTable(int entries) {
+            int size = Integer.highestOneBit(Math.max(entries, 1));
+            this.entries = new long[2 * size];
+            this.mask = size - 1;
+        }
+
+        //Returns the data stored for the key, 0 if there is none (a real entry always has a bound, so it is never 0)
+        public long probe(long key) {
+            int index = 2 * ((int) key & this.mask);
+            long data = this.entries[index + 1];
+            return (this.entries[index] ^ data) == key ? data : 0;
+        }
+
+        //A different position always replaces, the same one only keeps the deeper result
+        public void store(long key, int score, int depth, int bound, int move) {
+            int index = 2 * ((int) key & this.mask);
+            long oldData = this.entries[index + 1];
+            if ((this.entries[index] ^ oldData) == key && depthOf(oldData) > depth && bound != EXACT) {
+                return;
+            }
+            long data = (score & 0xFFFFFFFFL) |
+                        ((long) (depth & 0xFF) << 32) |
+                        ((long) (bound & 0x3) << 40) |
+                        ((long) (move & 0xFFFF) << 42);
+            this.entries[index] = key ^ data;
+            this.entries[index + 1] = data;
+        }
+
+        public void clear() {
+            for (int i = 0; i < this.entries.length; i++) {
+                this.entries[i] = 0;
+            }
+        }
+
+        public int size() {
+            return this.entries.length / 2;
+        }
+
+        /*
+         * Writes the table to the file, replacing it. Searches can go on while
+         * it is saved, an entry they change halfway through is saved torn and
+         * is a miss after loading
+        */
+        public void save(Path path) throws IOException {
+            long dataSize = 8L * this.entries.length;
+            CRC32 checksum = new CRC32();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int first = 0; first < this.entries.length; first += SEGMENT_LONGS) {
+                    int length = Math.min(SEGMENT_LONGS, this.entries.length - first);
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + 8L * first, 8L * length);
+                    segment.asLongBuffer().put(this.entries, first, length);
+                    checksum.update(segment);
+                }
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.putLong(size());
+                header.putLong(checksum.getValue());
+                header.putLong(0);
+                header.force();
+                if (channel.size() != HEADER_SIZE + dataSize) {
+                    throw new IOException("Could not write the whole table to " + path);
+                }
+            }
+        }
+
+        /*
+         * Replaces everything in the table with a saved table. One saved from
+         * a table of the same size is copied straight in. Otherwise every
+         * entry is stored again, its key is still there (the first long XOR
+         * the data), so nothing but the entries that collide is lost. The table
+         * is left empty if the file turns out to be damaged
+        */
+        public void load(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_SIZE) {
+                    throw new IOException("Not a transposition table file: " + path);
+                }
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Not a transposition table file: " + path);
+                }
+                int version = header.getInt();
+                if (version != VERSION) {
+                    throw new IOException("Transposition table file is version " + version + ", expected " + VERSION + ": " + path);
+                }
+                long savedSize = header.getLong();
+                long savedChecksum = header.getLong();
+                if (savedSize <= 0 || Long.bitCount(savedSize) != 1 || channel.size() != HEADER_SIZE + 16 * savedSize) {
+                    throw new IOException("Transposition table file has the wrong size: " + path);
+                }
+
+                clear();
+                CRC32 checksum = new CRC32();
+                long savedLongs = 2 * savedSize;
+                for (long first = 0; first < savedLongs; first += SEGMENT_LONGS) {
+                    int length = (int) Math.min(SEGMENT_LONGS, savedLongs - first);
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + 8 * first, 8L * length);
+                    LongBuffer longs = segment.asLongBuffer();
+                    checksum.update(segment);
+                    if (savedSize == size()) {
+                        longs.get(this.entries, (int) first, length);
+                    } else {
+                        for (int i = 0; i < length; i += 2) {
+                            long data = longs.get(i + 1);
+                            if (data != 0) {
+                                store(longs.get(i) ^ data, scoreOf(data), depthOf(data), boundOf(data), moveOf(data));
+                            }
+                        }
+                    }
+                }
+                if (checksum.getValue() != savedChecksum) {
+                    clear();
+                    throw new IOException("Transposition table file is damaged (checksum does not match): " + path);
+                }
+            }
+        }
+
+        public static int scoreOf(long data) {
+            return (int) data;
+        }
+
+        public static int depthOf(long data) {
+            return (int) (data >>> 32) & 0xFF;
+        }
+
+        public static int boundOf(long data) {
+            return (int) (data >>> 40) & 0x3;
+        }
+
+        public static int moveOf(long data) {
+            return (int) (data >>> 42) & 0xFFFF;
+        }
+
+        //Tile to tile is enough to find a move again (promotions are always to a queen), 0 means no move
+        public static int encodeMove(Move move) {
+            return move == null ? 0 : (move.getCurrentCoordinate() << 6 | move.getDestinationCoordinate()) + 1;
+        }
+
+        //Returns the legal move matching an encoded move, null if there is none
+        public static Move findMove(Board board, int encodedMove) {
+            if (encodedMove == 0) {
+                return null;
+            }
+            int current = (encodedMove - 1) >>> 6;
+            int destination = (encodedMove - 1) & 63;
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                if (move.getCurrentCoordinate() == current && move.getDestinationCoordinate() == destination) {
+                    return move;
+                }
+            }
+            return null;
+        }
+}
@@ -0,0 +1,310 @@
+package engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: Command line tool that spreads a batch of tasks (games to
+ * play, positions to analyse) over worker JVMs, which scales past one JVM's
+ * garbage collector and memory. It starts the local workers itself and, given
+ * a port, also takes workers from other machines that connect to it; both
+ * speak the WorkerProcess protocol. Every worker is kept a couple of tasks
+ * ahead. When a worker runs dry and the queue is empty it steals an unstarted
+ * task from the worker with the most waiting: the task is cancelled there
+ * and, once the worker confirms it had not started, sent straight to the
+ * worker that asked for it. A worker that dies gives its tasks back to the
+ * queue, and a local one is started again
+ *
+ * Usage: java engine.WorkCoordinator tasks.txt results.txt [workers] [port]
+ * Each line of tasks.txt is a task, its type then its payload (see
+ * WorkerProcess). results.txt gets one line per task in the same order:
+ * the task, a tab, then its result
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class WorkCoordinator {
+
+    //Tasks sent ahead to each worker, so it never waits for the next one
+    private static final int PREFETCH = 2;
+    private static final int MAX_RESTARTS = 10;
+
+    private final List<String> tasks;
+    private final String[] results;
+    private final Deque<Integer> queue = new ArrayDeque<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private int finished;
+    private int restarts;
+
+    public WorkCoordinator(List<String> tasks) {
+        this.tasks = tasks;
+        this.results = new String[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            this.queue.addLast(i);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java engine.WorkCoordinator tasks.txt results.txt [workers] [port]");
+            return;
+        }
+        List<String> tasks = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                tasks.add(line.trim());
+            }
+        }
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        WorkCoordinator coordinator = new WorkCoordinator(tasks);
+        if (args.length > 3) {
+            coordinator.listen(Integer.parseInt(args[3]));
+        }
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < workers; i++) {
+            coordinator.startLocalWorker();
+        }
+        coordinator.awaitResults();
+        coordinator.writeResults(Paths.get(args[1]));
+        System.out.println(String.format("%d tasks in %.1f s", tasks.size(), (System.currentTimeMillis() - start) / 1000.0));
+        System.exit(0);
+    }
+
+    //A new JVM running WorkerProcess, with this JVM's classpath
+    public void startLocalWorker() throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                                    WorkerProcess.class.getName());
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        Process process = builder.start();
+        new Connection(process, process.getInputStream(), process.getOutputStream()).start();
+    }
+
+    //Takes workers from other machines on a background thread
+    public void listen(int port) throws IOException {
+        final ServerSocket server = new ServerSocket(port);
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        Socket socket = server.accept();
+                        new Connection(null, socket.getInputStream(), socket.getOutputStream()).start();
+                    } catch (IOException e) {
+                        System.out.println("Could not accept a worker: " + e.getMessage());
+                    }
+                }
+            }
+        }, "Worker acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public synchronized void awaitResults() throws InterruptedException {
+        while (this.finished < this.results.length) {
+            wait();
+        }
+        for (Connection connection : this.connections) {
+            connection.send("quit");
+        }
+    }
+
+    public synchronized void writeResults(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < this.results.length; i++) {
+            lines.add(this.tasks.get(i) + "\t" + this.results[i]);
+        }
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    private synchronized void finish(Connection connection, int task, String result) {
+        connection.sent.remove(task);
+        //The task being stolen had started after all, the worker will also say running
+        if (task == connection.stolenTask) {
+            connection.thief = null;
+        }
+        //A task that was stolen and started anyway may finish twice, the first answer stays
+        if (this.results[task] == null) {
+            this.results[task] = result;
+            this.finished++;
+            if (this.finished % 10 == 0 || this.finished == this.results.length) {
+                System.out.println(this.finished + " of " + this.results.length + " tasks done");
+            }
+            notifyAll();
+        }
+        dispatchAll();
+    }
+
+    //The stolen task goes to the worker it was stolen for, through the queue only if that one has gone or been filled
+    private synchronized void cancelled(Connection connection, int task) {
+        connection.sent.remove(task);
+        Connection thief = task == connection.stolenTask ? connection.thief : null;
+        connection.thief = null;
+        if (this.results[task] != null) {
+            return;
+        }
+        if (thief != null && this.connections.contains(thief) && thief.sent.size() < PREFETCH) {
+            thief.sent.put(task, this.tasks.get(task));
+            thief.send("task " + task + " " + this.tasks.get(task));
+        } else {
+            this.queue.addFirst(task);
+            dispatchAll();
+        }
+    }
+
+    //The task could not be stolen, the worker that wanted it looks for another
+    private synchronized void running(Connection connection, int task) {
+        if (task != connection.stolenTask || connection.thief == null) {
+            return;
+        }
+        Connection thief = connection.thief;
+        connection.thief = null;
+        if (this.connections.contains(thief)) {
+            dispatch(thief);
+        }
+    }
+
+    //Gives the worker's tasks back and starts a new local worker in its place
+    private synchronized void lost(Connection connection) {
+        if (!this.connections.remove(connection) || this.finished == this.results.length) {
+            return;
+        }
+        for (int task : connection.sent.keySet()) {
+            if (this.results[task] == null) {
+                this.queue.addFirst(task);
+            }
+        }
+        connection.sent.clear();
+        System.out.println("Lost a worker with " + this.connections.size() + " left");
+        if (connection.process != null && this.restarts < MAX_RESTARTS) {
+            this.restarts++;
+            try {
+                startLocalWorker();
+            } catch (IOException e) {
+                System.out.println("Could not restart a worker: " + e.getMessage());
+            }
+        }
+        dispatchAll();
+    }
+
+    private synchronized void dispatchAll() {
+        for (Connection connection : this.connections) {
+            dispatch(connection);
+        }
+    }
+
+    //Tops the worker up from the queue, or steals for it if the queue is empty and it has nothing
+    private synchronized void dispatch(Connection connection) {
+        while (connection.sent.size() < PREFETCH && !this.queue.isEmpty()) {
+            int task = this.queue.pollFirst();
+            if (this.results[task] == null) {
+                connection.sent.put(task, this.tasks.get(task));
+                connection.send("task " + task + " " + this.tasks.get(task));
+            }
+        }
+        if (!connection.sent.isEmpty()) {
+            return;
+        }
+        //The first task sent to a worker is the one it is running, anything after it is still waiting
+        Connection victim = null;
+        for (Connection other : this.connections) {
+            if (other.thief == connection) {
+                //Already stealing for this worker
+                return;
+            }
+            if (other.thief == null && other.sent.size() > 1 && (victim == null || other.sent.size() > victim.sent.size())) {
+                victim = other;
+            }
+        }
+        if (victim != null) {
+            int last = -1;
+            for (int task : victim.sent.keySet()) {
+                last = task;
+            }
+            victim.thief = connection;
+            victim.stolenTask = last;
+            victim.send("cancel " + last);
+        }
+    }
+
+    //One worker, local (with its process) or remote, and a thread reading its messages
+    private class Connection implements Runnable {
+
+        private final Process process;
+        private final InputStream input;
+        private final PrintWriter output;
+        //Sent and not finished, in the order they were sent
+        private final Map<Integer, String> sent = new LinkedHashMap<>();
+        //The worker a cancel on its way here is stealing for, one at a time is enough
+        private Connection thief;
+        private int stolenTask = -1;
+
+        Connection(Process process, InputStream input, OutputStream output) {
+            this.process = process;
+            this.input = input;
+            this.output = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), true);
+        }
+
+        void start() {
+            synchronized (WorkCoordinator.this) {
+                connections.add(this);
+            }
+            Thread reader = new Thread(this, "Worker connection");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        synchronized void send(String message) {
+            this.output.println(message);
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(this.input, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(" ", 3);
+                    if (parts[0].equals("ready")) {
+                        synchronized (WorkCoordinator.this) {
+                            dispatch(this);
+                        }
+                    } else if (parts[0].equals("result") && parts.length == 3) {
+                        finish(this, Integer.parseInt(parts[1]), parts[2]);
+                    } else if (parts[0].equals("error") && parts.length == 3) {
+                        finish(this, Integer.parseInt(parts[1]), "error " + parts[2]);
+                    } else if (parts[0].equals("cancelled") && parts.length == 2) {
+                        cancelled(this, Integer.parseInt(parts[1]));
+                    } else if (parts[0].equals("running") && parts.length == 2) {
+                        running(this, Integer.parseInt(parts[1]));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                //Treated like the worker dying, its tasks go to the others
+            }
+            if (this.process != null) {
+                this.process.destroy();
+            }
+            lost(this);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package engine;
+
+import board.Board;
+import board.Move;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Description: A worker for WorkCoordinator, one JVM running one task at a
+ * time. It talks to the coordinator through its standard input and output,
+ * or with --connect host:port through a socket (for workers on other
+ * machines), one line per message:
+ *
+ *   coordinator to worker:  task id type payload | cancel id | quit
+ *   worker to coordinator:  ready | result id text | error id text | cancelled id | running id
+ *
+ * Tasks it has been sent but not started wait in a queue, so the coordinator
+ * can take one back (cancel) and give it to a worker with nothing to do.
+ * Every cancel is answered: cancelled if the task was taken out of the queue,
+ * running if it had already started (or finished) and will still be done.
+ * Task types:
+ *   analyse config|moves         the best move and score after the SAN moves
+ *   game    white|black|moves    plays a game from the moves, the result is 1-0, 0-1 or 1/2-1/2
+ * The configurations are EngineConfiguration lines
+ *
+ * Usage: java engine.WorkerProcess [--connect host:port]
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class WorkerProcess {
+
+    private static final int MAX_PLIES = 300;
+
+    private final PrintWriter out;
+    private final Deque<String[]> waiting = new ArrayDeque<>();
+    private boolean quit;
+
+    public WorkerProcess(OutputStream output) {
+        this.out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), true);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        InputStream input = System.in;
+        OutputStream output = System.out;
+        if (args.length == 2 && args[0].equals("--connect")) {
+            String[] address = args[1].split(":");
+            Socket socket = new Socket(address[0], Integer.parseInt(address[1]));
+            input = socket.getInputStream();
+            output = socket.getOutputStream();
+        }
+        //Nothing else may write to the output, it belongs to the protocol
+        System.setOut(System.err);
+        new WorkerProcess(output).run(input);
+    }
+
+    //Reads messages on this thread and runs tasks on another until quit or the input closes
+    public void run(final InputStream input) throws InterruptedException {
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                read(input);
+            }
+        }, "Worker input");
+        reader.setDaemon(true);
+        reader.start();
+        send("ready");
+
+        while (true) {
+            String[] task;
+            synchronized (this) {
+                while (this.waiting.isEmpty() && !this.quit) {
+                    wait();
+                }
+                if (this.quit) {
+                    return;
+                }
+                task = this.waiting.pollFirst();
+            }
+            try {
+                send("result " + task[0] + " " + execute(task[1], task[2]));
+            } catch (Exception e) {
+                send("error " + task[0] + " " + e);
+            }
+        }
+    }
+
+    private void read(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ", 4);
+                if (parts[0].equals("task") && parts.length == 4) {
+                    synchronized (this) {
+                        this.waiting.addLast(new String[] {parts[1], parts[2], parts[3]});
+                        notifyAll();
+                    }
+                } else if (parts[0].equals("cancel") && parts.length == 2) {
+                    cancel(parts[1]);
+                } else if (parts[0].equals("quit")) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            //The coordinator is gone, there is nobody to report to
+        }
+        synchronized (this) {
+            this.quit = true;
+            notifyAll();
+        }
+    }
+
+    //Gives a task back if it has not started, a task that has started just finishes
+    private synchronized void cancel(String id) {
+        for (String[] task : this.waiting) {
+            if (task[0].equals(id)) {
+                this.waiting.remove(task);
+                send("cancelled " + id);
+                return;
+            }
+        }
+        send("running " + id);
+    }
+
+    private synchronized void send(String message) {
+        this.out.println(message);
+    }
+
+    static String execute(String type, String payload) throws IOException {
+        String[] fields = payload.split("\\|", -1);
+        if (type.equals("analyse") && fields.length == 2) {
+            Board board = openingOrFail(fields[1]);
+            AlphaBeta search = EngineConfiguration.parse(fields[0]).createSearch();
+            Move move = search.execute(board);
+            List<PrincipalVariation> lines = search.getPrincipalVariations();
+            return move + " " + (lines.isEmpty() ? 0 : lines.get(0).getScore());
+        }
+        if (type.equals("game") && fields.length == 3) {
+            return playGame(EngineConfiguration.parse(fields[0]).createSearch(),
+                            EngineConfiguration.parse(fields[1]).createSearch(), openingOrFail(fields[2]));
+        }
+        throw new IllegalArgumentException("Unknown task: " + type + " " + payload);
+    }
+
+    private static Board openingOrFail(String moves) {
+        Board board = MatchRunner.playOpening(moves);
+        if (board == null) {
+            throw new IllegalArgumentException("Cannot play the moves " + moves);
+        }
+        return board;
+    }
+
+    private static String playGame(AlphaBeta white, AlphaBeta black, Board board) {
+        GameAdjudicator adjudicator = new GameAdjudicator(MAX_PLIES);
+        while (true) {
+            int result = adjudicator.result(board, GameAdjudicator.legalMoves(board));
+            if (result == GameAdjudicator.WHITE_WINS) {
+                return "1-0";
+            } else if (result == GameAdjudicator.BLACK_WINS) {
+                return "0-1";
+            } else if (result == GameAdjudicator.DRAW) {
+                return "1/2-1/2";
+            }
+            Move move = (board.currentPlayer().getAlliance().isWhite() ? white : black).execute(board);
+            adjudicator.moveMade(move);
+            board = board.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+    }
+}
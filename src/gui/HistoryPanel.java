@@ -44,51 +44,28 @@ public class HistoryPanel extends JPanel {
             int currentRow = 0;
             this.model.clear(); //Clears move log
             
-            //Adds all the moves to the move log
-            for (Move move : moveLog.getMoves()) {
-                String moveText = move.toString();
+            //Adds all the moves to the move log, the SAN already has its check and mate signs
+            List<Move> moves = moveLog.getMoves();
+            List<String> sanMoves = moveLog.getSanMoves();
+            for (int i = 0; i < moves.size(); i++) {
+                String moveText = sanMoves.get(i);
                 //The move will be added to column 1 if the move was made by white
-                if(move.getMovedPiece().getPieceAlliance().isWhite()) {
+                if(moves.get(i).getMovedPiece().getPieceAlliance().isWhite()) {
                     this.model.setValueAt(moveText, currentRow, 0);
                 } 
                 //The move will be added to column 2 if the move was made by black
-                else if (move.getMovedPiece().getPieceAlliance().isBlack()) {
+                else {
                     this.model.setValueAt(moveText, currentRow, 1);
                     //Moves on to next row since both sides made their move
                     currentRow++;
                 }
             }
             
-            //Makes sure there are no ArrayOutOfBoundsExceptions
-            if (moveLog.getMoves().size() > 0) {
-                
-                Move lastMove = moveLog.getMoves().get(moveLog.size() - 1);
-                String moveText = lastMove.toString();
-                
-                //Updates the move text in case of check/checkmate
-                if (lastMove.getMovedPiece().getPieceAlliance().isWhite()) {
-                    this.model.setValueAt(moveText + calculateCheckAndCheckmateHash(board), currentRow, 0);
-                } else if (lastMove.getMovedPiece().getPieceAlliance().isBlack()) {
-                    this.model.setValueAt(moveText + calculateCheckAndCheckmateHash(board), currentRow - 1, 1);
-                }
-            }
-            
             JScrollBar vertical = scrollPane.getVerticalScrollBar();
             vertical.setValue(vertical.getMaximum());
             
         }
         
-        //Adds symbol for check/checkmate
-        private String calculateCheckAndCheckmateHash(Board board) {
-            if(board.currentPlayer().isInCheckmate()) {
-                return "#";
-            } else if (board.currentPlayer().isInCheck()) {
-                return "+";
-            } else {
-                return "";
-            }
-        }
-        
         private static class DataModel extends DefaultTableModel {
             private final List<Row> values;
             private final static String[] NAMES = {"White", "Black"};
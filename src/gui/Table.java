@@ -5,6 +5,17 @@ import board.Move;
 import board.Tile;
 import board.BoardUtils;
 import com.google.common.collect.Lists;
+import engine.AlphaBeta;
+import engine.Bitbases;
+import engine.EngineConfiguration;
+import engine.EndgameProbe;
+import engine.GameAnnotator;
+import engine.PolyglotBook;
+import engine.PolyglotKeys;
+import engine.Ponderer;
+import engine.StandardBoardEvaluator;
+import engine.Tablebases;
+import engine.TranspositionTable;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -15,7 +26,20 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
 import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import pgn.AlgebraicNotation;
+import pgn.GameSink;
+import pgn.ImportedGame;
+import pgn.PgnImporter;
+import pgn.PgnGame;
+import pgn.PgnReader;
+import pgn.PgnWriter;
 import javax.swing.*;
 import javax.swing.SwingUtilities;
 import java.util.List;
@@ -46,6 +70,18 @@ public class Table {
         private Tile sourceTile;
         private Piece humanMovedPiece;
         private BoardDirection boardDirection;
+        private boolean computerPlaysBlack;
+        private boolean ponderEnabled;
+        //Shared by every search of this game, so pondering and thinking build on each other
+        private final TranspositionTable transpositionTable;
+        private final Ponderer ponderer;
+        //Opening moves come from here while the game is in the book, null if no book is loaded
+        private PolyglotBook openingBook;
+        //Perfect endgame knowledge for the computer, null if none is loaded
+        private EndgameProbe endgameProbe;
+        //How far the computer looks ahead, pondering may get further before the human moves
+        private static final int COMPUTER_DEPTH = 4;
+        private static final int PONDER_DEPTH = 6;
         
         public Table() {
             gameFrame = new JFrame("Chess");
@@ -53,6 +89,8 @@ public class Table {
             gameFrame.setLayout(new BorderLayout());
             gameFrame.setJMenuBar(populateMenuBar()); 
             highlightLegalMoves = false;
+            transpositionTable = new TranspositionTable(1 << 20);
+            ponderer = new Ponderer();
             chessBoard = Board.createStandardBoard();
             historyPanel = new HistoryPanel();
             //takenPiecesPanel = new TakenPiecesPanel();
@@ -79,19 +117,85 @@ public class Table {
         //Sets up the file dropdown menu
         private JMenu createFileMenu() {
             
-            //Unfortunately, I did not get enough time to make this work properly
-            /*
-            JMenuItem openPGN = new JMenuItem("Load PGN (broken)");
+            JMenu fileMenu = new JMenu("File");
+            
+            //Checks every game in the file and shows the first one that can be played through
+            JMenuItem openPGN = new JMenuItem("Load PGN...");
             openPGN.addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    System.out.println("");
+                    JFileChooser chooser = new JFileChooser();
+                    if (chooser.showOpenDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    loadPgn(chooser.getSelectedFile().toPath());
                 }
             });
-            fileMenu.add(openPGN);
-            */
             
-            JMenu fileMenu = new JMenu("File");
+            JMenuItem savePGN = new JMenuItem("Save PGN...");
+            savePGN.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JFileChooser chooser = new JFileChooser();
+                    if (chooser.showSaveDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    try (PgnWriter writer = PgnWriter.create(chooser.getSelectedFile().toPath())) {
+                        Map<String, String> tags = new LinkedHashMap<>();
+                        tags.put("Event", "Casual game");
+                        tags.put("Date", new SimpleDateFormat("yyyy.MM.dd").format(new Date()));
+                        writer.writeGame(tags, log.getMoves(), gameResult());
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not save the game: " + ex.getMessage());
+                    }
+                }
+            });
+            
+            //Searches every position of the game in the background, then saves it with the bad moves marked
+            JMenuItem annotatePGN = new JMenuItem("Save annotated PGN...");
+            annotatePGN.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JFileChooser chooser = new JFileChooser();
+                    if (chooser.showSaveDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    annotateGame(chooser.getSelectedFile().toPath());
+                }
+            });
+            
+            //The search's table can be kept between runs, so a long analysis does not start cold
+            JMenuItem saveTable = new JMenuItem("Save hash table...");
+            saveTable.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JFileChooser chooser = new JFileChooser();
+                    if (chooser.showSaveDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    try {
+                        transpositionTable.save(chooser.getSelectedFile().toPath());
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not save the hash table: " + ex.getMessage());
+                    }
+                }
+            });
+            
+            JMenuItem loadTable = new JMenuItem("Load hash table...");
+            loadTable.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JFileChooser chooser = new JFileChooser();
+                    if (chooser.showOpenDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    try {
+                        transpositionTable.load(chooser.getSelectedFile().toPath());
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not load the hash table: " + ex.getMessage());
+                    }
+                }
+            });
             
             JMenuItem newGame = new JMenuItem("New Game");
             newGame.addActionListener(new ActionListener() {
@@ -101,6 +205,44 @@ public class Table {
                 }
             });
             
+            //Any standard Polyglot .bin book
+            JMenuItem openBook = new JMenuItem("Load opening book...");
+            openBook.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JFileChooser chooser = new JFileChooser();
+                    if (chooser.showOpenDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    File bookFile = chooser.getSelectedFile();
+                    try {
+                        openingBook = PolyglotBook.open(bookFile.toPath(), PolyglotKeys.STANDARD);
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not load the opening book: " + ex.getMessage());
+                    }
+                }
+            });
+            
+            //A directory of Syzygy tablebases, or of bitbases made by engine.BitbaseGenerator
+            JMenuItem openBitbases = new JMenuItem("Load endgame tables...");
+            openBitbases.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JFileChooser chooser = new JFileChooser();
+                    chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+                    if (chooser.showOpenDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                        return;
+                    }
+                    try {
+                        Path directory = chooser.getSelectedFile().toPath();
+                        Tablebases tablebases = Tablebases.load(directory);
+                        endgameProbe = tablebases.size() > 0 ? tablebases : Bitbases.load(directory);
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not load the endgame tables: " + ex.getMessage());
+                    }
+                }
+            });
+            
             JMenuItem exit = new JMenuItem("Exit");
             exit.addActionListener(new ActionListener() {
                 @Override
@@ -110,6 +252,13 @@ public class Table {
             });
             
             fileMenu.add(newGame);
+            fileMenu.add(openPGN);
+            fileMenu.add(savePGN);
+            fileMenu.add(annotatePGN);
+            fileMenu.add(openBook);
+            fileMenu.add(openBitbases);
+            fileMenu.add(saveTable);
+            fileMenu.add(loadTable);
             fileMenu.addSeparator();
             fileMenu.add(exit);
             
@@ -141,9 +290,37 @@ public class Table {
                 }
             });
             
+            JCheckBoxMenuItem computerBox = new JCheckBoxMenuItem("Play against computer (Black)", false);
+            computerBox.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    computerPlaysBlack = computerBox.isSelected();
+                    if (isComputerTurn()) {
+                        makeComputerMove();
+                    } else if (!computerPlaysBlack) {
+                        ponderer.miss();
+                    }
+                }
+            });
+            
+            //The computer keeps thinking about its next move while the human thinks
+            JCheckBoxMenuItem ponderBox = new JCheckBoxMenuItem("Computer thinks on my time", false);
+            ponderBox.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    ponderEnabled = ponderBox.isSelected();
+                    if (!ponderEnabled) {
+                        ponderer.miss();
+                    }
+                }
+            });
+            
             preferencesMenu.add(flipBoardMenuItem);
             preferencesMenu.addSeparator();
             preferencesMenu.add(highlightBox);
+            preferencesMenu.addSeparator();
+            preferencesMenu.add(computerBox);
+            preferencesMenu.add(ponderBox);
             
             return preferencesMenu;
             
@@ -216,17 +393,33 @@ public class Table {
         //This is a record of all the moves played used by the history panel
         public static class MoveLog {
             List<Move> moves;
+            //Each move's SAN, worked out once when it is added instead of on every redraw
+            List<String> sanMoves;
             
             MoveLog() {
                 this.moves = new ArrayList<>();
+                this.sanMoves = new ArrayList<>();
             }
             
             public List<Move> getMoves() {
                 return this.moves;
             }
             
-            public void addMove(Move move) {
+            public List<String> getSanMoves() {
+                return this.sanMoves;
+            }
+            
+            //after is the board the move led to, it gives the check or mate sign
+            public void addMove(Move move, Board after) {
                 this.moves.add(move);
+                StringBuilder san = new StringBuilder(8);
+                try {
+                    AlgebraicNotation.writeMove(move.getBoard(), move, after, san);
+                } catch (IOException e) {
+                    //A StringBuilder never throws
+                    throw new RuntimeException(e);
+                }
+                this.sanMoves.add(san.toString());
             }
             
             public int size() {
@@ -235,15 +428,22 @@ public class Table {
             
             public void clear() {
                 this.moves.clear();
+                this.sanMoves.clear();
             }
             
             //These two were built for the undo option which I never started on
             public Move removeMove(int index) {
+                this.sanMoves.remove(index);
                 return this.moves.remove(index);
             }
             
             public boolean removeMove(Move move) {
-                return this.moves.remove(move);
+                int index = this.moves.indexOf(move);
+                if (index < 0) {
+                    return false;
+                }
+                removeMove(index);
+                return true;
             }
             
         }
@@ -265,6 +465,11 @@ public class Table {
                     @Override
                     public void mouseClicked(MouseEvent e) {
                         
+                        //The human has to wait while the computer is thinking
+                        if (isComputerTurn()) {
+                            return;
+                        }
+                        
                         //Right mouse button resets everything
                         if(SwingUtilities.isRightMouseButton(e)) {
                             sourceTile = null;
@@ -289,7 +494,7 @@ public class Table {
                                 //Check if the move is legal or not
                                 if (trans.getMoveStatus().isDone()) {
                                     chessBoard = trans.getTransitionBoard();
-                                    log.addMove(move);
+                                    log.addMove(move, chessBoard);
                                 }
                                 sourceTile = null;
                                 humanMovedPiece = null;
@@ -300,37 +505,7 @@ public class Table {
                         SwingUtilities.invokeLater(new Runnable() {
                             @Override
                             public void run() {
-                                historyPanel.redo(chessBoard, log);
-                                //takenPiecesPanel.redo(log);
-                                boardPanel.drawBoard(chessBoard);
-                                //Checks for checkmate
-                                if (chessBoard.currentPlayer().isInCheckmate()) {
-                                    JOptionPane.showMessageDialog(null, "Checkmate!");
-                                    
-                                    //Checks for player choice of new game
-                                    int decision = JOptionPane.showConfirmDialog(null, 
-                                                   "Would you like to play a new game?", 
-                                                   "Good game!", 
-                                                   JOptionPane.YES_NO_OPTION);
-                                    if (decision == 1) {
-                                        close();
-                                    } else if (decision == 0) {
-                                        newGame();
-                                    }
-                                } else if (chessBoard.currentPlayer().isInStalemate()) {
-                                    JOptionPane.showMessageDialog(null, "Stalemate!");
-                                    
-                                    //Checks for player choice of new game
-                                    int decision = JOptionPane.showConfirmDialog(null, 
-                                                   "Would you like to play a new game?", 
-                                                   "Good game!", 
-                                                   JOptionPane.YES_NO_OPTION);
-                                    if (decision == 1) {
-                                        close();
-                                    } else if (decision == 0) {
-                                        newGame();
-                                    }
-                                }
+                                endMove();
                             }
                             
                         });
@@ -432,12 +607,212 @@ public class Table {
             
         }
         
+        //Redraws everything after a move and checks if the game is over
+        private void endMove() {
+            historyPanel.redo(chessBoard, log);
+            //takenPiecesPanel.redo(log);
+            boardPanel.drawBoard(chessBoard);
+            //Checks for checkmate
+            if (chessBoard.currentPlayer().isInCheckmate()) {
+                JOptionPane.showMessageDialog(null, "Checkmate!");
+                
+                //Checks for player choice of new game
+                int decision = JOptionPane.showConfirmDialog(null, 
+                               "Would you like to play a new game?", 
+                               "Good game!", 
+                               JOptionPane.YES_NO_OPTION);
+                if (decision == 1) {
+                    close();
+                } else if (decision == 0) {
+                    newGame();
+                }
+            } else if (chessBoard.currentPlayer().isInStalemate()) {
+                JOptionPane.showMessageDialog(null, "Stalemate!");
+                
+                //Checks for player choice of new game
+                int decision = JOptionPane.showConfirmDialog(null, 
+                               "Would you like to play a new game?", 
+                               "Good game!", 
+                               JOptionPane.YES_NO_OPTION);
+                if (decision == 1) {
+                    close();
+                } else if (decision == 0) {
+                    newGame();
+                }
+            } else if (isComputerTurn()) {
+                makeComputerMove();
+            }
+        }
+        
+        private boolean isComputerTurn() {
+            return computerPlaysBlack && chessBoard.currentPlayer().getAlliance().isBlack();
+        }
+        
+        //The computer thinks on a worker thread so the window does not freeze
+        private void makeComputerMove() {
+            final Board board = chessBoard;
+            new SwingWorker<Move, Void>() {
+                
+                private AlphaBeta search;
+                
+                @Override
+                protected Move doInBackground() throws Exception {
+                    //Book moves cost no thinking at all
+                    if (openingBook != null) {
+                        Move bookMove = openingBook.getBookMove(board);
+                        if (bookMove != null) {
+                            ponderer.miss();
+                            return bookMove;
+                        }
+                    }
+                    //Ponder hit, a search of this exact position is already running
+                    if (ponderer.isPonderHit(board)) {
+                        AlphaBeta ponderSearch = ponderer.getSearch();
+                        Move ponderMove = ponderer.hit(COMPUTER_DEPTH);
+                        //null if the search was stopped since, then it is searched again below
+                        if (ponderMove != null) {
+                            search = ponderSearch;
+                            return ponderMove;
+                        }
+                    }
+                    ponderer.miss();
+                    search = createSearch(COMPUTER_DEPTH);
+                    return search.execute(board);
+                }
+                
+                @Override
+                protected void done() {
+                    Move move;
+                    try {
+                        move = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        System.out.println("The computer could not find a move");
+                        return;
+                    }
+                    //Nothing to do if the game changed in the meantime (new game or computer switched off)
+                    if (move == null || board != chessBoard || !isComputerTurn()) {
+                        return;
+                    }
+                    //The search made its moves on its own copy of the board, so find the same move on this one
+                    move = TranspositionTable.findMove(chessBoard, TranspositionTable.encodeMove(move));
+                    MoveTransition trans = chessBoard.currentPlayer().makeMove(move);
+                    if (trans.getMoveStatus().isDone()) {
+                        chessBoard = trans.getTransitionBoard();
+                        log.addMove(move, chessBoard);
+                        if (ponderEnabled && search != null) {
+                            ponderer.start(search, chessBoard, createSearch(PONDER_DEPTH));
+                        }
+                    }
+                    endMove();
+                }
+            }.execute();
+        }
+        
+        //The PGN result of the game on the board, * while it is still going
+        private String gameResult() {
+            if (chessBoard.currentPlayer().isInCheckmate()) {
+                return chessBoard.currentPlayer().getAlliance().isWhite() ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS;
+            }
+            if (chessBoard.currentPlayer().isInStalemate()) {
+                return PgnGame.DRAW;
+            }
+            return PgnGame.UNKNOWN;
+        }
+        
+        //Searches a copy of the game's moves on a background thread and writes them to path with the annotations
+        private void annotateGame(final Path path) {
+            final List<Move> moves = new ArrayList<>(log.getMoves());
+            final String result = gameResult();
+            new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws Exception {
+                    try (GameAnnotator annotator = new GameAnnotator(EngineConfiguration.parse("depth=" + COMPUTER_DEPTH),
+                                                                     Runtime.getRuntime().availableProcessors());
+                         PgnWriter writer = PgnWriter.create(path)) {
+                        Map<String, String> tags = new LinkedHashMap<>();
+                        tags.put("Event", "Casual game");
+                        tags.put("Date", new SimpleDateFormat("yyyy.MM.dd").format(new Date()));
+                        annotator.write(writer, tags, moves, annotator.annotate(moves), result);
+                    }
+                    return null;
+                }
+                
+                @Override
+                protected void done() {
+                    try {
+                        get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not annotate the game: " + e.getCause());
+                    }
+                }
+            }.execute();
+        }
+        
+        //Imports on a background thread, the board only changes once the whole file has been read
+        private void loadPgn(final Path path) {
+            final ImportedGame[] firstGame = new ImportedGame[1];
+            final GameSink sink = new GameSink() {
+                @Override
+                public void accept(ImportedGame game) {
+                    if (firstGame[0] == null && game.isValid()) {
+                        firstGame[0] = game;
+                    }
+                }
+                
+                @Override
+                public void finish() {
+                }
+            };
+            new SwingWorker<PgnImporter.Statistics, Void>() {
+                @Override
+                protected PgnImporter.Statistics doInBackground() throws Exception {
+                    PgnImporter importer = new PgnImporter(Runtime.getRuntime().availableProcessors(),
+                                                           Collections.singletonList(sink));
+                    try (PgnReader reader = PgnReader.open(path)) {
+                        return importer.run(reader);
+                    }
+                }
+                
+                @Override
+                protected void done() {
+                    PgnImporter.Statistics statistics;
+                    try {
+                        statistics = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        JOptionPane.showMessageDialog(gameFrame, "Could not load the PGN file: " + e.getCause());
+                        return;
+                    }
+                    if (firstGame[0] == null) {
+                        JOptionPane.showMessageDialog(gameFrame, "No playable games: " + statistics);
+                        return;
+                    }
+                    ponderer.miss();
+                    Board board = Board.createStandardBoard();
+                    log.clear();
+                    for (Move move : firstGame[0].replay()) {
+                        board = board.currentPlayer().makeMove(move).getTransitionBoard();
+                        log.addMove(move, board);
+                    }
+                    chessBoard = board;
+                    JOptionPane.showMessageDialog(gameFrame, statistics + "\nShowing " + firstGame[0].getGame());
+                    endMove();
+                }
+            }.execute();
+        }
+        
+        private AlphaBeta createSearch(int depth) {
+            return new AlphaBeta(new StandardBoardEvaluator(), depth).setTranspositionTable(transpositionTable)
+                                                                      .setEndgameProbe(endgameProbe);
+        }
+        
         private void newGame() {
+            ponderer.shutdown();
             gameFrame.dispose();
             Table newTable = new Table();
         }
         
         private void close() {
+            ponderer.shutdown();
             gameFrame.dispose();
         }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package pgn;
+
+import board.Board;
+import board.BoardUtils;
+import board.Move;
+import java.io.IOException;
+import pieces.Piece;
+import pieces.Piece.PieceType;
+
+/**
+ * Description: Turns standard algebraic notation (SAN, like Nbd7 or exd8=Q+)
+ * into the matching legal move, the piece letter, destination and any
+ * disambiguating file or rank are matched against the legal moves. It also
+ * writes moves back out as SAN, adding the file or rank only when another
+ * piece of the same kind could legally reach the same square
+ * for more information: https://en.wikipedia.org/wiki/Algebraic_notation_(chess)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public final class AlgebraicNotation {
+
+        private AlgebraicNotation() {
+            throw new RuntimeException("Probably should not get here");
+        }
+
+        /*
+         * Returns the legal move written as the SAN string, or null if there is
+         * none, if it is ambiguous, or if it underpromotes (promotion here is
+         * always to a queen)
+        */
+        public static Move parseMove(Board board, String san) {
+            String text = stripSuffix(san);
+            if (text.equals("O-O") || text.equals("0-0")) {
+                return findCastle(board, 6);
+            }
+            if (text.equals("O-O-O") || text.equals("0-0-0")) {
+                return findCastle(board, 2);
+            }
+
+            int promotion = text.indexOf('=');
+            if (promotion >= 0) {
+                if (!text.substring(promotion + 1).equals("Q")) {
+                    return null;
+                }
+                text = text.substring(0, promotion);
+            } else if (text.length() > 2 && text.charAt(text.length() - 1) == 'Q' && Character.isDigit(text.charAt(text.length() - 2))) {
+                //Some files leave out the = (e8Q)
+                text = text.substring(0, text.length() - 1);
+            }
+            if (text.length() < 2) {
+                return null;
+            }
+
+            PieceType pieceType = PieceType.PAWN;
+            int start = 0;
+            if ("NBRQK".indexOf(text.charAt(0)) >= 0) {
+                pieceType = toPieceType(text.charAt(0));
+                start = 1;
+            }
+            String destinationSquare = text.substring(text.length() - 2);
+            if (!BoardUtils.POSITION_TO_COORDINATE.containsKey(destinationSquare)) {
+                return null;
+            }
+            int destination = BoardUtils.getCoordinateAtPosition(destinationSquare);
+
+            //What is left between the piece letter and the destination is the disambiguation (and x)
+            int fromFile = -1;
+            int fromRank = -1;
+            for (int i = start; i < text.length() - 2; i++) {
+                char c = text.charAt(i);
+                if (c >= 'a' && c <= 'h') {
+                    fromFile = c - 'a';
+                } else if (c >= '1' && c <= '8') {
+                    fromRank = 8 - (c - '0');
+                } else if (c != 'x' && c != ':' && c != '-') {
+                    return null;
+                }
+            }
+
+            Move found = null;
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                Piece piece = move.getMovedPiece();
+                int current = move.getCurrentCoordinate();
+                if (move.getDestinationCoordinate() != destination || piece.getPieceType() != pieceType || move.isCastlingMove() ||
+                    (fromFile >= 0 && current % 8 != fromFile) || (fromRank >= 0 && current / 8 != fromRank) ||
+                    !board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    continue;
+                }
+                if (found != null) {
+                    return null;
+                }
+                found = move;
+            }
+            return found;
+        }
+
+        //The move in SAN with its check or mate sign, for one move at a time (see writeMove)
+        public static String toSan(Board board, Move move) {
+            StringBuilder san = new StringBuilder(8);
+            try {
+                writeMove(board, move, board.currentPlayer().makeMove(move).getTransitionBoard(), san);
+            } catch (IOException e) {
+                //A StringBuilder never throws
+                throw new RuntimeException(e);
+            }
+            return san.toString();
+        }
+        
+        /*
+         * Appends the legal move made on board in SAN, after is the board it
+         * leads to and gives the check or mate sign. Passing the board the game
+         * already has saves making the move a second time
+        */
+        public static void writeMove(Board board, Move move, Board after, Appendable out) throws IOException {
+            if (move.isCastlingMove()) {
+                out.append(move.getDestinationCoordinate() % 8 == 6 ? "O-O" : "O-O-O");
+            } else {
+                PieceType pieceType = move.getMovedPiece().getPieceType();
+                String from = BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate());
+                if (pieceType == PieceType.PAWN) {
+                    if (move.isAttacked()) {
+                        out.append(from.charAt(0)).append('x');
+                    }
+                } else {
+                    out.append(pieceType.toString());
+                    writeDisambiguation(board, move, from, out);
+                    if (move.isAttacked()) {
+                        out.append('x');
+                    }
+                }
+                out.append(BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate()));
+                if (move instanceof Move.PawnPromotion) {
+                    out.append("=Q");
+                }
+            }
+            if (after.currentPlayer().isInCheckmate()) {
+                out.append('#');
+            } else if (after.currentPlayer().isInCheck()) {
+                out.append('+');
+            }
+        }
+        
+        /*
+         * The file if it tells the rivals apart, else the rank, else both. Only
+         * moves of the same kind to the same square are checked for legality,
+         * nearly always there are none
+        */
+        private static void writeDisambiguation(Board board, Move move, String from, Appendable out) throws IOException {
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            int current = move.getCurrentCoordinate();
+            for (Move other : board.currentPlayer().getLegalMoves()) {
+                int otherCurrent = other.getCurrentCoordinate();
+                if (other.getDestinationCoordinate() != move.getDestinationCoordinate() || otherCurrent == current ||
+                    other.getMovedPiece().getPieceType() != move.getMovedPiece().getPieceType() ||
+                    !board.currentPlayer().makeMove(other).getMoveStatus().isDone()) {
+                    continue;
+                }
+                ambiguous = true;
+                sameFile |= otherCurrent % 8 == current % 8;
+                sameRank |= otherCurrent / 8 == current / 8;
+            }
+            if (!ambiguous) {
+                return;
+            }
+            if (!sameFile) {
+                out.append(from.charAt(0));
+            } else if (!sameRank) {
+                out.append(from.charAt(1));
+            } else {
+                out.append(from);
+            }
+        }
+        
+        //Check and mate signs and annotation symbols say nothing about which move it is
+        private static String stripSuffix(String san) {
+            int end = san.length();
+            while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+                end--;
+            }
+            return san.substring(0, end);
+        }
+
+        private static Move findCastle(Board board, int destinationColumn) {
+            for (Move move : board.currentPlayer().getLegalMoves()) {
+                if (move.isCastlingMove() && move.getDestinationCoordinate() % 8 == destinationColumn &&
+                    board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    return move;
+                }
+            }
+            return null;
+        }
+
+        private static PieceType toPieceType(char letter) {
+            switch (letter) {
+                case 'N':
+                    return PieceType.KNIGHT;
+                case 'B':
+                    return PieceType.BISHOP;
+                case 'R':
+                    return PieceType.ROOK;
+                case 'Q':
+                    return PieceType.QUEEN;
+                default:
+                    return PieceType.KING;
+            }
+        }
+}
@@ -0,0 +1,370 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Description: Stores games in two files instead of PGN text. The data file
+ * (.jgd) has every game's moves coded by MoveCoder, a byte a move for nearly
+ * all of them. The index file (.jgi) is memory mapped and has one fixed
+ * width record per game with the players, result, ECO code, date, ratings and
+ * where its moves start, so game n is found without reading anything before
+ * it. Games are only ever appended: the moves go in first, then the record,
+ * then the count in the header, so a crash part way never leaves a record
+ * pointing at moves that are not there. A scan splits the games into chunks
+ * and reads each chunk's moves with one read, on as many threads as asked,
+ * so scanning is limited by the disk and not by SAN parsing
+ *
+ * Usage: java pgn.GameDatabase games.pgn database [threads]
+ * Imports the PGN file into database.jgi and database.jgd and scans it back
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class GameDatabase implements GameSink, Closeable {
+
+        private static final int MAGIC = 0x4A474442;
+        //2: moves coded by MoveCoder instead of 12 bit from and to tiles
+        private static final int VERSION = 2;
+        //Magic, version and the number of games
+        private static final int HEADER_SIZE = 16;
+        private static final int COUNT_OFFSET = 8;
+
+        //Record layout, the names are Latin-1 cut to fit and padded with zeros
+        private static final int RECORD_SIZE = 80;
+        private static final int OFFSET = 0;
+        private static final int PLIES = 8;
+        private static final int RESULT = 10;
+        private static final int DATE = 12;
+        private static final int ECO = 16;
+        private static final int WHITE_ELO = 18;
+        private static final int BLACK_ELO = 20;
+        //Bytes of coded moves, unsigned
+        private static final int LENGTH = 22;
+        private static final int WHITE_NAME = 24;
+        private static final int BLACK_NAME = 52;
+        private static final int NAME_LENGTH = 28;
+
+        //The mapping starts with room for this many records and doubles when it is full
+        private static final int INITIAL_RECORDS = 1024;
+        private static final int SCAN_CHUNK = 4096;
+        private static final String[] RESULTS = {PgnGame.UNKNOWN, PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW};
+
+        private final FileChannel indexChannel;
+        private final FileChannel dataChannel;
+        private volatile MappedByteBuffer index;
+        private volatile long count;
+        private long dataSize;
+        private ByteBuffer moveBuffer = ByteBuffer.allocate(1024);
+
+        private GameDatabase(FileChannel indexChannel, FileChannel dataChannel) throws IOException {
+            this.indexChannel = indexChannel;
+            this.dataChannel = dataChannel;
+            if (indexChannel.size() == 0) {
+                map(INITIAL_RECORDS);
+                this.index.putInt(0, MAGIC);
+                this.index.putInt(4, VERSION);
+                this.index.putLong(COUNT_OFFSET, 0);
+            } else {
+                map((indexChannel.size() - HEADER_SIZE) / RECORD_SIZE);
+                if (this.index.getInt(0) != MAGIC || this.index.getInt(4) != VERSION) {
+                    throw new IOException("Not a game database index");
+                }
+            }
+            this.count = this.index.getLong(COUNT_OFFSET);
+            if (this.count > 0) {
+                int last = recordPosition(this.count - 1);
+                this.dataSize = this.index.getLong(last + OFFSET) + movesLength(this.index, last);
+            }
+        }
+
+        //Opens base.jgi and base.jgd, making them if they are not there
+        public static GameDatabase open(Path base) throws IOException {
+            String name = base.getFileName().toString();
+            FileChannel indexChannel = FileChannel.open(base.resolveSibling(name + ".jgi"), StandardOpenOption.CREATE,
+                                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileChannel dataChannel = FileChannel.open(base.resolveSibling(name + ".jgd"), StandardOpenOption.CREATE,
+                                                       StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new GameDatabase(indexChannel, dataChannel);
+        }
+
+        public static void main(String[] args) throws IOException, InterruptedException {
+
+            if (args.length < 2) {
+                System.out.println("Usage: java pgn.GameDatabase games.pgn database [threads]");
+                return;
+            }
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            Path base = Paths.get(args[1]);
+            try (GameDatabase database = open(base); PgnReader reader = PgnReader.open(Paths.get(args[0]))) {
+                System.out.println(new PgnImporter(threads, Collections.<GameSink>singletonList(database)).run(reader));
+                long pgnBytes = Files.size(Paths.get(args[0]));
+                long databaseBytes = database.usedBytes();
+                System.out.println(String.format("PGN %d bytes, database %d bytes (%.1fx smaller)",
+                                                 pgnBytes, databaseBytes, pgnBytes / (double) Math.max(databaseBytes, 1)));
+
+                final AtomicLong plies = new AtomicLong();
+                long start = System.currentTimeMillis();
+                database.scan(threads, new GameVisitor() {
+                    @Override
+                    public void visit(StoredGame game) {
+                        plies.addAndGet(game.getMoveCount());
+                    }
+                });
+                System.out.println(String.format("Scanned %d games (%d plies) in %d ms", database.size(), plies.get(),
+                                                 System.currentTimeMillis() - start));
+            }
+        }
+
+        public long size() {
+            return this.count;
+        }
+
+        //What the games take up, the index file itself has room for more records
+        public synchronized long usedBytes() {
+            return recordPosition(this.count) + this.dataSize;
+        }
+
+        //Games with an illegal move are left out, the database only holds games that replay
+        @Override
+        public void accept(ImportedGame game) throws IOException {
+            if (!game.isValid()) {
+                return;
+            }
+            short[] moves = new short[game.getMoveCount()];
+            for (int ply = 0; ply < moves.length; ply++) {
+                moves[ply] = (short) (game.getFrom(ply) << 6 | game.getTo(ply));
+            }
+            append(game.getGame(), moves);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            force();
+        }
+
+        //Adds the game and returns its id, the moves are packed as from << 6 | to
+        public synchronized long append(PgnGame game, short[] moves) throws IOException {
+            if (moves.length > Short.MAX_VALUE) {
+                throw new IOException("Game too long to store: " + moves.length + " plies");
+            }
+            int maxLength = MoveCoder.maxLength(moves.length);
+            if (this.moveBuffer.capacity() < maxLength) {
+                this.moveBuffer = ByteBuffer.allocate(maxLength);
+            }
+            this.moveBuffer.clear();
+            MoveCoder.encode(moves, this.moveBuffer);
+            this.moveBuffer.flip();
+            int length = this.moveBuffer.remaining();
+            long offset = this.dataSize;
+            while (this.moveBuffer.hasRemaining()) {
+                offset += this.dataChannel.write(this.moveBuffer, offset);
+            }
+
+            long id = this.count;
+            if (recordCapacity() <= id) {
+                map(2 * id);
+            }
+            int record = recordPosition(id);
+            this.index.putLong(record + OFFSET, this.dataSize);
+            this.index.putShort(record + PLIES, (short) moves.length);
+            this.index.putShort(record + LENGTH, (short) length);
+            this.index.put(record + RESULT, (byte) resultCode(game.getResult()));
+            this.index.putInt(record + DATE, parseDate(game.getTag("Date")));
+            this.index.putShort(record + ECO, (short) parseEco(game.getTag("ECO")));
+            this.index.putShort(record + WHITE_ELO, (short) game.getRating("WhiteElo"));
+            this.index.putShort(record + BLACK_ELO, (short) game.getRating("BlackElo"));
+            putName(record + WHITE_NAME, game.getTag("White"));
+            putName(record + BLACK_NAME, game.getTag("Black"));
+            this.dataSize = offset;
+            //The count goes last, until then the game is not there
+            this.index.putLong(COUNT_OFFSET, id + 1);
+            this.count = id + 1;
+            return id;
+        }
+
+        public StoredGame read(long id) throws IOException {
+            if (id < 0 || id >= this.count) {
+                throw new IndexOutOfBoundsException("No game " + id + " in a database of " + this.count);
+            }
+            MappedByteBuffer index = this.index;
+            int record = recordPosition(id);
+            ByteBuffer data = ByteBuffer.allocate(movesLength(index, record));
+            readFully(data, index.getLong(record + OFFSET));
+            return decode(index, id, data, 0);
+        }
+
+        /*
+         * Calls the visitor once for every game there was when the scan began.
+         * Each chunk of games is read with one read into its thread's buffer,
+         * the games in a chunk are visited in order but chunks run side by side
+        */
+        public void scan(int threads, final GameVisitor visitor) throws IOException, InterruptedException {
+            final long games = this.count;
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+            List<Future<Void>> chunks = new ArrayList<>();
+            try {
+                for (long first = 0; first < games; first += SCAN_CHUNK) {
+                    final long start = first;
+                    final long end = Math.min(first + SCAN_CHUNK, games);
+                    chunks.add(pool.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws IOException {
+                            scanChunk(start, end, visitor);
+                            return null;
+                        }
+                    }));
+                }
+                for (Future<Void> chunk : chunks) {
+                    chunk.get();
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        //Writes the mapped index and the moves out to the disk
+        public synchronized void force() throws IOException {
+            this.dataChannel.force(false);
+            this.index.force();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            force();
+            this.indexChannel.close();
+            this.dataChannel.close();
+        }
+
+        private void scanChunk(long start, long end, GameVisitor visitor) throws IOException {
+            MappedByteBuffer index = this.index;
+            long firstOffset = index.getLong(recordPosition(start) + OFFSET);
+            int last = recordPosition(end - 1);
+            long endOffset = index.getLong(last + OFFSET) + movesLength(index, last);
+            ByteBuffer data = ByteBuffer.allocate((int) (endOffset - firstOffset));
+            readFully(data, firstOffset);
+            for (long id = start; id < end; id++) {
+                int position = (int) (index.getLong(recordPosition(id) + OFFSET) - firstOffset);
+                visitor.visit(decode(index, id, data, position));
+            }
+        }
+
+        private void readFully(ByteBuffer data, long offset) throws IOException {
+            while (data.hasRemaining()) {
+                int read = this.dataChannel.read(data, offset + data.position());
+                if (read < 0) {
+                    throw new IOException("Game data ends early");
+                }
+            }
+        }
+
+        private static StoredGame decode(ByteBuffer index, long id, ByteBuffer data, int position) {
+            int record = recordPosition(id);
+            short[] moves = new short[index.getShort(record + PLIES)];
+            MoveCoder.decode(data, position, moves);
+            int eco = index.getShort(record + ECO);
+            return new StoredGame(id, getName(index, record + WHITE_NAME), getName(index, record + BLACK_NAME),
+                                  RESULTS[index.get(record + RESULT)],
+                                  eco < 0 ? null : (char) ('A' + eco / 100) + String.format("%02d", eco % 100),
+                                  index.getInt(record + DATE), index.getShort(record + WHITE_ELO),
+                                  index.getShort(record + BLACK_ELO), moves);
+        }
+
+        private static int movesLength(ByteBuffer index, int record) {
+            return index.getShort(record + LENGTH) & 0xFFFF;
+        }
+
+        private static int recordPosition(long id) {
+            return (int) (HEADER_SIZE + id * RECORD_SIZE);
+        }
+
+        private long recordCapacity() {
+            return (this.index.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        }
+
+        //A mapping cannot grow, so a bigger one replaces it (the file grows with it)
+        private void map(long records) throws IOException {
+            long size = HEADER_SIZE + records * RECORD_SIZE;
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The index cannot hold more than " + (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE + " games");
+            }
+            this.index = this.indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private void putName(int position, String name) {
+            byte[] bytes = (name == null ? "" : name).getBytes(StandardCharsets.ISO_8859_1);
+            for (int i = 0; i < NAME_LENGTH; i++) {
+                this.index.put(position + i, i < bytes.length ? bytes[i] : 0);
+            }
+        }
+
+        private static String getName(ByteBuffer index, int position) {
+            byte[] bytes = new byte[NAME_LENGTH];
+            int length = 0;
+            while (length < NAME_LENGTH && index.get(position + length) != 0) {
+                bytes[length] = index.get(position + length);
+                length++;
+            }
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        private static int resultCode(String result) {
+            for (int i = 0; i < RESULTS.length; i++) {
+                if (RESULTS[i].equals(result)) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        //2019.01.09 becomes 20190109, question marks become zeros
+        private static int parseDate(String date) {
+            if (date == null) {
+                return 0;
+            }
+            String[] parts = date.split("\\.");
+            int value = 0;
+            for (int i = 0; i < 3; i++) {
+                value *= i == 0 ? 1 : 100;
+                if (i < parts.length) {
+                    try {
+                        value += Integer.parseInt(parts[i]);
+                    } catch (NumberFormatException e) {
+                        //Unknown parts stay 0
+                    }
+                }
+            }
+            return value;
+        }
+
+        //C50 becomes 250, -1 if there is no code
+        private static int parseEco(String eco) {
+            if (eco == null || eco.length() != 3 || eco.charAt(0) < 'A' || eco.charAt(0) > 'E' ||
+                !Character.isDigit(eco.charAt(1)) || !Character.isDigit(eco.charAt(2))) {
+                return -1;
+            }
+            return (eco.charAt(0) - 'A') * 100 + Integer.parseInt(eco.substring(1));
+        }
+}
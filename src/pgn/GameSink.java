@@ -0,0 +1,19 @@
+package pgn;
+
+import java.io.IOException;
+
+/**
+ * Description: Where PgnImporter sends the games it has checked, like the
+ * screen, a game database or a position index. Games arrive in the order of
+ * the file, always from the same thread
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public interface GameSink {
+
+        void accept(ImportedGame game) throws IOException;
+
+        //Called once after the last game
+        void finish() throws IOException;
+}
@@ -0,0 +1,13 @@
+package pgn;
+
+/**
+ * Description: Work done on every game of a GameDatabase scan. Scans run on
+ * several threads at once, so visit has to be safe to call from all of them
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public interface GameVisitor {
+
+        void visit(StoredGame game);
+}
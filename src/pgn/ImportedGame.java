@@ -0,0 +1,95 @@
+package pgn;
+
+import board.Board;
+import board.Move;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: A PGN game after its moves have been checked, with the moves
+ * kept as from and to tiles (two bytes each) instead of Move objects, which
+ * would hold on to a Board for every ply. Games with an illegal or unreadable
+ * move keep the moves before it and the ply where it went wrong
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class ImportedGame {
+
+        private final long number;
+        private final PgnGame game;
+        private final short[] moves;
+        private final int errorPly;
+
+        ImportedGame(long number, PgnGame game, short[] moves, int errorPly) {
+            this.number = number;
+            this.game = game;
+            this.moves = moves;
+            this.errorPly = errorPly;
+        }
+
+        //Replays the game's SAN moves, stopping at the first one that is not legal
+        public static ImportedGame validate(long number, PgnGame game) {
+            List<String> sanMoves = game.getMoves();
+            short[] moves = new short[sanMoves.size()];
+            Board board = Board.createStandardBoard();
+            for (int ply = 0; ply < sanMoves.size(); ply++) {
+                Move move = AlgebraicNotation.parseMove(board, sanMoves.get(ply));
+                if (move == null) {
+                    short[] played = new short[ply];
+                    System.arraycopy(moves, 0, played, 0, ply);
+                    return new ImportedGame(number, game, played, ply);
+                }
+                moves[ply] = (short) (move.getCurrentCoordinate() << 6 | move.getDestinationCoordinate());
+                board = board.currentPlayer().makeMove(move).getTransitionBoard();
+            }
+            return new ImportedGame(number, game, moves, -1);
+        }
+
+        //Where the game was in the file, counting from 0
+        public long getNumber() {
+            return this.number;
+        }
+
+        public PgnGame getGame() {
+            return this.game;
+        }
+
+        public boolean isValid() {
+            return this.errorPly < 0;
+        }
+
+        //The first ply that could not be played, -1 if every move was fine
+        public int getErrorPly() {
+            return this.errorPly;
+        }
+
+        public int getMoveCount() {
+            return this.moves.length;
+        }
+
+        public int getFrom(int ply) {
+            return this.moves[ply] >>> 6;
+        }
+
+        public int getTo(int ply) {
+            return this.moves[ply] & 63;
+        }
+
+        //The moves as Move objects again, each belonging to the board it is played on
+        public List<Move> replay() {
+            return replay(this.moves);
+        }
+
+        //Moves packed as from << 6 | to, played from the standard position
+        static List<Move> replay(short[] moves) {
+            List<Move> replayed = new ArrayList<>(moves.length);
+            Board board = Board.createStandardBoard();
+            for (short packed : moves) {
+                Move move = Move.MoveFactory.createMove(board, packed >>> 6, packed & 63);
+                replayed.add(move);
+                board = board.currentPlayer().makeMove(move).getTransitionBoard();
+            }
+            return replayed;
+        }
+}
@@ -0,0 +1,174 @@
+package pgn;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Description: Codes a game's moves in one byte each (a queen's diagonal move
+ * takes two) for GameDatabase. Each side's pieces are numbered 0 to 15, and a
+ * move is the number of the piece that moves in the high four bits and where
+ * it goes in the low four: a direction for a king, knight or pawn, and the
+ * target file or rank for a rook, bishop or queen. The coder follows the game
+ * on its own small board (which piece is on which tile, nothing more), so
+ * neither coding nor decoding generates a move or checks one is legal, and
+ * decoding is about as fast as reading the old fixed width moves. Games
+ * always start from the standard position
+ * for more information: https://www.chessprogramming.org/Encoding_Moves
+ *
+ * Date: Oct. 19, 2026
+ */
+
+final class MoveCoder {
+
+        private static final int KING = 0;
+        private static final int QUEEN = 1;
+        private static final int ROOK = 2;
+        private static final int BISHOP = 3;
+        private static final int KNIGHT = 4;
+        private static final int PAWN = 5;
+        //The back rank from a8 to h8, the same for both sides
+        private static final int[] BACK_RANK = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK};
+        private static final int[] KING_STEPS = {-9, -8, -7, -1, 1, 7, 8, 9};
+        private static final int[] KNIGHT_JUMPS = {-17, -15, -10, -6, 6, 10, 15, 17};
+        private static final int KING_SIDE_CASTLE = 8;
+        private static final int QUEEN_SIDE_CASTLE = 9;
+
+        //1 + side * 16 + piece number on every occupied tile, 0 on an empty one
+        private final int[] board = new int[64];
+        //[side][piece number], side 0 is white
+        private final int[][] tiles = new int[2][16];
+        private final int[][] types = new int[2][16];
+        private int side;
+
+        //The standard position, each side's pieces numbered in tile order
+        MoveCoder() {
+            for (int column = 0; column < 8; column++) {
+                place(1, column, column, BACK_RANK[column]);
+                place(1, 8 + column, 8 + column, PAWN);
+                place(0, column, 56 + column, BACK_RANK[column]);
+                place(0, 8 + column, 48 + column, PAWN);
+            }
+        }
+
+        //The most bytes the moves can take
+        static int maxLength(int plies) {
+            return 2 * plies;
+        }
+
+        //Writes the moves, packed as from << 6 | to
+        static void encode(short[] moves, ByteBuffer out) {
+            MoveCoder coder = new MoveCoder();
+            for (short move : moves) {
+                coder.encode(move >>> 6, move & 63, out);
+            }
+        }
+
+        //Reads moves.length moves starting at position, returns the position after them
+        static int decode(ByteBuffer data, int position, short[] moves) {
+            MoveCoder coder = new MoveCoder();
+            for (int ply = 0; ply < moves.length; ply++) {
+                int code = data.get(position++) & 0xFF;
+                int piece = code >>> 4;
+                int from = coder.tiles[coder.side][piece];
+                int to = coder.destination(piece, code & 15);
+                if (to < 0) {
+                    to = data.get(position++) & 0xFF;
+                }
+                moves[ply] = (short) (from << 6 | to);
+                coder.play(from, to);
+            }
+            return position;
+        }
+
+        private void place(int side, int piece, int tile, int type) {
+            this.board[tile] = 1 + 16 * side + piece;
+            this.tiles[side][piece] = tile;
+            this.types[side][piece] = type;
+        }
+
+        private void encode(int from, int to, ByteBuffer out) {
+            int piece = (this.board[from] - 1) & 15;
+            int type = this.types[this.side][piece];
+            int code;
+            int extra = -1;
+            if (type == KING) {
+                code = to - from == 2 ? KING_SIDE_CASTLE : to - from == -2 ? QUEEN_SIDE_CASTLE : indexOf(KING_STEPS, to - from);
+            } else if (type == KNIGHT) {
+                code = indexOf(KNIGHT_JUMPS, to - from);
+            } else if (type == PAWN) {
+                int forward = this.side == 0 ? -8 : 8;
+                code = to - from == forward ? 0 : to - from == 2 * forward ? 1 : to % 8 < from % 8 ? 2 : 3;
+            } else if (type == BISHOP) {
+                code = (to / 8 - from / 8 == to % 8 - from % 8 ? 0 : 8) + to % 8;
+            } else if (to / 8 == from / 8) {
+                code = to % 8;
+            } else if (to % 8 == from % 8) {
+                code = 8 + to / 8;
+            } else {
+                //A queen's diagonal move, its own file on its own rank (never a move) says the tile follows
+                code = from % 8;
+                extra = to;
+            }
+            out.put((byte) (piece << 4 | code));
+            if (extra >= 0) {
+                out.put((byte) extra);
+            }
+            play(from, to);
+        }
+
+        //Where the piece goes, -1 if the tile is in the next byte
+        private int destination(int piece, int code) {
+            int from = this.tiles[this.side][piece];
+            switch (this.types[this.side][piece]) {
+                case KING:
+                    return code == KING_SIDE_CASTLE ? from + 2 : code == QUEEN_SIDE_CASTLE ? from - 2 : from + KING_STEPS[code];
+                case KNIGHT:
+                    return from + KNIGHT_JUMPS[code];
+                case PAWN:
+                    int forward = this.side == 0 ? -8 : 8;
+                    return code == 0 ? from + forward : code == 1 ? from + 2 * forward : from + forward + (code == 2 ? -1 : 1);
+                case BISHOP:
+                    //Down and right on one diagonal, up and right on the other
+                    int columns = (code & 7) - from % 8;
+                    return code < 8 ? from + 9 * columns : from - 7 * columns;
+                default:
+                    if (code < 8) {
+                        return this.types[this.side][piece] == QUEEN && code == from % 8 ? -1 : from / 8 * 8 + code;
+                    }
+                    return (code - 8) * 8 + from % 8;
+            }
+        }
+
+        //Moves the piece, with what castling, en passant and promotion do to the board
+        private void play(int from, int to) {
+            int piece = (this.board[from] - 1) & 15;
+            int type = this.types[this.side][piece];
+            if (type == PAWN && from % 8 != to % 8 && this.board[to] == 0) {
+                this.board[from / 8 * 8 + to % 8] = 0;
+            }
+            this.board[from] = 0;
+            this.board[to] = 1 + 16 * this.side + piece;
+            this.tiles[this.side][piece] = to;
+            if (type == KING && Math.abs(to - from) == 2) {
+                int rookFrom = to > from ? from + 3 : from - 4;
+                int rookTo = to > from ? from + 1 : from - 1;
+                int rook = (this.board[rookFrom] - 1) & 15;
+                this.board[rookFrom] = 0;
+                this.board[rookTo] = 1 + 16 * this.side + rook;
+                this.tiles[this.side][rook] = rookTo;
+            }
+            //Every promotion is taken as a queen, the stored moves have no piece for it anyway
+            if (type == PAWN && (to < 8 || to >= 56)) {
+                this.types[this.side][piece] = QUEEN;
+            }
+            this.side ^= 1;
+        }
+
+        private static int indexOf(int[] steps, int step) {
+            for (int i = 0; i < steps.length; i++) {
+                if (steps[i] == step) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Not a move of the piece: " + step);
+        }
+}
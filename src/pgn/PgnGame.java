@@ -0,0 +1,68 @@
+package pgn;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: One game read from a PGN file, its tag pairs and its moves still
+ * in algebraic notation (the moves only mean something on a board, see
+ * AlgebraicNotation)
+ * for more information: https://en.wikipedia.org/wiki/Portable_Game_Notation
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PgnGame {
+
+        public static final String WHITE_WINS = "1-0";
+        public static final String BLACK_WINS = "0-1";
+        public static final String DRAW = "1/2-1/2";
+        public static final String UNKNOWN = "*";
+
+        private final Map<String, String> tags;
+        private final List<String> moves;
+        private final String result;
+
+        public PgnGame(Map<String, String> tags, List<String> moves, String result) {
+            this.tags = Collections.unmodifiableMap(tags);
+            this.moves = Collections.unmodifiableList(moves);
+            this.result = result;
+        }
+
+        public Map<String, String> getTags() {
+            return this.tags;
+        }
+
+        //Returns null if the game does not have the tag
+        public String getTag(String name) {
+            return this.tags.get(name);
+        }
+
+        public List<String> getMoves() {
+            return this.moves;
+        }
+
+        //One of the four result strings, the game termination marker wins over the Result tag
+        public String getResult() {
+            return this.result;
+        }
+
+        //Returns the rating in the tag (WhiteElo or BlackElo), 0 if it is missing or not a number
+        public int getRating(String tag) {
+            String value = this.tags.get(tag);
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.tags.get("White") + " - " + this.tags.get("Black") + " " + this.result;
+        }
+}
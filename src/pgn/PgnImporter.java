@@ -0,0 +1,226 @@
+package pgn;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Description: Imports a PGN file as a pipeline of three stages joined by
+ * bounded queues. The calling thread reads games in batches, a few validator
+ * threads replay their moves, and one sink thread hands the checked games to
+ * every GameSink in the order of the file. Only a handful of batches are ever
+ * between the stages, so memory stays the same however big the file is, and
+ * the slowest stage (nearly always validation) sets the pace. That includes
+ * the batches the sink thread holds back until the ones before them arrive:
+ * a batch is only read once one of the batches before it has been delivered
+ * if too many are already on their way
+ * for more information: https://en.wikipedia.org/wiki/Pipeline_(computing)
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PgnImporter {
+
+        private static final int BATCH_SIZE = 256;
+        //Batches read but not yet delivered, per validator
+        private static final int BATCHES_PER_VALIDATOR = 4;
+
+        private final int validatorCount;
+        private final List<GameSink> sinks;
+        private volatile IOException sinkFailure;
+
+        public PgnImporter(int validatorCount, List<GameSink> sinks) {
+            this.validatorCount = Math.max(1, validatorCount);
+            this.sinks = sinks;
+        }
+
+        //Runs the whole import, returns once every sink has finished
+        public Statistics run(PgnReader reader) throws IOException, InterruptedException {
+            final BlockingQueue<Batch<PgnGame>> parsed = new ArrayBlockingQueue<>(2 * this.validatorCount);
+            final BlockingQueue<Batch<ImportedGame>> validated = new ArrayBlockingQueue<>(2 * this.validatorCount);
+            final Statistics statistics = new Statistics();
+            //Taken by the reader for every batch and given back by the sink thread once it is delivered
+            final Semaphore unread = new Semaphore(BATCHES_PER_VALIDATOR * this.validatorCount);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < this.validatorCount; i++) {
+                threads.add(new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        validate(parsed, validated);
+                    }
+                }, "PGN validator " + i));
+            }
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(validated, unread, statistics);
+                }
+            }, "PGN sinks"));
+            for (Thread thread : threads) {
+                thread.start();
+            }
+
+            try {
+                long number = 0;
+                long batchNumber = 0;
+                List<PgnGame> games = new ArrayList<>(BATCH_SIZE);
+                PgnGame game;
+                while (this.sinkFailure == null && (game = reader.next()) != null) {
+                    games.add(game);
+                    if (games.size() == BATCH_SIZE) {
+                        unread.acquire();
+                        parsed.put(new Batch<>(batchNumber++, number, games));
+                        number += games.size();
+                        games = new ArrayList<>(BATCH_SIZE);
+                    }
+                }
+                if (!games.isEmpty()) {
+                    unread.acquire();
+                    parsed.put(new Batch<>(batchNumber, number, games));
+                }
+            } finally {
+                //One end marker for every validator, each passes it on to the sink thread
+                for (int i = 0; i < this.validatorCount; i++) {
+                    parsed.put(new Batch<PgnGame>(-1, -1, null));
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            }
+            if (this.sinkFailure != null) {
+                throw this.sinkFailure;
+            }
+            return statistics;
+        }
+
+        private void validate(BlockingQueue<Batch<PgnGame>> parsed, BlockingQueue<Batch<ImportedGame>> validated) {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    Batch<PgnGame> batch = parsed.take();
+                    if (batch.isEnd()) {
+                        return;
+                    }
+                    List<ImportedGame> games = new ArrayList<>(batch.games.size());
+                    for (int i = 0; i < batch.games.size(); i++) {
+                        games.add(ImportedGame.validate(batch.firstGame + i, batch.games.get(i)));
+                    }
+                    validated.put(new Batch<>(batch.number, batch.firstGame, games));
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } finally {
+                //The sink thread waits for one end marker from every validator, so it is passed on however this one stops
+                while (true) {
+                    try {
+                        validated.put(new Batch<ImportedGame>(-1, -1, null));
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        //Batches finish out of order, they wait here until the ones before them have been delivered
+        private void deliver(BlockingQueue<Batch<ImportedGame>> validated, Semaphore unread, Statistics statistics) {
+            Map<Long, Batch<ImportedGame>> waiting = new HashMap<>();
+            long next = 0;
+            int ends = 0;
+            try {
+                while (ends < this.validatorCount) {
+                    Batch<ImportedGame> batch = validated.take();
+                    if (batch.isEnd()) {
+                        ends++;
+                        continue;
+                    }
+                    waiting.put(batch.number, batch);
+                    while (waiting.containsKey(next)) {
+                        Batch<ImportedGame> ready = waiting.remove(next++);
+                        for (ImportedGame game : ready.games) {
+                            deliver(game, statistics);
+                        }
+                        unread.release();
+                    }
+                }
+                if (this.sinkFailure == null) {
+                    for (GameSink sink : this.sinks) {
+                        sink.finish();
+                    }
+                }
+            } catch (IOException e) {
+                this.sinkFailure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void deliver(ImportedGame game, Statistics statistics) throws IOException {
+            statistics.games++;
+            if (!game.isValid()) {
+                statistics.invalidGames++;
+            }
+            //After a failure the rest is only drained, so the reader is never left blocked
+            if (this.sinkFailure != null) {
+                return;
+            }
+            try {
+                for (GameSink sink : this.sinks) {
+                    sink.accept(game);
+                }
+            } catch (IOException e) {
+                this.sinkFailure = e;
+            }
+        }
+
+        //Games in one batch, PgnGame before validation and ImportedGame after
+        private static class Batch<T> {
+
+            final long number;
+            final long firstGame;
+            //null for the marker at the end of the stream
+            final List<T> games;
+
+            Batch(long number, long firstGame, List<T> games) {
+                this.number = number;
+                this.firstGame = firstGame;
+                this.games = games;
+            }
+
+            boolean isEnd() {
+                return this.games == null;
+            }
+        }
+
+        //Only written by the sink thread, read once the import is over
+        public static class Statistics {
+
+            private final long start = System.currentTimeMillis();
+            private long games;
+            private long invalidGames;
+
+            public long getGames() {
+                return this.games;
+            }
+
+            public long getInvalidGames() {
+                return this.invalidGames;
+            }
+
+            @Override
+            public String toString() {
+                double minutes = Math.max(System.currentTimeMillis() - this.start, 1) / 60000.0;
+                return String.format("%d games (%d with illegal moves), %.0f games per minute",
+                                     this.games, this.invalidGames, this.games / minutes);
+            }
+        }
+}
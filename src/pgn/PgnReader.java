@@ -0,0 +1,219 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: Reads PGN games one at a time from a stream, so a file with
+ * millions of games never has to fit in memory. Comments, variations and NAGs
+ * are skipped, only the main line is kept
+ * for more information: https://www.chessprogramming.org/Portable_Game_Notation
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PgnReader implements Closeable {
+
+        private static final int END = -1;
+
+        private final Reader reader;
+        private final char[] buffer = new char[1 << 16];
+        private int position;
+        private int limit;
+
+        public PgnReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        //Reads straight from the file's channel in blocks, PGN files are plain Latin-1 text
+        public static PgnReader open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new PgnReader(Channels.newReader(channel, StandardCharsets.ISO_8859_1.newDecoder(), 1 << 16));
+        }
+
+        //Returns the next game, null at the end of the stream
+        public PgnGame next() throws IOException {
+            Map<String, String> tags = new LinkedHashMap<>();
+            List<String> moves = new ArrayList<>();
+            String result = null;
+
+            int c;
+            while ((c = skipWhitespace()) != END) {
+                if (c == '[') {
+                    //A tag after the moves belongs to the next game (the last one had no result)
+                    if (!moves.isEmpty()) {
+                        break;
+                    }
+                    this.position++;
+                    readTag(tags);
+                } else if (c == '{') {
+                    skipPast('}');
+                } else if (c == ';' || c == '%') {
+                    skipPast('\n');
+                } else if (c == '(') {
+                    skipVariation();
+                } else if (c == ')' || c == ']' || c == '}') {
+                    this.position++;
+                } else {
+                    String token = readToken();
+                    if (isResult(token)) {
+                        result = token;
+                        break;
+                    }
+                    String move = cleanMove(token);
+                    if (!move.isEmpty()) {
+                        moves.add(move);
+                    }
+                }
+            }
+
+            if (tags.isEmpty() && moves.isEmpty() && result == null) {
+                return null;
+            }
+            if (result == null) {
+                result = tags.containsKey("Result") && isResult(tags.get("Result")) ? tags.get("Result") : PgnGame.UNKNOWN;
+            }
+            return new PgnGame(tags, moves, result);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.reader.close();
+        }
+
+        //Reads [Name "Value"], the opening bracket is already gone
+        private void readTag(Map<String, String> tags) throws IOException {
+            StringBuilder name = new StringBuilder();
+            StringBuilder value = new StringBuilder();
+            boolean inValue = false;
+            int c;
+            while ((c = read()) != END && c != '\n') {
+                if (inValue) {
+                    if (c == '\\') {
+                        c = read();
+                        if (c == END) {
+                            break;
+                        }
+                        value.append((char) c);
+                    } else if (c == '"') {
+                        inValue = false;
+                    } else {
+                        value.append((char) c);
+                    }
+                } else if (c == '"') {
+                    inValue = true;
+                } else if (c == ']') {
+                    break;
+                } else if (!Character.isWhitespace(c)) {
+                    name.append((char) c);
+                }
+            }
+            if (name.length() > 0) {
+                tags.put(name.toString(), value.toString());
+            }
+        }
+
+        //Reads up to whitespace or anything that starts something else
+        private String readToken() throws IOException {
+            StringBuilder token = new StringBuilder();
+            int c;
+            while ((c = peek()) != END && !Character.isWhitespace(c) && "{};()[]".indexOf(c) < 0) {
+                token.append((char) c);
+                this.position++;
+            }
+            return token.toString();
+        }
+
+        //Variations can hold comments and other variations, brackets inside comments do not count
+        private void skipVariation() throws IOException {
+            int depth = 0;
+            int c;
+            while ((c = read()) != END) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                    if (depth == 0) {
+                        return;
+                    }
+                } else if (c == '{') {
+                    skipPast('}');
+                } else if (c == ';') {
+                    skipPast('\n');
+                }
+            }
+        }
+
+        private void skipPast(char end) throws IOException {
+            int c;
+            while ((c = read()) != END && c != end) {
+                //Nothing to keep
+            }
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) != END && Character.isWhitespace(c)) {
+                this.position++;
+            }
+            return c;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            if (c != END) {
+                this.position++;
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (this.position == this.limit) {
+                this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+                this.position = 0;
+                if (this.limit <= 0) {
+                    this.limit = 0;
+                    return END;
+                }
+            }
+            return this.buffer[this.position];
+        }
+
+        private static boolean isResult(String token) {
+            return token.equals(PgnGame.WHITE_WINS) || token.equals(PgnGame.BLACK_WINS) ||
+                   token.equals(PgnGame.DRAW) || token.equals(PgnGame.UNKNOWN);
+        }
+
+        //Drops the move number ("12." or "12...") in front and NAG symbols ("!?") behind, NAGs like $1 become empty
+        private static String cleanMove(String token) {
+            if (token.startsWith("$")) {
+                return "";
+            }
+            int start = 0;
+            while (start < token.length() && Character.isDigit(token.charAt(start))) {
+                start++;
+            }
+            if (start < token.length() && token.charAt(start) == '.') {
+                while (start < token.length() && token.charAt(start) == '.') {
+                    start++;
+                }
+            } else {
+                start = 0;
+            }
+            int end = token.length();
+            while (end > start && (token.charAt(end - 1) == '!' || token.charAt(end - 1) == '?')) {
+                end--;
+            }
+            return token.substring(start, end);
+        }
+}
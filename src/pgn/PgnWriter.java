@@ -0,0 +1,218 @@
+package pgn;
+
+import board.Board;
+import board.Move;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: Writes games as PGN in export format: the seven tag roster
+ * first, then the other tags, then the moves in SAN wrapped at 80 columns.
+ * Moves are written one token at a time through a reused buffer straight
+ * into a buffered writer, so a game is never built up as one string and
+ * exporting millions of games costs no more memory than exporting one. As a
+ * GameSink it writes every valid game PgnImporter gives it, with its SAN
+ * written again from the moves
+ * for more information: https://www.chessprogramming.org/Portable_Game_Notation
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PgnWriter implements GameSink, Closeable, Flushable {
+
+        private static final int LINE_LENGTH = 80;
+        private static final int BUFFER_SIZE = 1 << 16;
+        private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+        private final Writer writer;
+        //Holds the token being written, so it can be wrapped before it goes out
+        private final StringBuilder token = new StringBuilder(16);
+        //Writer.append would turn the token into a String, its characters are copied here instead
+        private char[] characters = new char[16];
+        private int column;
+
+        public PgnWriter(Writer writer) {
+            this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+        }
+
+        //Replaces the file if it is already there, PGN files are plain Latin-1 text like in PgnReader
+        public static PgnWriter create(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING);
+            return new PgnWriter(Channels.newWriter(channel, StandardCharsets.ISO_8859_1.newEncoder(), BUFFER_SIZE));
+        }
+
+        /*
+         * Writes a game played from the standard position. Each move still has
+         * the board it was made on, and the next move's board is the one it led
+         * to, so only the last move has to be made again for its check sign
+        */
+        public void writeGame(Map<String, String> tags, List<Move> moves, String result) throws IOException {
+            writeGame(tags, moves, null, null, result);
+        }
+
+        /*
+         * The same with a NAG ("$2") and a comment after some of the moves,
+         * null in either array (or for the whole array) means none. The
+         * number of a black move is written again after a comment
+        */
+        public void writeGame(Map<String, String> tags, List<Move> moves, String[] nags, String[] comments,
+                              String result) throws IOException {
+            writeTags(tags, result);
+            boolean interrupted = false;
+            for (int ply = 0; ply < moves.size(); ply++) {
+                Move move = moves.get(ply);
+                Board board = move.getBoard();
+                Board after = ply + 1 < moves.size() ? moves.get(ply + 1).getBoard()
+                                                     : board.currentPlayer().makeMove(move).getTransitionBoard();
+                writeMoveNumber(ply, interrupted);
+                this.token.setLength(0);
+                AlgebraicNotation.writeMove(board, move, after, this.token);
+                writeToken();
+                if (nags != null && nags[ply] != null) {
+                    writeWord(nags[ply]);
+                }
+                interrupted = comments != null && comments[ply] != null;
+                if (interrupted) {
+                    writeComment(comments[ply]);
+                }
+            }
+            endGame(result);
+        }
+
+        //Writes the game's SAN as it was read, nothing is checked
+        public void writeGame(PgnGame game) throws IOException {
+            writeTags(game.getTags(), game.getResult());
+            List<String> moves = game.getMoves();
+            for (int ply = 0; ply < moves.size(); ply++) {
+                writeMoveNumber(ply, false);
+                this.token.setLength(0);
+                this.token.append(moves.get(ply));
+                writeToken();
+            }
+            endGame(game.getResult());
+        }
+
+        //Games with an illegal move are left out
+        @Override
+        public void accept(ImportedGame game) throws IOException {
+            if (game.isValid()) {
+                writeGame(game.getGame().getTags(), game.replay(), game.getGame().getResult());
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.writer.close();
+        }
+
+        //The roster tags are always there ("?" when unknown) and the Result tag always matches the result
+        private void writeTags(Map<String, String> tags, String result) throws IOException {
+            for (String name : SEVEN_TAG_ROSTER) {
+                String value = name.equals("Result") ? result : tags.get(name);
+                writeTag(name, value == null ? "?" : value);
+            }
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                if (!isRosterTag(tag.getKey())) {
+                    writeTag(tag.getKey(), tag.getValue());
+                }
+            }
+            this.writer.write('\n');
+            this.column = 0;
+        }
+
+        private void writeTag(String name, String value) throws IOException {
+            this.writer.write('[');
+            this.writer.write(name);
+            this.writer.write(" \"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    this.writer.write('\\');
+                }
+                this.writer.write(c);
+            }
+            this.writer.write("\"]\n");
+        }
+
+        private static boolean isRosterTag(String name) {
+            for (String rosterTag : SEVEN_TAG_ROSTER) {
+                if (rosterTag.equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        //Only white's moves get a number unless something came in between, the games always start from the standard position
+        private void writeMoveNumber(int ply, boolean interrupted) throws IOException {
+            if (ply % 2 == 0 || interrupted) {
+                this.token.setLength(0);
+                this.token.append(ply / 2 + 1).append(ply % 2 == 0 ? "." : "...");
+                writeToken();
+            }
+        }
+
+        //Word by word so a long comment wraps like the moves, a closing brace would end it early
+        private void writeComment(String comment) throws IOException {
+            writeWord("{");
+            for (String word : comment.replace('}', ')').split("\\s+")) {
+                if (!word.isEmpty()) {
+                    writeWord(word);
+                }
+            }
+            writeWord("}");
+        }
+
+        private void writeWord(String word) throws IOException {
+            this.token.setLength(0);
+            this.token.append(word);
+            writeToken();
+        }
+
+        //Starts a new line first if the token would go past the line length
+        private void writeToken() throws IOException {
+            if (this.column > 0 && this.column + 1 + this.token.length() > LINE_LENGTH) {
+                this.writer.write('\n');
+                this.column = 0;
+            } else if (this.column > 0) {
+                this.writer.write(' ');
+                this.column++;
+            }
+            int length = this.token.length();
+            if (length > this.characters.length) {
+                this.characters = new char[length];
+            }
+            this.token.getChars(0, length, this.characters, 0);
+            this.writer.write(this.characters, 0, length);
+            this.column += length;
+        }
+
+        private void endGame(String result) throws IOException {
+            this.token.setLength(0);
+            this.token.append(result);
+            writeToken();
+            this.writer.write("\n\n");
+            this.column = 0;
+        }
+}
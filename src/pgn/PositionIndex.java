@@ -0,0 +1,461 @@
+package pgn;
+
+import board.Board;
+import board.Move;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Description: Finds the games in a GameDatabase that reached a position,
+ * by the position's Zobrist key, without replaying any of them. Every position
+ * of every game (except the starting position, which they all share) is a
+ * posting, the game id and the ply packed in one long (see getGame and getPly).
+ * Building replays the games on several threads; each thread fills a buffer of
+ * key and posting pairs, sorts it and writes it out as a run when it is full,
+ * and the runs are merged at the end, so the index can be far bigger than
+ * memory. The result is two files: the postings of each key, sorted and
+ * stored as varint deltas (.jpp), and a memory mapped table of every key with
+ * where its postings start (.jpk), which a lookup binary searches
+ * for more information: https://en.wikipedia.org/wiki/External_sorting
+ *
+ * Usage: java pgn.PositionIndex database output [threads] [entries per run]
+ *        java pgn.PositionIndex -find output e4 e5 Nf3
+ *
+ * Key table layout (big endian):
+ *   int magic, int version, long keys
+ *   then per key: long key, long postings offset, int postings
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class PositionIndex implements Closeable {
+
+        private static final int MAGIC = 0x4A504958;
+        //2: castling keys per castle side
+        private static final int VERSION = 2;
+        private static final int HEADER_SIZE = 16;
+        private static final int ENTRY_SIZE = 20;
+        private static final int PLY_BITS = 16;
+        private static final int STREAM_BUFFER = 1 << 16;
+
+        private final MappedByteBuffer keys;
+        private final int keyCount;
+        private final FileChannel postingsChannel;
+
+        private PositionIndex(MappedByteBuffer keys, FileChannel postingsChannel) throws IOException {
+            if (keys.capacity() < HEADER_SIZE || keys.getInt(0) != MAGIC || keys.getInt(4) != VERSION) {
+                throw new IOException("Not a position index");
+            }
+            this.keys = keys;
+            this.keyCount = (int) keys.getLong(8);
+            this.postingsChannel = postingsChannel;
+        }
+
+        public static PositionIndex open(Path base) throws IOException {
+            String name = base.getFileName().toString();
+            try (FileChannel keyChannel = FileChannel.open(base.resolveSibling(name + ".jpk"), StandardOpenOption.READ)) {
+                MappedByteBuffer keys = keyChannel.map(FileChannel.MapMode.READ_ONLY, 0, keyChannel.size());
+                return new PositionIndex(keys, FileChannel.open(base.resolveSibling(name + ".jpp"), StandardOpenOption.READ));
+            }
+        }
+
+        public static void main(String[] args) throws IOException, InterruptedException {
+
+            if (args.length >= 2 && args[0].equals("-find")) {
+                Board board = Board.createStandardBoard();
+                for (int i = 2; i < args.length; i++) {
+                    Move move = AlgebraicNotation.parseMove(board, args[i]);
+                    if (move == null) {
+                        System.out.println("Cannot play " + args[i]);
+                        return;
+                    }
+                    board = board.currentPlayer().makeMove(move).getTransitionBoard();
+                }
+                try (PositionIndex index = open(Paths.get(args[1]))) {
+                    long start = System.nanoTime();
+                    long[] postings = index.find(board);
+                    System.out.println(String.format("%d games reached it, found in %.2f ms", postings.length,
+                                                     (System.nanoTime() - start) / 1e6));
+                    for (int i = 0; i < Math.min(postings.length, 10); i++) {
+                        System.out.println("Game " + getGame(postings[i]) + " at ply " + getPly(postings[i]));
+                    }
+                }
+                return;
+            }
+            if (args.length < 2) {
+                System.out.println("Usage: java pgn.PositionIndex database output [threads] [entries per run]");
+                System.out.println("       java pgn.PositionIndex -find output [SAN moves]");
+                return;
+            }
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            int runEntries = args.length > 3 ? Integer.parseInt(args[3]) : 1 << 20;
+            long start = System.currentTimeMillis();
+            try (GameDatabase database = GameDatabase.open(Paths.get(args[0]))) {
+                long keys = build(database, Paths.get(args[1]), threads, runEntries);
+                System.out.println(String.format("%d games, %d positions, in %.1f s", database.size(), keys,
+                                                 (System.currentTimeMillis() - start) / 1000.0));
+            }
+        }
+
+        //The game id in a posting
+        public static long getGame(long posting) {
+            return posting >>> PLY_BITS;
+        }
+
+        //The ply in a posting, the position after that many moves
+        public static int getPly(long posting) {
+            return (int) (posting & ((1 << PLY_BITS) - 1));
+        }
+
+        public int size() {
+            return this.keyCount;
+        }
+
+        public long[] find(Board board) throws IOException {
+            return find(board.getHashKey());
+        }
+
+        //The postings of the key sorted by game then ply, empty if no game reached it
+        public long[] find(long key) throws IOException {
+            int low = 0;
+            int high = this.keyCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long middleKey = this.keys.getLong(entryPosition(middle));
+                if (middleKey < key) {
+                    low = middle + 1;
+                } else if (middleKey > key) {
+                    high = middle - 1;
+                } else {
+                    return readPostings(middle);
+                }
+            }
+            return new long[0];
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.postingsChannel.close();
+        }
+
+        private long[] readPostings(int entry) throws IOException {
+            int position = entryPosition(entry);
+            long offset = this.keys.getLong(position + 8);
+            long[] postings = new long[this.keys.getInt(position + 16)];
+            long end = entry + 1 < this.keyCount ? this.keys.getLong(position + ENTRY_SIZE + 8) : this.postingsChannel.size();
+            ByteBuffer data = ByteBuffer.allocate((int) (end - offset));
+            while (data.hasRemaining()) {
+                if (this.postingsChannel.read(data, offset + data.position()) < 0) {
+                    throw new IOException("Postings end early");
+                }
+            }
+            data.flip();
+            long previous = 0;
+            for (int i = 0; i < postings.length; i++) {
+                previous += readVarint(data);
+                postings[i] = previous;
+            }
+            return postings;
+        }
+
+        private static int entryPosition(int entry) {
+            return HEADER_SIZE + entry * ENTRY_SIZE;
+        }
+
+        /*
+         * Builds the index of every game in the database as base.jpk and
+         * base.jpp, runEntries is how many pairs each thread sorts in memory at
+         * a time. Returns the number of different positions
+        */
+        public static long build(GameDatabase database, final Path base, int threads, final int runEntries)
+                throws IOException, InterruptedException {
+            final List<Path> runs = new ArrayList<>();
+            final List<RunBuffer> buffers = new ArrayList<>();
+            final ThreadLocal<RunBuffer> localBuffer = new ThreadLocal<RunBuffer>() {
+                @Override
+                protected RunBuffer initialValue() {
+                    RunBuffer buffer = new RunBuffer(runEntries);
+                    synchronized (buffers) {
+                        buffers.add(buffer);
+                    }
+                    return buffer;
+                }
+            };
+            try {
+                final IOException[] failure = new IOException[1];
+                database.scan(threads, new GameVisitor() {
+                    @Override
+                    public void visit(StoredGame game) {
+                        RunBuffer buffer = localBuffer.get();
+                        Board board = Board.createStandardBoard();
+                        for (int ply = 0; ply < game.getMoveCount(); ply++) {
+                            Move move = Move.MoveFactory.createMove(board, game.getFrom(ply), game.getTo(ply));
+                            board = board.currentPlayer().makeMove(move).getTransitionBoard();
+                            if (buffer.isFull()) {
+                                try {
+                                    buffer.spill(base, runs);
+                                } catch (IOException e) {
+                                    synchronized (failure) {
+                                        failure[0] = e;
+                                    }
+                                    return;
+                                }
+                            }
+                            buffer.add(board.getHashKey(), game.getId() << PLY_BITS | (ply + 1));
+                        }
+                    }
+                });
+                synchronized (failure) {
+                    if (failure[0] != null) {
+                        throw failure[0];
+                    }
+                }
+                for (RunBuffer buffer : buffers) {
+                    if (buffer.size > 0) {
+                        buffer.spill(base, runs);
+                    }
+                }
+                return merge(runs, base);
+            } finally {
+                for (Path run : runs) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+
+        //Merges the sorted runs into the key table and the postings
+        private static long merge(List<Path> runs, Path base) throws IOException {
+            String name = base.getFileName().toString();
+            Path keyPath = base.resolveSibling(name + ".jpk");
+            PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()), new Comparator<RunReader>() {
+                @Override
+                public int compare(RunReader first, RunReader second) {
+                    int byKey = Long.compare(first.key, second.key);
+                    return byKey != 0 ? byKey : Long.compare(first.posting, second.posting);
+                }
+            });
+            long keyCount = 0;
+            try (DataOutputStream keys = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(keyPath), STREAM_BUFFER));
+                 DataOutputStream postings = new DataOutputStream(new BufferedOutputStream(
+                     Files.newOutputStream(base.resolveSibling(name + ".jpp")), STREAM_BUFFER))) {
+                for (Path run : runs) {
+                    RunReader reader = new RunReader(run);
+                    if (reader.next()) {
+                        queue.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                }
+                keys.writeInt(MAGIC);
+                keys.writeInt(VERSION);
+                //The key count goes here once it is known
+                keys.writeLong(0);
+
+                //DataOutputStream.size stops counting at 2GB, so the offset is counted here
+                long written = 0;
+                long offset = 0;
+                long currentKey = 0;
+                long previous = 0;
+                int count = 0;
+                while (!queue.isEmpty()) {
+                    RunReader reader = queue.poll();
+                    if (count == 0 || reader.key != currentKey) {
+                        if (count > 0) {
+                            writeEntry(keys, currentKey, offset, count);
+                            keyCount++;
+                        }
+                        currentKey = reader.key;
+                        offset = written;
+                        previous = 0;
+                        count = 0;
+                    }
+                    written += writeVarint(postings, reader.posting - previous);
+                    previous = reader.posting;
+                    count++;
+                    if (reader.next()) {
+                        queue.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                }
+                if (count > 0) {
+                    writeEntry(keys, currentKey, offset, count);
+                    keyCount++;
+                }
+            } finally {
+                for (RunReader reader : queue) {
+                    reader.close();
+                }
+            }
+            if (HEADER_SIZE + keyCount * ENTRY_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Too many positions for one key table: " + keyCount);
+            }
+            try (FileChannel channel = FileChannel.open(keyPath, StandardOpenOption.WRITE)) {
+                ByteBuffer count = ByteBuffer.allocate(8);
+                count.putLong(0, keyCount);
+                channel.write(count, 8);
+            }
+            return keyCount;
+        }
+
+        private static void writeEntry(DataOutputStream keys, long key, long offset, int count) throws IOException {
+            keys.writeLong(key);
+            keys.writeLong(offset);
+            keys.writeInt(count);
+        }
+
+        //Seven bits at a time, low bits first, the top bit says more follow. Returns the bytes written
+        private static int writeVarint(DataOutputStream out, long value) throws IOException {
+            int bytes = 1;
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+                bytes++;
+            }
+            out.writeByte((int) value);
+            return bytes;
+        }
+
+        private static long readVarint(ByteBuffer in) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        //One thread's key and posting pairs, sorted and written out as a run when full
+        private static class RunBuffer {
+
+            private final long[] keys;
+            private final long[] postings;
+            private int size;
+
+            RunBuffer(int capacity) {
+                this.keys = new long[capacity];
+                this.postings = new long[capacity];
+            }
+
+            boolean isFull() {
+                return this.size == this.keys.length;
+            }
+
+            void add(long key, long posting) {
+                this.keys[this.size] = key;
+                this.postings[this.size] = posting;
+                this.size++;
+            }
+
+            void spill(Path base, List<Path> runs) throws IOException {
+                sort(0, this.size - 1);
+                Path run;
+                synchronized (runs) {
+                    run = base.resolveSibling(base.getFileName() + ".run" + runs.size());
+                    runs.add(run);
+                }
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER))) {
+                    for (int i = 0; i < this.size; i++) {
+                        out.writeLong(this.keys[i]);
+                        out.writeLong(this.postings[i]);
+                    }
+                }
+                this.size = 0;
+            }
+
+            //Quicksort on both arrays at once, by key then posting
+            private void sort(int low, int high) {
+                while (high - low > 16) {
+                    int middle = (low + high) >>> 1;
+                    long pivotKey = this.keys[middle];
+                    long pivotPosting = this.postings[middle];
+                    int i = low;
+                    int j = high;
+                    while (i <= j) {
+                        while (compare(i, pivotKey, pivotPosting) < 0) {
+                            i++;
+                        }
+                        while (compare(j, pivotKey, pivotPosting) > 0) {
+                            j--;
+                        }
+                        if (i <= j) {
+                            swap(i++, j--);
+                        }
+                    }
+                    //The smaller side is sorted by recursion so the stack stays shallow
+                    if (j - low < high - i) {
+                        sort(low, j);
+                        low = i;
+                    } else {
+                        sort(i, high);
+                        high = j;
+                    }
+                }
+                for (int i = low + 1; i <= high; i++) {
+                    for (int j = i; j > low && compare(j, this.keys[j - 1], this.postings[j - 1]) < 0; j--) {
+                        swap(j, j - 1);
+                    }
+                }
+            }
+
+            private int compare(int i, long key, long posting) {
+                int byKey = Long.compare(this.keys[i], key);
+                return byKey != 0 ? byKey : Long.compare(this.postings[i], posting);
+            }
+
+            private void swap(int i, int j) {
+                long key = this.keys[i];
+                this.keys[i] = this.keys[j];
+                this.keys[j] = key;
+                long posting = this.postings[i];
+                this.postings[i] = this.postings[j];
+                this.postings[j] = posting;
+            }
+        }
+
+        //Reads a run back one pair at a time
+        private static class RunReader implements Closeable {
+
+            private final DataInputStream in;
+            private long key;
+            private long posting;
+
+            RunReader(Path run) throws IOException {
+                this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER));
+            }
+
+            boolean next() throws IOException {
+                try {
+                    this.key = this.in.readLong();
+                } catch (EOFException e) {
+                    return false;
+                }
+                this.posting = this.in.readLong();
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+                this.in.close();
+            }
+        }
+}
@@ -0,0 +1,94 @@
+package pgn;
+
+import board.Move;
+import java.util.List;
+
+/**
+ * Description: One game read back from a GameDatabase, its header record and
+ * its moves packed as from and to tiles like in ImportedGame
+ *
+ * Date: Oct. 19, 2026
+ */
+
+public class StoredGame {
+
+        private final long id;
+        private final String white;
+        private final String black;
+        private final String result;
+        private final String eco;
+        private final int date;
+        private final int whiteElo;
+        private final int blackElo;
+        private final short[] moves;
+
+        StoredGame(long id, String white, String black, String result, String eco, int date,
+                   int whiteElo, int blackElo, short[] moves) {
+            this.id = id;
+            this.white = white;
+            this.black = black;
+            this.result = result;
+            this.eco = eco;
+            this.date = date;
+            this.whiteElo = whiteElo;
+            this.blackElo = blackElo;
+            this.moves = moves;
+        }
+
+        //The game's place in the database, counting from 0
+        public long getId() {
+            return this.id;
+        }
+
+        public String getWhite() {
+            return this.white;
+        }
+
+        public String getBlack() {
+            return this.black;
+        }
+
+        //One of the PgnGame result strings
+        public String getResult() {
+            return this.result;
+        }
+
+        //Like C50, null if the game did not have one
+        public String getEco() {
+            return this.eco;
+        }
+
+        //The date as yyyymmdd, unknown parts are 0
+        public int getDate() {
+            return this.date;
+        }
+
+        public int getWhiteElo() {
+            return this.whiteElo;
+        }
+
+        public int getBlackElo() {
+            return this.blackElo;
+        }
+
+        public int getMoveCount() {
+            return this.moves.length;
+        }
+
+        public int getFrom(int ply) {
+            return this.moves[ply] >>> 6;
+        }
+
+        public int getTo(int ply) {
+            return this.moves[ply] & 63;
+        }
+
+        public List<Move> replay() {
+            return ImportedGame.replay(this.moves);
+        }
+
+        @Override
+        public String toString() {
+            return this.white + " - " + this.black + " " + this.result;
+        }
+}
@@ -93,6 +93,6 @@ public class Rook extends Piece {
     
     @Override
     public Rook movePiece(Move move) {
-        return new Rook (move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return new Rook (move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 }